@@ -24,12 +24,16 @@ import net.raphimc.thingl.gl.renderer.impl.Renderer2D;
 import net.raphimc.thingl.gl.renderer.impl.Renderer3D;
 import net.raphimc.thingl.gl.renderer.impl.RendererText;
 import net.raphimc.thingl.gl.rendering.dataholder.ImmediateMultiDrawBatchDataHolder;
+import net.raphimc.thingl.gl.rendering.upload.UploadCache;
 import net.raphimc.thingl.gl.text.SDFTextRenderer;
 import net.raphimc.thingl.gl.util.QuadIndexBuffer;
+import net.raphimc.thingl.gl.util.StreamingBuffer;
 import net.raphimc.thingl.gl.util.SyncManager;
+import net.raphimc.thingl.gl.util.pool.ConcurrentMemoryBufferPool;
 import net.raphimc.thingl.gl.util.pool.FramebufferPool;
 import net.raphimc.thingl.gl.util.pool.GpuBufferPool;
 import net.raphimc.thingl.gl.util.pool.ImmediateVertexArrays;
+import net.raphimc.thingl.gl.util.pool.MappedMemoryBufferPool;
 import net.raphimc.thingl.gl.util.pool.MemoryBufferPool;
 import net.raphimc.thingl.gl.util.pool.SamplerCache;
 import net.raphimc.thingl.gl.wrapper.GLStateManager;
@@ -46,6 +50,7 @@ import net.raphimc.thingl.implementation.gl.impl.GL45Backend;
 import net.raphimc.thingl.implementation.instance.InstanceManager;
 import net.raphimc.thingl.implementation.instance.SingleInstanceManager;
 import net.raphimc.thingl.implementation.window.WindowInterface;
+import net.raphimc.thingl.memory.util.FrameArena;
 import net.raphimc.thingl.text.util.freetype.FreeTypeLibrary;
 import org.lwjgl.opengl.GL11C;
 import org.lwjgl.opengl.GL30C;
@@ -80,12 +85,17 @@ public class ThinGL {
     private final GlobalUniforms globalUniforms;
     private final ImmediateMultiDrawBatchDataHolder globalDrawBatch;
     private final MemoryBufferPool memoryBufferPool;
+    private final ConcurrentMemoryBufferPool concurrentMemoryBufferPool;
     private final GpuBufferPool gpuBufferPool;
+    private final MappedMemoryBufferPool mappedMemoryBufferPool;
     private final FramebufferPool framebufferPool;
     private final ImmediateVertexArrays immediateVertexArrays;
     private final SamplerCache samplerCache;
     private final QuadIndexBuffer quadIndexBuffer;
     private final SyncManager syncManager;
+    private final StreamingBuffer streamingBuffer;
+    private final UploadCache uploadCache;
+    private final FrameArena frameArena;
 
     private final FreeTypeLibrary freeTypeLibrary;
 
@@ -183,10 +193,18 @@ public class ThinGL {
         return get().getMemoryBufferPool();
     }
 
+    public static ConcurrentMemoryBufferPool concurrentMemoryBufferPool() {
+        return get().getConcurrentMemoryBufferPool();
+    }
+
     public static GpuBufferPool gpuBufferPool() {
         return get().getGpuBufferPool();
     }
 
+    public static MappedMemoryBufferPool mappedMemoryBufferPool() {
+        return get().getMappedMemoryBufferPool();
+    }
+
     public static FramebufferPool framebufferPool() {
         return get().getFramebufferPool();
     }
@@ -207,6 +225,18 @@ public class ThinGL {
         return get().getSyncManager();
     }
 
+    public static StreamingBuffer streamingBuffer() {
+        return get().getStreamingBuffer();
+    }
+
+    public static UploadCache uploadCache() {
+        return get().getUploadCache();
+    }
+
+    public static FrameArena frameArena() {
+        return get().getFrameArena();
+    }
+
     public static FreeTypeLibrary freeTypeLibrary() {
         return get().getFreeTypeLibrary();
     }
@@ -236,12 +266,17 @@ public class ThinGL {
         this.globalUniforms = this.createGlobalUniforms();
         this.globalDrawBatch = this.createGlobalDrawBatch();
         this.memoryBufferPool = this.createMemoryBufferPool();
+        this.concurrentMemoryBufferPool = this.createConcurrentMemoryBufferPool();
         this.gpuBufferPool = this.createGpuBufferPool();
+        this.mappedMemoryBufferPool = this.createMappedMemoryBufferPool();
         this.framebufferPool = this.createFramebufferPool();
         this.immediateVertexArrays = this.createImmediateVertexArrays();
         this.samplerCache = this.createSamplerCache();
         this.quadIndexBuffer = this.createQuadIndexBuffer();
         this.syncManager = this.createSyncManager();
+        this.streamingBuffer = this.createStreamingBuffer();
+        this.uploadCache = this.createUploadCache();
+        this.frameArena = this.createFrameArena();
         if (Capabilities.isFreeTypeAvailable()) {
             this.freeTypeLibrary = this.createFreeTypeLibrary();
         } else {
@@ -323,6 +358,7 @@ public class ThinGL {
             }
         }
         this.frameEndActions.clear();
+        this.frameArena.reset();
 
         this.fullFrameTime = (System.nanoTime() - this.frameBeginTime) / 1_000_000F;
     }
@@ -398,12 +434,18 @@ public class ThinGL {
         this.renderer3D.free();
         this.rendererText.free();
         this.globalDrawBatch.free();
+        this.globalUniforms.free();
         this.memoryBufferPool.free();
+        this.concurrentMemoryBufferPool.free();
         this.gpuBufferPool.free();
+        this.mappedMemoryBufferPool.free();
         this.framebufferPool.free();
         this.immediateVertexArrays.free();
         this.samplerCache.free();
         this.quadIndexBuffer.free();
+        this.streamingBuffer.free();
+        this.uploadCache.free();
+        this.frameArena.free();
         if (this.freeTypeLibrary != null) {
             this.freeTypeLibrary.free();
         }
@@ -474,10 +516,18 @@ public class ThinGL {
         return this.memoryBufferPool;
     }
 
+    public ConcurrentMemoryBufferPool getConcurrentMemoryBufferPool() {
+        return this.concurrentMemoryBufferPool;
+    }
+
     public GpuBufferPool getGpuBufferPool() {
         return this.gpuBufferPool;
     }
 
+    public MappedMemoryBufferPool getMappedMemoryBufferPool() {
+        return this.mappedMemoryBufferPool;
+    }
+
     public FramebufferPool getFramebufferPool() {
         return this.framebufferPool;
     }
@@ -498,6 +548,18 @@ public class ThinGL {
         return this.syncManager;
     }
 
+    public StreamingBuffer getStreamingBuffer() {
+        return this.streamingBuffer;
+    }
+
+    public UploadCache getUploadCache() {
+        return this.uploadCache;
+    }
+
+    public FrameArena getFrameArena() {
+        return this.frameArena;
+    }
+
     public FreeTypeLibrary getFreeTypeLibrary() {
         return this.freeTypeLibrary;
     }
@@ -566,10 +628,18 @@ public class ThinGL {
         return new MemoryBufferPool();
     }
 
+    protected ConcurrentMemoryBufferPool createConcurrentMemoryBufferPool() {
+        return new ConcurrentMemoryBufferPool();
+    }
+
     protected GpuBufferPool createGpuBufferPool() {
         return new GpuBufferPool();
     }
 
+    protected MappedMemoryBufferPool createMappedMemoryBufferPool() {
+        return new MappedMemoryBufferPool();
+    }
+
     protected FramebufferPool createFramebufferPool() {
         return new FramebufferPool();
     }
@@ -590,6 +660,18 @@ public class ThinGL {
         return new SyncManager();
     }
 
+    protected StreamingBuffer createStreamingBuffer() {
+        return new StreamingBuffer();
+    }
+
+    protected UploadCache createUploadCache() {
+        return new UploadCache();
+    }
+
+    protected FrameArena createFrameArena() {
+        return new FrameArena();
+    }
+
     protected FreeTypeLibrary createFreeTypeLibrary() {
         return new FreeTypeLibrary();
     }
@@ -0,0 +1,34 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.program;
+
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.resource.program.Program;
+import net.raphimc.thingl.gl.resource.shader.Shader;
+
+public class ComputeProgram extends Program {
+
+    public ComputeProgram(final Shader computeShader) {
+        super(computeShader);
+    }
+
+    public void dispatch(final int groupsX, final int groupsY, final int groupsZ) {
+        ThinGL.glBackend().dispatchCompute(groupsX, groupsY, groupsZ);
+    }
+
+}
@@ -18,6 +18,7 @@
 package net.raphimc.thingl.gl.program;
 
 import net.lenni0451.commons.lazy.Lazy;
+import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.program.post.impl.ColorTweakProgram;
 import net.raphimc.thingl.gl.program.post.impl.GaussianBlurProgram;
 import net.raphimc.thingl.gl.program.post.impl.KawaseBlurProgram;
@@ -25,6 +26,7 @@ import net.raphimc.thingl.gl.program.post.impl.MSAAProgram;
 import net.raphimc.thingl.gl.program.post.impl.OutlineProgram;
 import net.raphimc.thingl.gl.program.post.impl.RainbowColorProgram;
 import net.raphimc.thingl.gl.program.post.impl.SingleColorProgram;
+import net.raphimc.thingl.gl.rendering.multidraw.MultiDrawBuilder;
 import net.raphimc.thingl.gl.resource.program.Program;
 import net.raphimc.thingl.gl.resource.shader.Shader;
 import net.raphimc.thingl.gl.text.SDFTextRenderer;
@@ -78,6 +80,26 @@ public class Programs {
         return program;
     });
 
+    private final Lazy<RegularProgram> multiTexture = Lazy.of(() -> {
+        final DefinesMap defines = new DefinesMap();
+        defines.putInt("MAX_TEXTURES", ThinGL.capabilities().getMaxTextureImageUnits());
+        final RegularProgram program = new RegularProgram(this.shaderLoader.get("regular/multi_texture", VERTEX), this.shaderLoader.get("regular/multi_texture", FRAGMENT, defines));
+        program.setDebugName("multi_texture");
+        return program;
+    });
+
+    private final Lazy<RegularProgram> bindlessTexture = Lazy.of(() -> {
+        final RegularProgram program = new RegularProgram(this.shaderLoader.get("regular/multi_texture", VERTEX), this.shaderLoader.get("regular/bindless_texture", FRAGMENT));
+        program.setDebugName("bindless_texture");
+        return program;
+    });
+
+    private final Lazy<RegularProgram> sdfShape = Lazy.of(() -> {
+        final RegularProgram program = new RegularProgram(this.shaderLoader.get("regular/sdf_shape", VERTEX), this.shaderLoader.get("regular/sdf_shape", FRAGMENT));
+        program.setDebugName("sdf_shape");
+        return program;
+    });
+
     private final Lazy<RegularProgram> line = Lazy.of(() -> {
         final RegularProgram program = new RegularProgram(this.shaderLoader.get("geometry/line", VERTEX), this.shaderLoader.get("geometry/line", GEOMETRY), this.shaderLoader.get("geometry/line", FRAGMENT));
         program.setDebugName("line");
@@ -160,6 +182,20 @@ public class Programs {
         return program;
     });
 
+    private final Lazy<RegularProgram> instancedSprite = Lazy.of(() -> {
+        final DefinesMap defines = new DefinesMap();
+        defines.putInt("MAX_TEXTURES", ThinGL.capabilities().getMaxTextureImageUnits());
+        final RegularProgram program = new RegularProgram(this.shaderLoader.get("instancing/sprite", VERTEX), this.shaderLoader.get("instancing/sprite", FRAGMENT, defines));
+        program.setDebugName("instanced_sprite");
+        return program;
+    });
+
+    private final Lazy<RegularProgram> bindlessInstancedSprite = Lazy.of(() -> {
+        final RegularProgram program = new RegularProgram(this.shaderLoader.get("instancing/sprite", VERTEX), this.shaderLoader.get("instancing/bindless_sprite", FRAGMENT));
+        program.setDebugName("bindless_instanced_sprite");
+        return program;
+    });
+
     private final Lazy<RegularProgram> multidrawColor = Lazy.of(() -> {
         final RegularProgram program = new RegularProgram(this.shaderLoader.get("multidraw/color", VERTEX), this.shaderLoader.get("regular/color", FRAGMENT));
         program.setDebugName("multidraw_color");
@@ -172,6 +208,14 @@ public class Programs {
         return program;
     });
 
+    private final Lazy<ComputeProgram> multidrawCull = Lazy.of(() -> {
+        final DefinesMap defines = new DefinesMap();
+        defines.putInt("WORKGROUP_SIZE", MultiDrawBuilder.CULL_WORKGROUP_SIZE);
+        final ComputeProgram program = new ComputeProgram(this.shaderLoader.get("multidraw/cull", COMPUTE, defines));
+        program.setDebugName("multidraw_cull");
+        return program;
+    });
+
     public RegularProgram getColor() {
         return this.color.get();
     }
@@ -193,6 +237,18 @@ public class Programs {
         return this.colorizedTexture.get();
     }
 
+    public RegularProgram getMultiTexture() {
+        return this.multiTexture.get();
+    }
+
+    public RegularProgram getBindlessTexture() {
+        return this.bindlessTexture.get();
+    }
+
+    public RegularProgram getSdfShape() {
+        return this.sdfShape.get();
+    }
+
     public RegularProgram getLine() {
         return this.line.get();
     }
@@ -241,6 +297,14 @@ public class Programs {
         return this.instancedColor.get();
     }
 
+    public RegularProgram getInstancedSprite() {
+        return this.instancedSprite.get();
+    }
+
+    public RegularProgram getBindlessInstancedSprite() {
+        return this.bindlessInstancedSprite.get();
+    }
+
     public RegularProgram getMultidrawColor() {
         return this.multidrawColor.get();
     }
@@ -249,6 +313,10 @@ public class Programs {
         return this.multidrawLine.get();
     }
 
+    public ComputeProgram getMultidrawCull() {
+        return this.multidrawCull.get();
+    }
+
     public void free() {
         Class<?> clazz = this.getClass();
         while (clazz != null) {
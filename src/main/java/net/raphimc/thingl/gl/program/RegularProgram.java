@@ -21,22 +21,39 @@ import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.resource.program.Program;
 import net.raphimc.thingl.gl.resource.shader.Shader;
 import net.raphimc.thingl.gl.wrapper.GLStateManager;
+import net.raphimc.thingl.implementation.GlobalUniforms;
 import org.joml.Matrix4f;
 
 public class RegularProgram extends Program {
 
+    private boolean usesGlobalUniformBlock;
+
     public RegularProgram(final Shader... shaders) {
         super(shaders);
     }
 
+    @Override
+    public void link() {
+        super.link();
+        final int globalUniformsBlockIndex = this.getUniformBlockIndex(GlobalUniforms.UNIFORM_BLOCK_NAME);
+        this.usesGlobalUniformBlock = globalUniformsBlockIndex != -1;
+        if (this.usesGlobalUniformBlock) {
+            ThinGL.glBackend().uniformBlockBinding(this.getGlId(), globalUniformsBlockIndex, GlobalUniforms.UNIFORM_BUFFER_INDEX);
+        }
+    }
+
     @Override
     public void bind() {
         super.bind();
-        final GLStateManager.Viewport viewport = ThinGL.glStateManager().getViewport();
-        this.setUniformMatrix4f("u_ProjectionMatrix", ThinGL.globalUniforms().getProjectionMatrix());
-        this.setUniformMatrix4f("u_ViewMatrix", ThinGL.globalUniforms().getViewMatrix());
-        this.setUniformVector4f("u_ColorModifier", ThinGL.globalUniforms().getColorModifier());
-        this.setUniformVector2f("u_Viewport", viewport.width(), viewport.height());
+        if (this.usesGlobalUniformBlock) {
+            ThinGL.globalUniforms().bindUniformBuffer();
+        } else { // Custom shaders might still declare the global uniforms as plain uniforms
+            final GLStateManager.Viewport viewport = ThinGL.glStateManager().getViewport();
+            this.setUniformMatrix4f("u_ProjectionMatrix", ThinGL.globalUniforms().getProjectionMatrix());
+            this.setUniformMatrix4f("u_ViewMatrix", ThinGL.globalUniforms().getViewMatrix());
+            this.setUniformVector4f("u_ColorModifier", ThinGL.globalUniforms().getColorModifier());
+            this.setUniformVector2f("u_Viewport", viewport.width(), viewport.height());
+        }
     }
 
     public void configureParameters(final Matrix4f modelMatrix) {
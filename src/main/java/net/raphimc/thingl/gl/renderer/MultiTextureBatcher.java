@@ -0,0 +1,173 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.renderer;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.resource.image.texture.impl.Texture2D;
+import net.raphimc.thingl.gl.resource.sampler.Sampler;
+import net.raphimc.thingl.rendering.DrawBatch;
+import net.raphimc.thingl.rendering.DrawBatches;
+import net.raphimc.thingl.rendering.bufferbuilder.ShaderBufferBuilder;
+import net.raphimc.thingl.rendering.bufferbuilder.impl.Std430ShaderBufferBuilder;
+import net.raphimc.thingl.rendering.dataholder.MultiDrawBatchDataHolder;
+
+/**
+ * Batches draws with different textures into as few draw batches as possible.<br>
+ * With bindless textures, the handles are created for a sampler owned by this batcher, which mirrors the texture parameters at the time the handle is created.
+ * Handles stay resident until their texture is freed, since persistent draw batch data holders can reference them for an unbounded amount of time.
+ * GL only deletes texture handles together with the texture, so the image storage of a texture stays immutable after it was drawn bindless.
+ */
+public class MultiTextureBatcher {
+
+    public static final int NO_TEXTURE_INDEX = 0xFFFFFFFF;
+    private static final int MAX_CACHED_TEXTURES = 1024;
+
+    private final DrawBatch.Snippet multiTextureSnippet;
+    private final DrawBatch.Snippet bindlessTextureSnippet;
+
+    private final Int2ObjectMap<TextureSlot> textureSlots = new Int2ObjectOpenHashMap<>();
+    private IntList openTextureIds;
+    private DrawBatch openDrawBatch;
+
+    private final Reference2LongMap<Texture2D> textureHandles = new Reference2LongOpenHashMap<>();
+    private final Object2ObjectMap<SamplerKey, Sampler> samplers = new Object2ObjectOpenHashMap<>();
+    private DrawBatch bindlessDrawBatch;
+    private ShaderBufferBuilder lastTextureHandleBufferBuilder;
+    private long lastTextureHandle;
+    private int lastTextureHandleIndex;
+
+    public MultiTextureBatcher() {
+        this(DrawBatches.MULTI_TEXTURE_SNIPPET, DrawBatches.BINDLESS_TEXTURE_SNIPPET);
+    }
+
+    public MultiTextureBatcher(final DrawBatch.Snippet multiTextureSnippet, final DrawBatch.Snippet bindlessTextureSnippet) {
+        this.multiTextureSnippet = multiTextureSnippet;
+        this.bindlessTextureSnippet = bindlessTextureSnippet;
+    }
+
+    public DrawBatch getDrawBatch(final Texture2D texture) {
+        if (ThinGL.capabilities().supportsBindlessTextures()) {
+            if (this.bindlessDrawBatch == null) {
+                this.bindlessDrawBatch = new DrawBatch.Builder(this.bindlessTextureSnippet).build();
+            }
+            return this.bindlessDrawBatch;
+        } else if (texture == null) {
+            return this.getOpenDrawBatch();
+        } else {
+            return this.getTextureSlot(texture.getGlId()).drawBatch();
+        }
+    }
+
+    public int getTextureIndex(final MultiDrawBatchDataHolder multiDrawBatchDataHolder, final Texture2D texture) {
+        if (texture == null) {
+            return NO_TEXTURE_INDEX;
+        } else if (ThinGL.capabilities().supportsBindlessTextures()) {
+            final ShaderBufferBuilder textureHandleBufferBuilder = multiDrawBatchDataHolder.getShaderStorageBufferBuilder(this.getDrawBatch(texture), "ssbo_TextureHandles", Std430ShaderBufferBuilder.SUPPLIER).ensureInTopLevelArray();
+            final long textureHandle = this.getTextureHandle(texture);
+            if (textureHandleBufferBuilder != this.lastTextureHandleBufferBuilder || textureHandle != this.lastTextureHandle) { // Consecutive quads with the same texture share the handle entry
+                this.lastTextureHandleBufferBuilder = textureHandleBufferBuilder;
+                this.lastTextureHandle = textureHandle;
+                this.lastTextureHandleIndex = textureHandleBufferBuilder.beginStruct(Long.BYTES).writeVector2i((int) textureHandle, (int) (textureHandle >>> 32)).endStructAndGetTopLevelArrayIndex();
+            }
+            return this.lastTextureHandleIndex;
+        } else {
+            return this.getTextureSlot(texture.getGlId()).index();
+        }
+    }
+
+    private TextureSlot getTextureSlot(final int textureId) {
+        TextureSlot textureSlot = this.textureSlots.get(textureId);
+        if (textureSlot == null) {
+            if (this.textureSlots.size() > MAX_CACHED_TEXTURES) { // Pending draw batches keep their texture list, so this only affects future draws
+                this.textureSlots.clear();
+                this.openDrawBatch = null;
+            }
+            if (this.openTextureIds != null && this.openTextureIds.size() >= ThinGL.capabilities().getMaxTextureImageUnits()) {
+                this.openDrawBatch = null;
+            }
+            textureSlot = new TextureSlot(this.getOpenDrawBatch(), this.openTextureIds.size());
+            this.openTextureIds.add(textureId);
+            this.textureSlots.put(textureId, textureSlot);
+        }
+        return textureSlot;
+    }
+
+    private DrawBatch getOpenDrawBatch() {
+        if (this.openDrawBatch == null) {
+            final IntList textureIds = new IntArrayList();
+            this.openTextureIds = textureIds;
+            this.openDrawBatch = new DrawBatch.Builder(this.multiTextureSnippet)
+                .appendSetupAction(p -> p.setUniformSamplerArray("u_Textures", textureIds.toIntArray()))
+                .build();
+        }
+        return this.openDrawBatch;
+    }
+
+    /**
+     * Releases the residency of all handles and deletes the samplers. Draw batch data holders which reference handles of this batcher must not be drawn afterwards.
+     */
+    public void free() {
+        for (Reference2LongMap.Entry<Texture2D> entry : this.textureHandles.reference2LongEntrySet()) {
+            if (entry.getKey().isAllocated()) { // Handles of freed textures are deleted together with the texture
+                ThinGL.glBackend().makeTextureHandleNonResident(entry.getLongValue());
+            }
+        }
+        this.textureHandles.clear();
+        this.lastTextureHandleBufferBuilder = null;
+        this.samplers.values().forEach(Sampler::free);
+        this.samplers.clear();
+    }
+
+    private long getTextureHandle(final Texture2D texture) {
+        if (!this.textureHandles.containsKey(texture)) { // Every handle in the map is resident, so it is only made resident once
+            if (this.textureHandles.size() > MAX_CACHED_TEXTURES) { // Handles of freed textures are deleted together with the texture
+                this.textureHandles.keySet().removeIf(t -> !t.isAllocated());
+            }
+            final SamplerKey samplerKey = new SamplerKey(texture.getMinificationFilter(), texture.getMagnificationFilter(), texture.getWrapS(), texture.getWrapT());
+            final Sampler sampler = this.samplers.computeIfAbsent(samplerKey, this::createSampler);
+            final long textureHandle = ThinGL.glBackend().getTextureSamplerHandle(texture.getGlId(), sampler.getGlId());
+            ThinGL.glBackend().makeTextureHandleResident(textureHandle);
+            this.textureHandles.put(texture, textureHandle);
+        }
+        return this.textureHandles.getLong(texture);
+    }
+
+    private Sampler createSampler(final SamplerKey samplerKey) {
+        final Sampler sampler = new Sampler();
+        sampler.setMinificationFilter(samplerKey.minificationFilter);
+        sampler.setMagnificationFilter(samplerKey.magnificationFilter);
+        sampler.setWrapS(samplerKey.wrapS);
+        sampler.setWrapT(samplerKey.wrapT);
+        return sampler;
+    }
+
+    private record SamplerKey(int minificationFilter, int magnificationFilter, int wrapS, int wrapT) {
+    }
+
+    private record TextureSlot(DrawBatch drawBatch, int index) {
+    }
+
+}
@@ -230,6 +230,39 @@ public final class Primitives {
         vertexBufferBuilder.endConnectedPrimitive();
     }
 
+    public static void sdfShape(final Matrix4f positionMatrix, final MultiDrawBatchDataHolder multiDrawBatchDataHolder, final float x, final float y, final float halfWidth, final float halfHeight, final float rbl, final float rbr, final float rtr, final float rtl, final float bandOffset, final float bandHalfWidth, final float degStart, final float degEnd, final int c) {
+        final VertexBufferBuilder vertexBufferBuilder = multiDrawBatchDataHolder.getVertexBufferBuilder(DrawBatches.SDF_SHAPE_QUAD);
+        final float maxRadius = Math.min(halfWidth, halfHeight);
+        final float clampedRbl = Math.min(rbl, maxRadius);
+        final float clampedRbr = Math.min(rbr, maxRadius);
+        final float clampedRtr = Math.min(rtr, maxRadius);
+        final float clampedRtl = Math.min(rtl, maxRadius);
+        final float extent = Math.max(bandOffset + bandHalfWidth, 0F) + 1F; // One unit of margin for the anti-aliased edge
+
+        final float arcSin;
+        final float arcCos;
+        final float axisSin;
+        final float axisCos;
+        if (Math.abs(degEnd - degStart) < 360F) { // The local position is rotated so that the arc is symmetric around the +y axis
+            final float halfAperture = Math.toRadians(Math.abs(degEnd - degStart)) / 2F;
+            final float axis = Math.toRadians((degStart + degEnd) / 2F) - MathUtil.HALF_PI;
+            arcSin = Math.sin(halfAperture);
+            arcCos = Math.cos(halfAperture);
+            axisSin = Math.sin(axis);
+            axisCos = Math.cos(axis);
+        } else {
+            arcSin = 0F;
+            arcCos = -1F;
+            axisSin = 1F;
+            axisCos = 0F;
+        }
+
+        _sdfShapeVertex(positionMatrix, vertexBufferBuilder, x, y, -halfWidth - extent, halfHeight + extent, axisSin, axisCos, c).writeVector2f(halfWidth, halfHeight).writeVector4f(clampedRbr, clampedRtr, clampedRbl, clampedRtl).writeVector4f(bandOffset, bandHalfWidth, arcSin, arcCos).endVertex();
+        _sdfShapeVertex(positionMatrix, vertexBufferBuilder, x, y, halfWidth + extent, halfHeight + extent, axisSin, axisCos, c).writeVector2f(halfWidth, halfHeight).writeVector4f(clampedRbr, clampedRtr, clampedRbl, clampedRtl).writeVector4f(bandOffset, bandHalfWidth, arcSin, arcCos).endVertex();
+        _sdfShapeVertex(positionMatrix, vertexBufferBuilder, x, y, halfWidth + extent, -halfHeight - extent, axisSin, axisCos, c).writeVector2f(halfWidth, halfHeight).writeVector4f(clampedRbr, clampedRtr, clampedRbl, clampedRtl).writeVector4f(bandOffset, bandHalfWidth, arcSin, arcCos).endVertex();
+        _sdfShapeVertex(positionMatrix, vertexBufferBuilder, x, y, -halfWidth - extent, -halfHeight - extent, axisSin, axisCos, c).writeVector2f(halfWidth, halfHeight).writeVector4f(clampedRbr, clampedRtr, clampedRbl, clampedRtl).writeVector4f(bandOffset, bandHalfWidth, arcSin, arcCos).endVertex();
+    }
+
     /**
      * <pre>
      * (x1, y1, c) ----- (x2, y2, c)
@@ -343,6 +376,10 @@ public final class Primitives {
         });
     }
 
+    public static VertexBufferBuilder _sdfShapeVertex(final Matrix4f positionMatrix, final VertexBufferBuilder vertexBufferBuilder, final float x, final float y, final float dx, final float dy, final float axisSin, final float axisCos, final int c) {
+        return vertexBufferBuilder.writeVector3f(positionMatrix, x + dx, y + dy, 0F).writeColor(c).writeVector2f(dx * axisSin - dy * axisCos, dx * axisCos + dy * axisSin);
+    }
+
     public static void _circle(final float degFrom, final float degTo, final FloatFloatBiConsumer valueConsumer) {
         if (degTo >= degFrom) {
             for (float angle = degTo; angle >= degFrom; angle -= 4F) {
@@ -17,12 +17,14 @@
  */
 package net.raphimc.thingl.gl.renderer.impl;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import net.lenni0451.commons.color.Color;
 import net.lenni0451.commons.math.shapes.triangle.TriangleD;
 import net.lenni0451.commons.math.shapes.triangle.TriangleF;
 import net.lenni0451.commons.math.shapes.triangle.TriangleI;
 import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.renderer.MultiTextureBatcher;
 import net.raphimc.thingl.gl.renderer.Primitives;
 import net.raphimc.thingl.gl.renderer.Renderer;
 import net.raphimc.thingl.gl.resource.image.texture.impl.Texture2D;
@@ -31,6 +33,7 @@ import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.DrawBatches;
 import net.raphimc.thingl.rendering.bufferbuilder.impl.IndexBufferBuilder;
 import net.raphimc.thingl.rendering.bufferbuilder.impl.VertexBufferBuilder;
+import net.raphimc.thingl.resource.memory.Memory;
 import net.raphimc.thingl.util.CacheUtil;
 import net.raphimc.thingl.util.Earcut;
 import org.joml.Matrix4f;
@@ -43,6 +46,7 @@ import org.joml.primitives.Rectangled;
 import org.joml.primitives.Rectanglef;
 import org.joml.primitives.Rectanglei;
 
+import java.nio.FloatBuffer;
 import java.util.List;
 import java.util.function.IntFunction;
 
@@ -51,9 +55,14 @@ public class Renderer2D extends Renderer {
     public static final int OUTLINE_STYLE_OUTER_BIT = 1 << 0;
     public static final int OUTLINE_STYLE_INNER_BIT = 1 << 1;
 
-    protected final IntFunction<DrawBatch> textureQuad = CacheUtil.memoizeInt(textureId -> new DrawBatch.Builder(DrawBatches.TEXTURE_SNIPPET)
-        .appendSetupAction(p -> p.setUniformSampler("u_Texture", textureId))
-        .build());
+    protected final MultiTextureBatcher multiTextureBatcher = new MultiTextureBatcher();
+
+    protected final MultiTextureBatcher spriteBatcher = new MultiTextureBatcher(DrawBatches.INSTANCED_SPRITE_SNIPPET, DrawBatches.BINDLESS_INSTANCED_SPRITE_SNIPPET);
+
+    protected final Earcut earcut = new Earcut();
+
+    private final IntList triangulationIndices = new IntArrayList();
+    private float[] coordinateBuffer = new float[256];
 
     protected final IntFunction<DrawBatch> textureArrayLayerQuad = CacheUtil.memoizeInt(textureId -> new DrawBatch.Builder(DrawBatches.TEXTURE_SNIPPET)
         .program(() -> ThinGL.programs().getTextureArrayLayer())
@@ -182,6 +191,11 @@ public class Renderer2D extends Renderer {
     }
 
     public void filledRoundedRectangle(final Matrix4f positionMatrix, final float xtl, final float ytl, final float xbr, final float ybr, final float rbl, final float rbr, final float rtr, final float rtl, final Color color) {
+        if (ThinGL.config().analyticShapes() && rbl >= 0 && rbr >= 0 && rtr >= 0 && rtl >= 0) {
+            Primitives.sdfShape(positionMatrix, this.targetMultiDrawBatchDataHolder, (xtl + xbr) / 2F, (ytl + ybr) / 2F, Math.abs(xbr - xtl) / 2F, Math.abs(ybr - ytl) / 2F, rbl, rbr, rtr, rtl, 0F, 0F, 0F, 360F, color.toABGR());
+            this.drawIfNotBuffering();
+            return;
+        }
         final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(DrawBatches.COLOR_TRIANGLE_FAN);
         final int abgrColor = color.toABGR();
 
@@ -257,6 +271,10 @@ public class Renderer2D extends Renderer {
     }
 
     public void outlinedRoundedRectangle(final Matrix4f positionMatrix, final float xtl, final float ytl, final float xbr, final float ybr, final float rbl, final float rbr, final float rtr, final float rtl, final Color color, final float width, final int styleFlags) {
+        if (ThinGL.config().analyticShapes() && rbl >= 0 && rbr >= 0 && rtr >= 0 && rtl >= 0) {
+            this.sdfOutline(positionMatrix, (xtl + xbr) / 2F, (ytl + ybr) / 2F, Math.abs(xbr - xtl) / 2F, Math.abs(ybr - ytl) / 2F, rbl, rbr, rtr, rtl, 0F, 360F, color, width, styleFlags);
+            return;
+        }
         final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(DrawBatches.COLOR_TRIANGLE_STRIP);
         final int abgrColor = color.toABGR();
 
@@ -392,7 +410,11 @@ public class Renderer2D extends Renderer {
     }
 
     public void filledCircle(final Matrix4f positionMatrix, final float x, final float y, final float radius, final Color color) {
-        Primitives.filledCircle(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius, color.toABGR());
+        if (ThinGL.config().analyticShapes()) {
+            Primitives.sdfShape(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius, radius, radius, radius, radius, radius, 0F, 0F, 0F, 360F, color.toABGR());
+        } else {
+            Primitives.filledCircle(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius, color.toABGR());
+        }
         this.drawIfNotBuffering();
     }
 
@@ -405,7 +427,11 @@ public class Renderer2D extends Renderer {
     }
 
     public void filledCircle(final Matrix4f positionMatrix, final float x, final float y, final float radius, final float degStart, final float degEnd, final Color color) {
-        Primitives.filledCircle(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius, degStart, degEnd, color.toABGR());
+        if (ThinGL.config().analyticShapes()) {
+            Primitives.sdfShape(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius, radius, radius, radius, radius, radius, 0F, 0F, degStart, degEnd, color.toABGR());
+        } else {
+            Primitives.filledCircle(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius, degStart, degEnd, color.toABGR());
+        }
         this.drawIfNotBuffering();
     }
 
@@ -430,6 +456,10 @@ public class Renderer2D extends Renderer {
     }
 
     public void outlinedCircle(final Matrix4f positionMatrix, final float x, final float y, final float radius, final Color color, final float width, final int styleFlags) {
+        if (ThinGL.config().analyticShapes()) {
+            this.sdfOutline(positionMatrix, x, y, radius, radius, radius, radius, radius, radius, 0F, 360F, color, width, styleFlags);
+            return;
+        }
         if ((styleFlags & OUTLINE_STYLE_OUTER_BIT) != 0) {
             Primitives.outlinedCircle(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius + width / 2F, width, color.toABGR());
         }
@@ -460,6 +490,10 @@ public class Renderer2D extends Renderer {
     }
 
     public void outlinedCircle(final Matrix4f positionMatrix, final float x, final float y, final float radius, final float degStart, final float degEnd, final Color color, final float width, final int styleFlags) {
+        if (ThinGL.config().analyticShapes()) {
+            this.sdfOutline(positionMatrix, x, y, radius, radius, radius, radius, radius, radius, degStart, degEnd, color, width, styleFlags);
+            return;
+        }
         if ((styleFlags & OUTLINE_STYLE_OUTER_BIT) != 0) {
             Primitives.outlinedCircle(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, radius + width / 2F, width, degStart, degEnd, color.toABGR());
         }
@@ -469,6 +503,19 @@ public class Renderer2D extends Renderer {
         this.drawIfNotBuffering();
     }
 
+    protected void sdfOutline(final Matrix4f positionMatrix, final float x, final float y, final float halfWidth, final float halfHeight, final float rbl, final float rbr, final float rtr, final float rtl, final float degStart, final float degEnd, final Color color, final float width, final int styleFlags) {
+        final boolean outer = (styleFlags & OUTLINE_STYLE_OUTER_BIT) != 0;
+        final boolean inner = (styleFlags & OUTLINE_STYLE_INNER_BIT) != 0;
+        if (outer && inner) {
+            Primitives.sdfShape(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, halfWidth, halfHeight, rbl, rbr, rtr, rtl, 0F, width, degStart, degEnd, color.toABGR());
+        } else if (outer) {
+            Primitives.sdfShape(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, halfWidth, halfHeight, rbl, rbr, rtr, rtl, width / 2F, width / 2F, degStart, degEnd, color.toABGR());
+        } else if (inner) {
+            Primitives.sdfShape(positionMatrix, this.targetMultiDrawBatchDataHolder, x, y, halfWidth, halfHeight, rbl, rbr, rtr, rtl, -width / 2F, width / 2F, degStart, degEnd, color.toABGR());
+        }
+        this.drawIfNotBuffering();
+    }
+
     public void rectLine(final Matrix4f positionMatrix, final Vector2d start, final Vector2d end, final float width, final Color color) {
         this.rectLine(positionMatrix, (float) start.x, (float) start.y, (float) end.x, (float) end.y, width, color);
     }
@@ -572,11 +619,23 @@ public class Renderer2D extends Renderer {
     }
 
     public void polyLine(final Matrix4f positionMatrix, final List<Vector2f> points, final float width, final Color color) {
-        if (points.size() < 2) {
+        this.polyLine(positionMatrix, this.copyCoordinates(points), 0, points.size(), width, color);
+    }
+
+    public void polyLine(final Matrix4f positionMatrix, final FloatBuffer coordinates, final int offset, final int count, final float width, final Color color) {
+        this.polyLine(positionMatrix, this.copyCoordinates(coordinates, offset, count), 0, count, width, color);
+    }
+
+    public void polyLine(final Matrix4f positionMatrix, final Memory coordinates, final long offset, final int count, final float width, final Color color) {
+        this.polyLine(positionMatrix, this.copyCoordinates(coordinates, offset, count), 0, count, width, color);
+    }
+
+    public void polyLine(final Matrix4f positionMatrix, final float[] coordinates, final int offset, final int count, final float width, final Color color) {
+        if (count < 2) {
             return;
         }
-        if (points.size() == 2) {
-            this.line(positionMatrix, points.get(0), points.get(1), width, color);
+        if (count == 2) {
+            this.line(positionMatrix, coordinates[offset], coordinates[offset + 1], coordinates[offset + 2], coordinates[offset + 3], width, color);
             return;
         }
 
@@ -586,28 +645,47 @@ public class Renderer2D extends Renderer {
         final float maxMiterLength = halfWidth * 10F;
         final int abgrColor = color.toABGR();
 
-        for (int i = 0; i < points.size(); i++) {
-            final Vector2f curr = points.get(i);
+        for (int i = 0; i < count; i++) {
+            final float currX = coordinates[offset + i * 2];
+            final float currY = coordinates[offset + i * 2 + 1];
             int prevIndex = i;
             do {
                 prevIndex--;
-            } while (prevIndex >= 0 && points.get(prevIndex).equals(curr));
-            final Vector2f prev = prevIndex >= 0 ? points.get(prevIndex) : curr;
+            } while (prevIndex >= 0 && coordinates[offset + prevIndex * 2] == currX && coordinates[offset + prevIndex * 2 + 1] == currY);
+            final boolean hasPrev = prevIndex >= 0;
+            final float prevX = hasPrev ? coordinates[offset + prevIndex * 2] : currX;
+            final float prevY = hasPrev ? coordinates[offset + prevIndex * 2 + 1] : currY;
             int nextIndex = i;
             do {
                 nextIndex++;
-            } while (nextIndex < points.size() && points.get(nextIndex).equals(curr));
-            final Vector2f next = nextIndex < points.size() ? points.get(nextIndex) : curr;
-
-            final Vector2f dirPrev = (prev.equals(curr) ? new Vector2f(next).sub(curr) : new Vector2f(curr).sub(prev)).normalize();
-            final Vector2f dirNext = (next.equals(curr) ? new Vector2f(curr).sub(prev) : new Vector2f(next).sub(curr)).normalize();
-            final Vector2f tangent = new Vector2f(dirPrev).add(dirNext).perpendicular().normalize(-1F);
-            tangent.mul(Math.min(halfWidth / tangent.dot(dirPrev.perpendicular().mul(-1F)), maxMiterLength));
-
-            vertexBufferBuilder.writeVector3f(positionMatrix, curr.x + tangent.x, curr.y + tangent.y, 0F).writeColor(abgrColor).endVertex();
-            vertexBufferBuilder.writeVector3f(positionMatrix, curr.x - tangent.x, curr.y - tangent.y, 0F).writeColor(abgrColor).endVertex();
+            } while (nextIndex < count && coordinates[offset + nextIndex * 2] == currX && coordinates[offset + nextIndex * 2 + 1] == currY);
+            final boolean hasNext = nextIndex < count;
+            final float nextX = hasNext ? coordinates[offset + nextIndex * 2] : currX;
+            final float nextY = hasNext ? coordinates[offset + nextIndex * 2 + 1] : currY;
+
+            float dirPrevX = hasPrev ? currX - prevX : nextX - currX;
+            float dirPrevY = hasPrev ? currY - prevY : nextY - currY;
+            final float dirPrevLength = (float) Math.sqrt(dirPrevX * dirPrevX + dirPrevY * dirPrevY);
+            dirPrevX /= dirPrevLength;
+            dirPrevY /= dirPrevLength;
+            float dirNextX = hasNext ? nextX - currX : currX - prevX;
+            float dirNextY = hasNext ? nextY - currY : currY - prevY;
+            final float dirNextLength = (float) Math.sqrt(dirNextX * dirNextX + dirNextY * dirNextY);
+            dirNextX /= dirNextLength;
+            dirNextY /= dirNextLength;
+            final float sumX = dirPrevX + dirNextX;
+            final float sumY = dirPrevY + dirNextY;
+            final float sumLength = (float) Math.sqrt(sumX * sumX + sumY * sumY);
+            float tangentX = -sumY / sumLength;
+            float tangentY = sumX / sumLength;
+            final float miterLength = Math.min(halfWidth / (tangentY * dirPrevX - tangentX * dirPrevY), maxMiterLength);
+            tangentX *= miterLength;
+            tangentY *= miterLength;
+
+            vertexBufferBuilder.writeVector3f(positionMatrix, currX + tangentX, currY + tangentY, 0F).writeColor(abgrColor).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, currX - tangentX, currY - tangentY, 0F).writeColor(abgrColor).endVertex();
         }
-        for (int i = 0; i < points.size() - 1; i++) {
+        for (int i = 0; i < count - 1; i++) {
             final int base = i * 2;
             indexBufferBuilder.writeRelativeIndex(base).writeRelativeIndex(base + 2).writeRelativeIndex(base + 1);
             indexBufferBuilder.writeRelativeIndex(base + 2).writeRelativeIndex(base + 3).writeRelativeIndex(base + 1);
@@ -617,20 +695,36 @@ public class Renderer2D extends Renderer {
     }
 
     public void filledConvexPolygon(final Matrix4f positionMatrix, final List<Vector2f> points, final Color color) {
-        if (points.size() < 3) {
+        this.filledConvexPolygon(positionMatrix, this.copyCoordinates(points), 0, points.size(), color);
+    }
+
+    public void filledConvexPolygon(final Matrix4f positionMatrix, final FloatBuffer coordinates, final int offset, final int count, final Color color) {
+        this.filledConvexPolygon(positionMatrix, this.copyCoordinates(coordinates, offset, count), 0, count, color);
+    }
+
+    public void filledConvexPolygon(final Matrix4f positionMatrix, final Memory coordinates, final long offset, final int count, final Color color) {
+        this.filledConvexPolygon(positionMatrix, this.copyCoordinates(coordinates, offset, count), 0, count, color);
+    }
+
+    public void filledConvexPolygon(final Matrix4f positionMatrix, final float[] coordinates, final int offset, final int count, final Color color) {
+        if (count < 3) {
             return;
         }
 
         float twiceArea = 0F;
         float centroidX = 0F;
         float centroidY = 0F;
-        Vector2f previousPoint = points.getLast();
-        for (Vector2f point : points) {
-            final float cross = previousPoint.x * point.y - point.x * previousPoint.y;
+        float previousX = coordinates[offset + (count - 1) * 2];
+        float previousY = coordinates[offset + (count - 1) * 2 + 1];
+        for (int i = 0; i < count; i++) {
+            final float x = coordinates[offset + i * 2];
+            final float y = coordinates[offset + i * 2 + 1];
+            final float cross = previousX * y - x * previousY;
             twiceArea += cross;
-            centroidX += (previousPoint.x + point.x) * cross;
-            centroidY += (previousPoint.y + point.y) * cross;
-            previousPoint = point;
+            centroidX += (previousX + x) * cross;
+            centroidY += (previousY + y) * cross;
+            previousX = x;
+            previousY = y;
         }
         if (twiceArea == 0F) {
             return;
@@ -641,15 +735,15 @@ public class Renderer2D extends Renderer {
         final int abgrColor = color.toABGR();
         vertexBufferBuilder.writeVector3f(positionMatrix, centroidX * centerFactor, centroidY * centerFactor, 0F).writeColor(abgrColor).endVertex();
         if (twiceArea > 0F) { // Clockwise winding order
-            for (int i = points.size() - 1; i >= 0; i--) {
-                vertexBufferBuilder.writeVector3f(positionMatrix, points.get(i), 0F).writeColor(abgrColor).endVertex();
+            for (int i = count - 1; i >= 0; i--) {
+                vertexBufferBuilder.writeVector3f(positionMatrix, coordinates[offset + i * 2], coordinates[offset + i * 2 + 1], 0F).writeColor(abgrColor).endVertex();
             }
-            vertexBufferBuilder.writeVector3f(positionMatrix, points.getLast(), 0F).writeColor(abgrColor).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, coordinates[offset + (count - 1) * 2], coordinates[offset + (count - 1) * 2 + 1], 0F).writeColor(abgrColor).endVertex();
         } else { // Counter-clockwise winding order
-            for (Vector2f point : points) {
-                vertexBufferBuilder.writeVector3f(positionMatrix, point, 0F).writeColor(abgrColor).endVertex();
+            for (int i = 0; i < count; i++) {
+                vertexBufferBuilder.writeVector3f(positionMatrix, coordinates[offset + i * 2], coordinates[offset + i * 2 + 1], 0F).writeColor(abgrColor).endVertex();
             }
-            vertexBufferBuilder.writeVector3f(positionMatrix, points.getFirst(), 0F).writeColor(abgrColor).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, coordinates[offset], coordinates[offset + 1], 0F).writeColor(abgrColor).endVertex();
         }
         vertexBufferBuilder.endConnectedPrimitive();
 
@@ -657,19 +751,33 @@ public class Renderer2D extends Renderer {
     }
 
     public void filledPolygon(final Matrix4f positionMatrix, final List<Vector2f> points, final Color color) {
-        if (points.size() < 3) {
+        this.filledPolygon(positionMatrix, this.copyCoordinates(points), 0, points.size(), color);
+    }
+
+    public void filledPolygon(final Matrix4f positionMatrix, final FloatBuffer coordinates, final int offset, final int count, final Color color) {
+        this.filledPolygon(positionMatrix, this.copyCoordinates(coordinates, offset, count), 0, count, color);
+    }
+
+    public void filledPolygon(final Matrix4f positionMatrix, final Memory coordinates, final long offset, final int count, final Color color) {
+        this.filledPolygon(positionMatrix, this.copyCoordinates(coordinates, offset, count), 0, count, color);
+    }
+
+    public void filledPolygon(final Matrix4f positionMatrix, final float[] coordinates, final int offset, final int count, final Color color) {
+        if (count < 3) {
             return;
         }
 
         final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(DrawBatches.INDEXED_COLOR_TRIANGLE);
         final IndexBufferBuilder indexBufferBuilder = this.targetMultiDrawBatchDataHolder.getIndexBufferBuilder(DrawBatches.INDEXED_COLOR_TRIANGLE);
         final int abgrColor = color.toABGR();
-        for (Vector2f point : points) {
-            vertexBufferBuilder.writeVector3f(positionMatrix, point, 0F).writeColor(abgrColor).endVertex();
+        for (int i = 0; i < count; i++) {
+            vertexBufferBuilder.writeVector3f(positionMatrix, coordinates[offset + i * 2], coordinates[offset + i * 2 + 1], 0F).writeColor(abgrColor).endVertex();
         }
-        final IntList indices = Earcut.earcut(points);
-        for (int i = indices.size() - 1; i >= 0; i--) {
-            indexBufferBuilder.writeRelativeIndex(indices.getInt(i));
+        this.earcut.setCacheSize(ThinGL.config().triangulationCacheSize());
+        this.triangulationIndices.clear();
+        this.earcut.triangulate(coordinates, offset, count, this.triangulationIndices);
+        for (int i = this.triangulationIndices.size() - 1; i >= 0; i--) {
+            indexBufferBuilder.writeRelativeIndex(this.triangulationIndices.getInt(i));
         }
 
         this.drawIfNotBuffering();
@@ -692,11 +800,12 @@ public class Renderer2D extends Renderer {
     }
 
     public void textureWithRawTexCoord(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final float width, final float height, final float u, final float v, final float uWidth, final float vHeight) {
-        final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(this.textureQuad.apply(texture.getGlId()));
-        vertexBufferBuilder.writeVector3f(positionMatrix, x, y + height, 0F).writeTextureCoord(u, v + vHeight).endVertex();
-        vertexBufferBuilder.writeVector3f(positionMatrix, x + width, y + height, 0F).writeTextureCoord(u + uWidth, v + vHeight).endVertex();
-        vertexBufferBuilder.writeVector3f(positionMatrix, x + width, y, 0F).writeTextureCoord(u + uWidth, v).endVertex();
-        vertexBufferBuilder.writeVector3f(positionMatrix, x, y, 0F).writeTextureCoord(u, v).endVertex();
+        final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(this.multiTextureBatcher.getDrawBatch(texture));
+        final int textureIndex = this.multiTextureBatcher.getTextureIndex(this.targetMultiDrawBatchDataHolder, texture);
+        vertexBufferBuilder.writeVector3f(positionMatrix, x, y + height, 0F).writeTextureCoord(u, v + vHeight).writeInt(textureIndex).endVertex();
+        vertexBufferBuilder.writeVector3f(positionMatrix, x + width, y + height, 0F).writeTextureCoord(u + uWidth, v + vHeight).writeInt(textureIndex).endVertex();
+        vertexBufferBuilder.writeVector3f(positionMatrix, x + width, y, 0F).writeTextureCoord(u + uWidth, v).writeInt(textureIndex).endVertex();
+        vertexBufferBuilder.writeVector3f(positionMatrix, x, y, 0F).writeTextureCoord(u, v).writeInt(textureIndex).endVertex();
         this.drawIfNotBuffering();
     }
 
@@ -770,6 +879,103 @@ public class Renderer2D extends Renderer {
         this.drawIfNotBuffering();
     }
 
+    public void filledSprite(final Matrix4f positionMatrix, final float x, final float y, final float width, final float height, final Color color) {
+        this.filledSprite(positionMatrix, x, y, width, height, color, 0F);
+    }
+
+    public void filledSprite(final Matrix4f positionMatrix, final float x, final float y, final float width, final float height, final Color color, final float rotation) {
+        this.spriteWithRawTexCoord(positionMatrix, null, x, y, width, height, 0F, 0F, 0F, 0F, color, rotation);
+    }
+
+    public void sprite(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final float width, final float height, final Color color) {
+        this.sprite(positionMatrix, texture, x, y, width, height, color, 0F);
+    }
+
+    public void sprite(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final float width, final float height, final Color color, final float rotation) {
+        this.spriteWithRawTexCoord(positionMatrix, texture, x, y, width, height, 0F, 0F, 1F, 1F, color, rotation);
+    }
+
+    public void sprite(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final float width, final float height, final float u, final float v, final float uWidth, final float vHeight, final Color color, final float rotation) {
+        this.spriteWithRawTexCoord(positionMatrix, texture, x, y, width, height, u / texture.getWidth(), v / texture.getHeight(), uWidth / texture.getWidth(), vHeight / texture.getHeight(), color, rotation);
+    }
+
+    public void spriteWithRawTexCoord(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final float width, final float height, final float u, final float v, final float uWidth, final float vHeight, final Color color, final float rotation) {
+        if (positionMatrix.m02() != 0F || positionMatrix.m12() != 0F || positionMatrix.m03() != 0F || positionMatrix.m13() != 0F || positionMatrix.m33() != 1F) {
+            this.spriteAsQuad(positionMatrix, texture, x, y, width, height, u, v, uWidth, vHeight, color, rotation);
+            return;
+        }
+
+        // The instance only encodes translation, scale and rotation, so the matrix has to be a similarity transform (or axis aligned without rotation)
+        final float centerX = x + width / 2F;
+        final float centerY = y + height / 2F;
+        final float scaledWidth;
+        final float scaledHeight;
+        final float cos;
+        final float sin;
+        if (positionMatrix.m00() == positionMatrix.m11() && positionMatrix.m10() == -positionMatrix.m01()) {
+            final float scale = (float) Math.sqrt(positionMatrix.m00() * positionMatrix.m00() + positionMatrix.m01() * positionMatrix.m01());
+            if (scale == 0F) {
+                return;
+            }
+            final float localCos = (float) Math.cos(rotation);
+            final float localSin = (float) Math.sin(rotation);
+            scaledWidth = width * scale;
+            scaledHeight = height * scale;
+            cos = (positionMatrix.m00() * localCos - positionMatrix.m01() * localSin) / scale;
+            sin = (positionMatrix.m01() * localCos + positionMatrix.m00() * localSin) / scale;
+        } else if (positionMatrix.m01() == 0F && positionMatrix.m10() == 0F && rotation == 0F) {
+            scaledWidth = width * positionMatrix.m00();
+            scaledHeight = height * positionMatrix.m11();
+            cos = 1F;
+            sin = 0F;
+        } else {
+            this.spriteAsQuad(positionMatrix, texture, x, y, width, height, u, v, uWidth, vHeight, color, rotation);
+            return;
+        }
+
+        final DrawBatch drawBatch = this.spriteBatcher.getDrawBatch(texture);
+        final int textureIndex = this.spriteBatcher.getTextureIndex(this.targetMultiDrawBatchDataHolder, texture);
+        if (!this.targetMultiDrawBatchDataHolder.getDrawBatchDataHolder(drawBatch).hasVertexData()) {
+            final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(drawBatch);
+            vertexBufferBuilder.writeVector2f(0F, 1F).endVertex();
+            vertexBufferBuilder.writeVector2f(1F, 1F).endVertex();
+            vertexBufferBuilder.writeVector2f(1F, 0F).endVertex();
+            vertexBufferBuilder.writeVector2f(0F, 0F).endVertex();
+        }
+        final VertexBufferBuilder instanceVertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getInstanceVertexBufferBuilder(drawBatch);
+        instanceVertexBufferBuilder.writeVector4f(positionMatrix.m00() * centerX + positionMatrix.m10() * centerY + positionMatrix.m30(), positionMatrix.m01() * centerX + positionMatrix.m11() * centerY + positionMatrix.m31(), scaledWidth, scaledHeight);
+        instanceVertexBufferBuilder.writeShort(toUnsignedNormalizedShort(u)).writeShort(toUnsignedNormalizedShort(v)).writeShort(toUnsignedNormalizedShort(uWidth)).writeShort(toUnsignedNormalizedShort(vHeight));
+        instanceVertexBufferBuilder.writeColor(color).writeFloat(positionMatrix.m32());
+        instanceVertexBufferBuilder.writeShort((short) Math.round(cos * Short.MAX_VALUE)).writeShort((short) Math.round(sin * Short.MAX_VALUE));
+        instanceVertexBufferBuilder.writeInt(textureIndex).endVertex();
+        this.drawIfNotBuffering();
+    }
+
+    protected void spriteAsQuad(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final float width, final float height, final float u, final float v, final float uWidth, final float vHeight, final Color color, final float rotation) {
+        final float centerX = x + width / 2F;
+        final float centerY = y + height / 2F;
+        final float cos = (float) Math.cos(rotation);
+        final float sin = (float) Math.sin(rotation);
+        final float halfWidthCos = width / 2F * cos;
+        final float halfWidthSin = width / 2F * sin;
+        final float halfHeightCos = height / 2F * cos;
+        final float halfHeightSin = height / 2F * sin;
+        if (texture != null) {
+            final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(this.coloredTextureQuad.apply(texture.getGlId()));
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX - halfWidthCos - halfHeightSin, centerY - halfWidthSin + halfHeightCos, 0F).writeColor(color).writeTextureCoord(u, v + vHeight).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX + halfWidthCos - halfHeightSin, centerY + halfWidthSin + halfHeightCos, 0F).writeColor(color).writeTextureCoord(u + uWidth, v + vHeight).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX + halfWidthCos + halfHeightSin, centerY + halfWidthSin - halfHeightCos, 0F).writeColor(color).writeTextureCoord(u + uWidth, v).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX - halfWidthCos + halfHeightSin, centerY - halfWidthSin - halfHeightCos, 0F).writeColor(color).writeTextureCoord(u, v).endVertex();
+        } else {
+            final VertexBufferBuilder vertexBufferBuilder = this.targetMultiDrawBatchDataHolder.getVertexBufferBuilder(DrawBatches.COLOR_QUAD);
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX - halfWidthCos - halfHeightSin, centerY - halfWidthSin + halfHeightCos, 0F).writeColor(color).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX + halfWidthCos - halfHeightSin, centerY + halfWidthSin + halfHeightCos, 0F).writeColor(color).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX + halfWidthCos + halfHeightSin, centerY + halfWidthSin - halfHeightCos, 0F).writeColor(color).endVertex();
+            vertexBufferBuilder.writeVector3f(positionMatrix, centerX - halfWidthCos + halfHeightSin, centerY - halfWidthSin - halfHeightCos, 0F).writeColor(color).endVertex();
+        }
+        this.drawIfNotBuffering();
+    }
+
     @Deprecated(forRemoval = true)
     public void colorizedTexture(final Matrix4f positionMatrix, final Texture2D texture, final float x, final float y, final Color color) {
         this.colorizedTexture(positionMatrix, texture, x, y, texture.getWidth(), texture.getHeight(), color);
@@ -800,4 +1006,46 @@ public class Renderer2D extends Renderer {
         this.drawIfNotBuffering();
     }
 
+    @Override
+    public void free() {
+        super.free();
+        this.multiTextureBatcher.free();
+        this.spriteBatcher.free();
+    }
+
+    private static short toUnsignedNormalizedShort(final float value) {
+        return (short) Math.round(Math.clamp(value, 0F, 1F) * 0xFFFF);
+    }
+
+    private float[] getCoordinateBuffer(final int count) {
+        if (this.coordinateBuffer.length < count * 2) {
+            this.coordinateBuffer = new float[Math.max(count * 2, this.coordinateBuffer.length * 2)];
+        }
+        return this.coordinateBuffer;
+    }
+
+    private float[] copyCoordinates(final List<Vector2f> points) {
+        final float[] coordinates = this.getCoordinateBuffer(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            final Vector2f point = points.get(i);
+            coordinates[i * 2] = point.x;
+            coordinates[i * 2 + 1] = point.y;
+        }
+        return coordinates;
+    }
+
+    private float[] copyCoordinates(final FloatBuffer buffer, final int offset, final int count) {
+        final float[] coordinates = this.getCoordinateBuffer(count);
+        buffer.get(offset, coordinates, 0, count * 2);
+        return coordinates;
+    }
+
+    private float[] copyCoordinates(final Memory memory, final long offset, final int count) {
+        final float[] coordinates = this.getCoordinateBuffer(count);
+        for (int i = 0; i < count * 2; i++) {
+            coordinates[i] = memory.getFloat(offset + (long) i * Float.BYTES);
+        }
+        return coordinates;
+    }
+
 }
@@ -24,6 +24,7 @@ import net.raphimc.thingl.gl.renderer.Renderer;
 import net.raphimc.thingl.gl.resource.image.texture.impl.CubeMapTexture;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.DrawBatches;
+import net.raphimc.thingl.rendering.RenderState;
 import net.raphimc.thingl.rendering.bufferbuilder.impl.VertexBufferBuilder;
 import net.raphimc.thingl.util.CacheUtil;
 import org.joml.Matrix4f;
@@ -50,13 +51,8 @@ public class Renderer3D extends Renderer {
     protected final IntFunction<DrawBatch> skyBox = CacheUtil.memoizeInt(textureId -> new DrawBatch.Builder(DrawBatches.TEXTURE_SNIPPET)
         .program(() -> ThinGL.programs().getSkyBox())
         .vertexDataLayout(DrawBatches.POSITION_LAYOUT)
-        .appendSetupAction(p -> {
-            ThinGL.glStateStack().enable(GL32C.GL_TEXTURE_CUBE_MAP_SEAMLESS);
-            ThinGL.glStateStack().pushDepthMask();
-            ThinGL.glStateManager().setDepthMask(false);
-            p.setUniformSampler("u_Texture", textureId);
-        })
-        .prependCleanupAction(() -> ThinGL.glStateStack().popDepthMask())
+        .mergeRenderState(new RenderState.Builder().enable(GL32C.GL_TEXTURE_CUBE_MAP_SEAMLESS).depthMask(false).build())
+        .appendSetupAction(p -> p.setUniformSampler("u_Texture", textureId))
         .build());
 
     public void filledBox(final Matrix4f positionMatrix, final AABBd aabb, final Color color) {
@@ -18,8 +18,8 @@
 package net.raphimc.thingl.gl.rendering;
 
 import net.raphimc.thingl.gl.program.RegularProgram;
+import net.raphimc.thingl.gl.rendering.upload.BufferRange;
 import net.raphimc.thingl.gl.rendering.upload.UploadedDrawBatchData;
-import net.raphimc.thingl.gl.resource.buffer.Buffer;
 import net.raphimc.thingl.gl.resource.program.Program;
 import net.raphimc.thingl.gl.resource.vertexarray.VertexArray;
 import net.raphimc.thingl.rendering.DrawBatch;
@@ -27,6 +27,7 @@ import net.raphimc.thingl.rendering.DrawMode;
 import net.raphimc.thingl.rendering.command.DrawCommand;
 import net.raphimc.thingl.rendering.command.impl.DrawArraysCommand;
 import net.raphimc.thingl.rendering.command.impl.DrawElementsCommand;
+import net.raphimc.thingl.rendering.vertex.DataType;
 import org.joml.Matrix4f;
 
 import java.util.List;
@@ -38,6 +39,16 @@ public final class DrawBatchRenderer {
     }
 
     public static void render(final UploadedDrawBatchData uploadedDrawBatchData, final Matrix4f modelMatrix) {
+        if (uploadedDrawBatchData.drawBatch().renderState() != null) {
+            final RenderStateTracker renderStateTracker = new RenderStateTracker();
+            render(uploadedDrawBatchData, modelMatrix, renderStateTracker);
+            renderStateTracker.restore();
+        } else {
+            render(uploadedDrawBatchData, modelMatrix, null);
+        }
+    }
+
+    public static void render(final UploadedDrawBatchData uploadedDrawBatchData, final Matrix4f modelMatrix, final RenderStateTracker renderStateTracker) {
         final DrawBatch drawBatch = uploadedDrawBatchData.drawBatch();
         final DrawMode drawMode = drawBatch.drawMode();
         final VertexArray vertexArray = uploadedDrawBatchData.vertexArray();
@@ -46,33 +57,56 @@ public final class DrawBatchRenderer {
             return;
         }
 
+        if (renderStateTracker != null) {
+            renderStateTracker.apply(drawBatch.renderState());
+        }
         drawBatch.setupAction().run();
         final Program program = drawBatch.program().get();
         if (program != null) {
             program.bind();
             if (program instanceof RegularProgram regularProgram) {
                 regularProgram.configureParameters(modelMatrix);
-                for (Map.Entry<String, Buffer> entry : uploadedDrawBatchData.uniformBuffers().entrySet()) {
-                    program.setUniformBuffer(entry.getKey(), entry.getValue());
+                for (Map.Entry<String, BufferRange> entry : uploadedDrawBatchData.uniformBuffers().entrySet()) {
+                    final BufferRange bufferRange = entry.getValue();
+                    if (bufferRange.isFullBuffer()) {
+                        program.setUniformBuffer(entry.getKey(), bufferRange.buffer());
+                    } else {
+                        program.setUniformBuffer(entry.getKey(), bufferRange.buffer(), bufferRange.offset(), bufferRange.size());
+                    }
                 }
-                for (Map.Entry<String, Buffer> entry : uploadedDrawBatchData.shaderStorageBuffers().entrySet()) {
-                    program.setShaderStorageBuffer(entry.getKey(), entry.getValue());
+                for (Map.Entry<String, BufferRange> entry : uploadedDrawBatchData.shaderStorageBuffers().entrySet()) {
+                    final BufferRange bufferRange = entry.getValue();
+                    if (bufferRange.isFullBuffer()) {
+                        program.setShaderStorageBuffer(entry.getKey(), bufferRange.buffer());
+                    } else {
+                        program.setShaderStorageBuffer(entry.getKey(), bufferRange.buffer(), bufferRange.offset(), bufferRange.size());
+                    }
                 }
             }
         }
 
-        if (drawCommands.size() == 1) {
+        if (uploadedDrawBatchData.drawCountBuffer() != null) { // The draw count is only known on the GPU
+            final BufferRange commandBuffer = uploadedDrawBatchData.commandBuffer();
+            final BufferRange drawCountBuffer = uploadedDrawBatchData.drawCountBuffer();
+            if (vertexArray.getIndexBuffer() != null) {
+                vertexArray.drawElementsIndirectCount(drawMode, commandBuffer.buffer(), commandBuffer.offset(), drawCountBuffer.buffer(), drawCountBuffer.offset(), drawCommands.size());
+            } else {
+                vertexArray.drawArraysIndirectCount(drawMode, commandBuffer.buffer(), commandBuffer.offset(), drawCountBuffer.buffer(), drawCountBuffer.offset(), drawCommands.size());
+            }
+        } else if (drawCommands.size() == 1) {
             final DrawCommand drawCommand = drawCommands.getFirst();
             if (drawCommand instanceof DrawElementsCommand drawElementsCommand) {
-                vertexArray.drawElements(drawMode, drawElementsCommand.vertexCount(), drawElementsCommand.firstIndex(), drawElementsCommand.instanceCount(), drawElementsCommand.baseVertex(), drawElementsCommand.baseInstance());
+                final int indexSize = DataType.fromGlType(vertexArray.getIndexType()).getSize();
+                vertexArray.drawElements(drawMode, drawElementsCommand.vertexCount(), drawElementsCommand.firstIndex() * indexSize, drawElementsCommand.instanceCount(), drawElementsCommand.baseVertex(), drawElementsCommand.baseInstance());
             } else if (drawCommand instanceof DrawArraysCommand drawArraysCommand) {
                 vertexArray.drawArrays(drawMode, drawArraysCommand.vertexCount(), drawArraysCommand.firstVertex(), drawArraysCommand.instanceCount(), drawArraysCommand.baseInstance());
             }
         } else if (uploadedDrawBatchData.commandBuffer() != null) {
+            final BufferRange commandBuffer = uploadedDrawBatchData.commandBuffer();
             if (vertexArray.getIndexBuffer() != null) {
-                vertexArray.drawElementsIndirect(drawMode, uploadedDrawBatchData.commandBuffer(), 0, drawCommands.size());
+                vertexArray.drawElementsIndirect(drawMode, commandBuffer.buffer(), commandBuffer.offset(), drawCommands.size());
             } else {
-                vertexArray.drawArraysIndirect(drawMode, uploadedDrawBatchData.commandBuffer(), 0, drawCommands.size());
+                vertexArray.drawArraysIndirect(drawMode, commandBuffer.buffer(), commandBuffer.offset(), drawCommands.size());
             }
         } else {
             throw new IllegalStateException("Draw calls with multiple draw commands require a command buffer");
@@ -0,0 +1,125 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.rendering;
+
+import it.unimi.dsi.fastutil.ints.Int2BooleanMap;
+import it.unimi.dsi.fastutil.ints.Int2BooleanOpenHashMap;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.wrapper.GLStateManager;
+import net.raphimc.thingl.rendering.RenderState;
+
+public class RenderStateTracker {
+
+    private final Int2BooleanMap originalCapabilities = new Int2BooleanOpenHashMap();
+    private final Int2BooleanMap currentCapabilities = new Int2BooleanOpenHashMap();
+    private GLStateManager.BlendFunc originalBlendFunc;
+    private GLStateManager.BlendFunc currentBlendFunc;
+    private Integer originalBlendEquation;
+    private Integer currentBlendEquation;
+    private Integer originalDepthFunc;
+    private Integer currentDepthFunc;
+    private Boolean originalDepthMask;
+    private Boolean currentDepthMask;
+    private GLStateManager.ColorMask originalColorMask;
+    private GLStateManager.ColorMask currentColorMask;
+
+    public void apply(RenderState renderState) {
+        if (renderState == null) {
+            renderState = RenderState.EMPTY;
+        }
+        final GLStateManager glStateManager = ThinGL.glStateManager();
+
+        for (Int2BooleanMap.Entry entry : renderState.capabilities().int2BooleanEntrySet()) {
+            final int capability = entry.getIntKey();
+            if (!this.originalCapabilities.containsKey(capability)) {
+                final boolean originalState = glStateManager.getCapability(capability);
+                this.originalCapabilities.put(capability, originalState);
+                this.currentCapabilities.put(capability, originalState);
+            }
+            if (this.currentCapabilities.get(capability) != entry.getBooleanValue()) {
+                glStateManager.setCapability(capability, entry.getBooleanValue());
+                this.currentCapabilities.put(capability, entry.getBooleanValue());
+            }
+        }
+        for (Int2BooleanMap.Entry entry : this.currentCapabilities.int2BooleanEntrySet()) { // Revert capabilities the previous state changed but this one doesn't care about
+            final int capability = entry.getIntKey();
+            final boolean originalState = this.originalCapabilities.get(capability);
+            if (!renderState.capabilities().containsKey(capability) && entry.getBooleanValue() != originalState) {
+                glStateManager.setCapability(capability, originalState);
+                entry.setValue(originalState);
+            }
+        }
+
+        if (renderState.blendFunc() != null && this.originalBlendFunc == null) {
+            this.originalBlendFunc = this.currentBlendFunc = glStateManager.getBlendFunc();
+        }
+        final GLStateManager.BlendFunc blendFunc = renderState.blendFunc() != null ? renderState.blendFunc() : this.originalBlendFunc;
+        if (blendFunc != null && !blendFunc.equals(this.currentBlendFunc)) {
+            glStateManager.setBlendFunc(blendFunc);
+            this.currentBlendFunc = blendFunc;
+        }
+
+        if (renderState.blendEquation() != null && this.originalBlendEquation == null) {
+            this.originalBlendEquation = this.currentBlendEquation = glStateManager.getBlendEquation();
+        }
+        final Integer blendEquation = renderState.blendEquation() != null ? renderState.blendEquation() : this.originalBlendEquation;
+        if (blendEquation != null && !blendEquation.equals(this.currentBlendEquation)) {
+            glStateManager.setBlendEquation(blendEquation);
+            this.currentBlendEquation = blendEquation;
+        }
+
+        if (renderState.depthFunc() != null && this.originalDepthFunc == null) {
+            this.originalDepthFunc = this.currentDepthFunc = glStateManager.getDepthFunc();
+        }
+        final Integer depthFunc = renderState.depthFunc() != null ? renderState.depthFunc() : this.originalDepthFunc;
+        if (depthFunc != null && !depthFunc.equals(this.currentDepthFunc)) {
+            glStateManager.setDepthFunc(depthFunc);
+            this.currentDepthFunc = depthFunc;
+        }
+
+        if (renderState.depthMask() != null && this.originalDepthMask == null) {
+            this.originalDepthMask = this.currentDepthMask = glStateManager.getDepthMask();
+        }
+        final Boolean depthMask = renderState.depthMask() != null ? renderState.depthMask() : this.originalDepthMask;
+        if (depthMask != null && !depthMask.equals(this.currentDepthMask)) {
+            glStateManager.setDepthMask(depthMask);
+            this.currentDepthMask = depthMask;
+        }
+
+        if (renderState.colorMask() != null && this.originalColorMask == null) {
+            this.originalColorMask = this.currentColorMask = glStateManager.getColorMask();
+        }
+        final GLStateManager.ColorMask colorMask = renderState.colorMask() != null ? renderState.colorMask() : this.originalColorMask;
+        if (colorMask != null && !colorMask.equals(this.currentColorMask)) {
+            glStateManager.setColorMask(colorMask);
+            this.currentColorMask = colorMask;
+        }
+    }
+
+    public void restore() {
+        this.apply(RenderState.EMPTY);
+        this.originalCapabilities.clear();
+        this.currentCapabilities.clear();
+        this.originalBlendFunc = this.currentBlendFunc = null;
+        this.originalBlendEquation = this.currentBlendEquation = null;
+        this.originalDepthFunc = this.currentDepthFunc = null;
+        this.originalDepthMask = this.currentDepthMask = null;
+        this.originalColorMask = this.currentColorMask = null;
+    }
+
+}
@@ -17,20 +17,28 @@
  */
 package net.raphimc.thingl.gl.rendering.dataholder;
 
-import net.lenni0451.commons.arrays.ArrayUtils;
 import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.rendering.DrawBatchRenderer;
+import net.raphimc.thingl.gl.rendering.RenderStateTracker;
 import net.raphimc.thingl.gl.rendering.upload.DrawBatchDataUploader;
+import net.raphimc.thingl.gl.rendering.upload.ShaderDataArena;
 import net.raphimc.thingl.gl.rendering.upload.UploadedDrawBatchData;
+import net.raphimc.thingl.gl.util.QuadIndexBuffer;
 import net.raphimc.thingl.rendering.DrawBatch;
+import net.raphimc.thingl.rendering.DrawMode;
 import net.raphimc.thingl.rendering.dataholder.DrawBatchDataHolder;
 import net.raphimc.thingl.rendering.dataholder.MultiDrawBatchDataHolder;
 import net.raphimc.thingl.rendering.preparation.DrawBatchDataPreparer;
 import net.raphimc.thingl.rendering.preparation.PreparedDrawBatchData;
 import org.joml.Matrix4f;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ImmediateMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder {
 
+    private final RenderStateTracker renderStateTracker = new RenderStateTracker();
+
     public ImmediateMultiDrawBatchDataHolder() {
     }
 
@@ -41,16 +49,45 @@ public class ImmediateMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder
     @Override
     public void draw(final Matrix4f modelMatrix) {
         if (this.hasDrawBatches()) {
-            for (DrawBatch drawBatch : this.firstOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix);
+            final List<DrawBatch> drawBatches = this.getOrderedDrawBatches(this.drawBatches.keySet());
+
+            // Resize the shared quad index buffer up front, so that it doesn't change while other batches reference it
+            int maxQuadCount = 0;
+            for (DrawBatch drawBatch : drawBatches) {
+                final DrawBatchDataHolder drawBatchDataHolder = this.drawBatches.get(drawBatch);
+                if (drawBatch.drawMode() == DrawMode.QUADS && drawBatchDataHolder.hasVertexData() && !drawBatchDataHolder.hasIndexData()) {
+                    maxQuadCount = Math.max(maxQuadCount, drawBatchDataHolder.getVertexBufferBuilder().getVertexCount() / QuadIndexBuffer.QUAD_VERTEX_COUNT);
+                }
+            }
+            ThinGL.quadIndexBuffer().ensureSize(maxQuadCount);
+
+            final List<PreparedDrawBatchData> preparedDrawBatchDatas = new ArrayList<>(drawBatches.size());
+            for (DrawBatch drawBatch : drawBatches) {
+                preparedDrawBatchDatas.add(DrawBatchDataPreparer.prepareDrawBatchData(drawBatch, this.drawBatches.remove(drawBatch), ThinGL.config().triangulateConnectedPrimitives(), ThinGL.config().narrowIndices()));
             }
-            for (DrawBatch drawBatch : this.drawBatches.keySet().toArray(DrawBatch.EMPTY_ARRAY)) {
-                if (!ArrayUtils.contains(this.lastOrderedDrawBatches, drawBatch)) {
-                    this.draw(drawBatch, modelMatrix);
+            this.invalidateCache();
+
+            final UploadedDrawBatchData[] cachedUploadedDrawBatchDatas = new UploadedDrawBatchData[preparedDrawBatchDatas.size()];
+            final List<PreparedDrawBatchData> uncachedPreparedDrawBatchDatas = new ArrayList<>(preparedDrawBatchDatas.size());
+            for (int i = 0; i < preparedDrawBatchDatas.size(); i++) {
+                cachedUploadedDrawBatchDatas[i] = this.getCachedUploadedDrawBatchData(preparedDrawBatchDatas.get(i));
+                if (cachedUploadedDrawBatchDatas[i] == null) {
+                    uncachedPreparedDrawBatchDatas.add(preparedDrawBatchDatas.get(i));
                 }
             }
-            for (DrawBatch drawBatch : this.lastOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix);
+
+            // Pack the uniform and shader storage data of all batches into a single buffer, unless the streaming or mapped upload paths already do that
+            ShaderDataArena shaderDataArena = null;
+            final boolean bufferStorageUploads = (ThinGL.config().mappedUploads() || ThinGL.config().streamingUploads()) && ThinGL.capabilities().supportsBufferStorage();
+            if (uncachedPreparedDrawBatchDatas.size() > 1 && !bufferStorageUploads) {
+                shaderDataArena = new ShaderDataArena(uncachedPreparedDrawBatchDatas);
+            }
+            for (int i = 0; i < preparedDrawBatchDatas.size(); i++) {
+                this.render(preparedDrawBatchDatas.get(i), cachedUploadedDrawBatchDatas[i], shaderDataArena, modelMatrix);
+            }
+            this.renderStateTracker.restore();
+            if (shaderDataArena != null) {
+                shaderDataArena.free();
             }
         }
     }
@@ -60,17 +97,37 @@ public class ImmediateMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder
         final DrawBatchDataHolder drawBatchDataHolder = this.drawBatches.remove(drawBatch);
         if (drawBatchDataHolder != null) {
             this.invalidateCache();
-            final PreparedDrawBatchData preparedDrawBatchData = DrawBatchDataPreparer.prepareDrawBatchData(drawBatch, drawBatchDataHolder);
-            final UploadedDrawBatchData uploadedDrawBatchData = DrawBatchDataUploader.uploadTemporary(preparedDrawBatchData);
-            DrawBatchDataPreparer.freePreparedDrawBatchData(preparedDrawBatchData);
-            DrawBatchRenderer.render(uploadedDrawBatchData, modelMatrix);
-            DrawBatchDataUploader.freeTemporaryData(uploadedDrawBatchData);
+            final PreparedDrawBatchData preparedDrawBatchData = DrawBatchDataPreparer.prepareDrawBatchData(drawBatch, drawBatchDataHolder, ThinGL.config().triangulateConnectedPrimitives(), ThinGL.config().narrowIndices());
+            this.render(preparedDrawBatchData, this.getCachedUploadedDrawBatchData(preparedDrawBatchData), null, modelMatrix);
+            this.renderStateTracker.restore();
         }
     }
 
     @Override
     protected DrawBatchDataHolder createDrawBatchDataHolder(final DrawBatch drawBatch) {
+        if (ThinGL.config().mappedUploads() && ThinGL.capabilities().supportsBufferStorage()) {
+            return new MappedDrawBatchDataHolder(ThinGL.mappedMemoryBufferPool());
+        }
         return new DrawBatchDataHolder(ThinGL.memoryBufferPool()::borrowMemoryBuffer, ThinGL.memoryBufferPool()::returnMemoryBuffer);
     }
 
+    private UploadedDrawBatchData getCachedUploadedDrawBatchData(final PreparedDrawBatchData preparedDrawBatchData) {
+        if (ThinGL.config().uploadCaching()) {
+            return ThinGL.uploadCache().getOrUpload(preparedDrawBatchData);
+        }
+        return null;
+    }
+
+    private void render(final PreparedDrawBatchData preparedDrawBatchData, final UploadedDrawBatchData cachedUploadedDrawBatchData, final ShaderDataArena shaderDataArena, final Matrix4f modelMatrix) {
+        if (cachedUploadedDrawBatchData != null) { // Owned by the upload cache
+            DrawBatchDataPreparer.freePreparedDrawBatchData(preparedDrawBatchData);
+            DrawBatchRenderer.render(cachedUploadedDrawBatchData, modelMatrix, this.renderStateTracker);
+            return;
+        }
+        final UploadedDrawBatchData uploadedDrawBatchData = DrawBatchDataUploader.uploadTemporary(preparedDrawBatchData, shaderDataArena);
+        DrawBatchDataPreparer.freePreparedDrawBatchData(preparedDrawBatchData);
+        DrawBatchRenderer.render(uploadedDrawBatchData, modelMatrix, this.renderStateTracker);
+        DrawBatchDataUploader.freeTemporaryData(uploadedDrawBatchData);
+    }
+
 }
@@ -0,0 +1,42 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.rendering.dataholder;
+
+import net.raphimc.thingl.gl.resource.buffer.Buffer;
+import net.raphimc.thingl.gl.util.MappedMemoryBuffer;
+import net.raphimc.thingl.gl.util.pool.MappedMemoryBufferPool;
+import net.raphimc.thingl.memory.MemoryBuffer;
+import net.raphimc.thingl.rendering.dataholder.DrawBatchDataHolder;
+import net.raphimc.thingl.resource.memory.Memory;
+
+public class MappedDrawBatchDataHolder extends DrawBatchDataHolder {
+
+    public MappedDrawBatchDataHolder(final MappedMemoryBufferPool mappedMemoryBufferPool) {
+        super(mappedMemoryBufferPool::borrowMemoryBuffer, memoryBuffer -> mappedMemoryBufferPool.returnMemoryBuffer((MappedMemoryBuffer) memoryBuffer));
+    }
+
+    public Buffer getMappedBuffer(final Memory memory) {
+        for (MemoryBuffer memoryBuffer : this.getMemoryBuffers()) {
+            if (memoryBuffer.getMemory().getAddress() == memory.getAddress()) {
+                return ((MappedMemoryBuffer) memoryBuffer).getBuffer();
+            }
+        }
+        throw new IllegalArgumentException("Memory is not backed by a mapped buffer of this draw batch data holder");
+    }
+
+}
@@ -19,25 +19,35 @@ package net.raphimc.thingl.gl.rendering.dataholder;
 
 import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
-import net.lenni0451.commons.arrays.ArrayUtils;
+import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.rendering.DrawBatchRenderer;
+import net.raphimc.thingl.gl.rendering.RenderStateTracker;
 import net.raphimc.thingl.gl.rendering.upload.DrawBatchDataUploader;
 import net.raphimc.thingl.gl.rendering.upload.UploadedDrawBatchData;
 import net.raphimc.thingl.memory.MemoryBuffer;
+import net.raphimc.thingl.memory.allocator.MemoryAllocator;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.dataholder.DrawBatchDataHolder;
 import net.raphimc.thingl.rendering.dataholder.MultiDrawBatchDataHolder;
 import net.raphimc.thingl.rendering.preparation.DrawBatchDataOptimizer;
 import net.raphimc.thingl.rendering.preparation.DrawBatchDataPreparer;
 import net.raphimc.thingl.rendering.preparation.PreparedDrawBatchData;
+import net.raphimc.thingl.resource.memory.Memory;
 import org.joml.Matrix4f;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class PersistentMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder {
 
     private final Reference2ObjectMap<DrawBatch, PreparedDrawBatchData> preparedDrawBatches = new Reference2ObjectLinkedOpenHashMap<>();
     private final Reference2ObjectMap<DrawBatch, UploadedDrawBatchData> uploadedDrawBatches = new Reference2ObjectLinkedOpenHashMap<>();
+    private final RenderStateTracker renderStateTracker = new RenderStateTracker();
 
     public PersistentMultiDrawBatchDataHolder() {
     }
@@ -51,6 +61,15 @@ public class PersistentMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder
         this.upload();
     }
 
+    public CompletableFuture<Void> buildAsync() {
+        return this.buildAsync(ForkJoinPool.commonPool());
+    }
+
+    public CompletableFuture<Void> buildAsync(final Executor executor) {
+        final ThinGL thinGL = ThinGL.get(); // Worker threads might not have access to the ThinGL instance
+        return this.prepareAsync(executor).thenCompose(_ -> CompletableFuture.runAsync(this::upload, thinGL::runOnRenderThread));
+    }
+
     public void prepare() {
         this.freePreparedBatches();
         for (Map.Entry<DrawBatch, DrawBatchDataHolder> entry : this.drawBatches.entrySet()) {
@@ -60,10 +79,62 @@ public class PersistentMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder
         this.invalidateCache();
     }
 
+    public CompletableFuture<Void> prepareAsync(final Executor executor) {
+        this.freePreparedBatches();
+        final List<DrawBatch> drawBatches = new ArrayList<>(this.drawBatches.size());
+        final List<DrawBatchDataHolder> drawBatchDataHolders = new ArrayList<>(this.drawBatches.size());
+        final List<CompletableFuture<PreparedDrawBatchData>> futures = new ArrayList<>(this.drawBatches.size());
+        for (Map.Entry<DrawBatch, DrawBatchDataHolder> entry : this.drawBatches.entrySet()) {
+            final DrawBatch drawBatch = entry.getKey();
+            final DrawBatchDataHolder drawBatchDataHolder = entry.getValue();
+            drawBatches.add(drawBatch);
+            drawBatchDataHolders.add(drawBatchDataHolder);
+            futures.add(CompletableFuture.supplyAsync(() -> DrawBatchDataPreparer.prepareDrawBatchData(drawBatch, drawBatchDataHolder, false, false, false), executor));
+        }
+        this.drawBatches.clear();
+        this.invalidateCache();
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).handle((_, throwable) -> {
+            if (throwable != null) {
+                for (int i = 0; i < futures.size(); i++) {
+                    if (futures.get(i).isCompletedExceptionally()) {
+                        drawBatchDataHolders.get(i).free();
+                    } else {
+                        DrawBatchDataPreparer.freePreparedDrawBatchData(futures.get(i).join());
+                    }
+                }
+                throw new CompletionException(throwable);
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                this.preparedDrawBatches.put(drawBatches.get(i), futures.get(i).join());
+            }
+            return null;
+        });
+    }
+
     public void optimize() {
         this.preparedDrawBatches.replaceAll((_, preparedDrawBatchData) -> DrawBatchDataOptimizer.optimize(preparedDrawBatchData));
     }
 
+    public CompletableFuture<Void> optimizeAsync(final Executor executor) {
+        final List<DrawBatch> drawBatches = new ArrayList<>(this.preparedDrawBatches.keySet());
+        final List<CompletableFuture<PreparedDrawBatchData>> futures = new ArrayList<>(drawBatches.size());
+        final Memory sharedQuadIndexData = ThinGL.quadIndexBuffer().getSharedData();
+        for (PreparedDrawBatchData preparedDrawBatchData : this.preparedDrawBatches.values()) {
+            futures.add(CompletableFuture.supplyAsync(() -> DrawBatchDataOptimizer.optimize(preparedDrawBatchData, MemoryAllocator.INSTANCE, sharedQuadIndexData), executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            for (int i = 0; i < futures.size(); i++) {
+                this.preparedDrawBatches.put(drawBatches.get(i), futures.get(i).join());
+            }
+        });
+    }
+
+    public CompletableFuture<Void> uploadAsync() {
+        return CompletableFuture.runAsync(this::upload, ThinGL.get()::runOnRenderThread);
+    }
+
     public void upload() {
         this.freeUploadedBatches();
         for (Map.Entry<DrawBatch, PreparedDrawBatchData> entry : this.preparedDrawBatches.entrySet()) {
@@ -76,26 +147,17 @@ public class PersistentMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder
     @Override
     public void draw(final Matrix4f modelMatrix) {
         if (this.hasDrawBatches()) {
-            for (DrawBatch drawBatch : this.firstOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix);
-            }
-            for (DrawBatch drawBatch : this.uploadedDrawBatches.keySet()) {
-                if (!ArrayUtils.contains(this.firstOrderedDrawBatches, drawBatch) && !ArrayUtils.contains(this.lastOrderedDrawBatches, drawBatch)) {
-                    this.draw(drawBatch, modelMatrix);
-                }
-            }
-            for (DrawBatch drawBatch : this.lastOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix);
+            for (DrawBatch drawBatch : this.getOrderedDrawBatches(this.uploadedDrawBatches.keySet())) {
+                this.render(drawBatch, modelMatrix);
             }
+            this.renderStateTracker.restore();
         }
     }
 
     @Override
     public void draw(final DrawBatch drawBatch, final Matrix4f modelMatrix) {
-        final UploadedDrawBatchData uploadedDrawBatchData = this.uploadedDrawBatches.get(drawBatch);
-        if (uploadedDrawBatchData != null) {
-            DrawBatchRenderer.render(uploadedDrawBatchData, modelMatrix);
-        }
+        this.render(drawBatch, modelMatrix);
+        this.renderStateTracker.restore();
     }
 
     public PreparedDrawBatchData getPreparedDrawBatch(final DrawBatch drawBatch) {
@@ -140,4 +202,11 @@ public class PersistentMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder
         this.uploadedDrawBatches.clear();
     }
 
+    private void render(final DrawBatch drawBatch, final Matrix4f modelMatrix) {
+        final UploadedDrawBatchData uploadedDrawBatchData = this.uploadedDrawBatches.get(drawBatch);
+        if (uploadedDrawBatchData != null) {
+            DrawBatchRenderer.render(uploadedDrawBatchData, modelMatrix, this.renderStateTracker);
+        }
+    }
+
 }
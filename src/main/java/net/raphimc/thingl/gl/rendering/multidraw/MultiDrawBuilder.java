@@ -21,10 +21,15 @@ import it.unimi.dsi.fastutil.ints.Int2LongMap;
 import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import net.lenni0451.commons.math.MathUtils;
 import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.program.ComputeProgram;
+import net.raphimc.thingl.gl.rendering.upload.BufferRange;
 import net.raphimc.thingl.gl.rendering.upload.DrawBatchDataUploader;
 import net.raphimc.thingl.gl.rendering.upload.UploadedDrawBatchData;
 import net.raphimc.thingl.gl.resource.buffer.Buffer;
@@ -36,10 +41,14 @@ import net.raphimc.thingl.memory.MemoryBuffer;
 import net.raphimc.thingl.memory.util.ArenaMemoryAllocator;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.command.DrawCommand;
+import net.raphimc.thingl.rendering.command.impl.DrawArraysCommand;
 import net.raphimc.thingl.rendering.command.impl.DrawElementsCommand;
-import net.raphimc.thingl.resource.memory.Memory;
+import net.raphimc.thingl.util.joml.ExtendedAABBf;
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
 import org.lwjgl.opengl.GL11C;
 import org.lwjgl.opengl.GL15C;
+import org.lwjgl.opengl.GL42C;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -48,8 +57,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public class MultiDrawBuilder {
 
+    public static final int CULL_WORKGROUP_SIZE = 64;
     private static final long MAX_BUFFER_SIZE = 1024 * 1024 * 1024;
     private static final long MIN_RESIZE_AMOUNT = 10 * 1024 * 1024;
+    private static final float COMPACTION_FRAGMENTATION_THRESHOLD = 0.1F;
+    private static final int BOUNDS_BYTES = 8 * Float.BYTES;
 
     private final DrawBatch drawBatch;
     private final ArenaMemoryAllocator vertexAllocator;
@@ -62,8 +74,21 @@ public class MultiDrawBuilder {
     private final Int2LongMap storedVertexBuffers = new Int2LongOpenHashMap(); // id -> vertex address
     private final Int2LongMap storedIndexBuffers = new Int2LongOpenHashMap(); // id -> index address
     private final Int2ObjectMap<List<DrawCommand>> bufferDrawCommands = new Int2ObjectOpenHashMap<>(); // id -> draw commands
-    private final IntSet renderBuffers = new IntLinkedOpenHashSet();
-    private UploadedDrawBatchData uploadedDrawBatchData;
+    private final Int2ObjectMap<ExtendedAABBf> bufferBounds = new Int2ObjectOpenHashMap<>(); // id -> bounds
+    private final Int2ObjectMap<int[]> renderBufferSlots = new Int2ObjectOpenHashMap<>(); // id -> command buffer slots
+    private final List<DrawCommand> pendingDrawCommands = new ArrayList<>(); // slot -> draw command
+    private final IntList pendingSlotOwners = new IntArrayList(); // slot -> id
+    private final IntSet hiddenBuffers = new IntOpenHashSet();
+    private final List<DrawCommand> drawCommands = new ArrayList<>();
+    private int dirtySlotStart = Integer.MAX_VALUE;
+    private int dirtySlotEnd;
+    private final UploadedDrawBatchData uploadedDrawBatchData;
+    private MutableBuffer boundsBuffer;
+    private MutableBuffer culledCommandBuffer;
+    private MutableBuffer drawCountBuffer;
+    private UploadedDrawBatchData culledUploadedDrawBatchData;
+    private boolean gpuCulled;
+    private final Vector4f frustumPlane = new Vector4f();
 
     public MultiDrawBuilder(final DrawBatch drawBatch) {
         this.drawBatch = drawBatch;
@@ -82,7 +107,7 @@ public class MultiDrawBuilder {
         if (this.indexBuffer != null) {
             this.vertexArray.setIndexBuffer(GL11C.GL_UNSIGNED_INT, this.indexBuffer);
         }
-        this.rebuildCommandBuffer();
+        this.uploadedDrawBatchData = new UploadedDrawBatchData(drawBatch, this.vertexArray, new HashMap<>(), new HashMap<>(), new BufferRange(this.commandBuffer), this.drawCommands);
     }
 
     public int uploadBuffer(final UploadedDrawBatchData uploadedDrawBatchData) {
@@ -122,7 +147,7 @@ public class MultiDrawBuilder {
             }
 
             final long alignedSize = MathUtils.align(indexBufferSize, Integer.BYTES);
-            final long address = this.indexAllocator.alloc(alignedSize);
+            final long address = this.indexAllocator.alloc(alignedSize, Integer.BYTES);
             if (address == -1) {
                 throw new OutOfMemoryError("Failed to allocate memory for index buffer");
             }
@@ -141,7 +166,7 @@ public class MultiDrawBuilder {
         }
 
         final long alignedSize = MathUtils.align(vertexBuffer.getSize(), this.drawBatch.vertexDataLayout().getSize());
-        final long address = this.vertexAllocator.alloc(alignedSize);
+        final long address = this.vertexAllocator.alloc(alignedSize, this.drawBatch.vertexDataLayout().getSize());
         if (address == -1) {
             throw new OutOfMemoryError("Failed to allocate memory for vertex buffer");
         }
@@ -174,6 +199,24 @@ public class MultiDrawBuilder {
             this.indexAllocator.free(indexAddress);
         }
         this.bufferDrawCommands.remove(id);
+        this.bufferBounds.remove(id);
+    }
+
+    public void setBounds(final int id, final ExtendedAABBf bounds) {
+        if (!this.storedVertexBuffers.containsKey(id)) {
+            throw new IllegalArgumentException("DrawBatchData is not uploaded");
+        }
+        if (bounds != null) {
+            this.bufferBounds.put(id, bounds);
+        } else {
+            this.bufferBounds.remove(id);
+        }
+        final int[] slots = this.renderBufferSlots.get(id);
+        if (slots != null) {
+            for (int slot : slots) {
+                this.markSlotDirty(slot);
+            }
+        }
     }
 
     public void clearBuffers() {
@@ -187,39 +230,208 @@ public class MultiDrawBuilder {
         if (!this.storedVertexBuffers.containsKey(id)) {
             throw new IllegalArgumentException("DrawBatchData is not uploaded");
         }
-        this.renderBuffers.add(id);
+        if (this.renderBufferSlots.containsKey(id)) {
+            return;
+        }
+        final List<DrawCommand> drawCommands = this.bufferDrawCommands.get(id);
+        final int[] slots = new int[drawCommands.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = this.pendingDrawCommands.size();
+            this.pendingDrawCommands.add(drawCommands.get(i));
+            this.pendingSlotOwners.add(id);
+            this.markSlotDirty(slots[i]);
+        }
+        this.renderBufferSlots.put(id, slots);
     }
 
     public void removeFromRenderList(final int id) {
         if (!this.storedVertexBuffers.containsKey(id)) {
             throw new IllegalArgumentException("DrawBatchData is not uploaded");
         }
-        this.renderBuffers.remove(id);
+        final int[] slots = this.renderBufferSlots.remove(id);
+        this.hiddenBuffers.remove(id);
+        if (slots == null || slots.length == 0) {
+            return;
+        }
+        // Remove in order, so the slot (and therefore the draw id) of the remaining buffers keeps following the render list order
+        final int firstSlot = slots[0];
+        this.pendingDrawCommands.subList(firstSlot, firstSlot + slots.length).clear();
+        this.pendingSlotOwners.removeElements(firstSlot, firstSlot + slots.length);
+        int slot = firstSlot;
+        while (slot < this.pendingSlotOwners.size()) { // Slots of a buffer are always contiguous
+            final int[] ownerSlots = this.renderBufferSlots.get(this.pendingSlotOwners.getInt(slot));
+            for (int i = 0; i < ownerSlots.length; i++) {
+                ownerSlots[i] -= slots.length;
+            }
+            slot += ownerSlots.length;
+        }
+        this.markSlotDirty(firstSlot);
+        this.dirtySlotEnd = Math.max(this.dirtySlotEnd, this.pendingDrawCommands.size());
+    }
+
+    public void setVisible(final int id, final boolean visible) {
+        if (!this.storedVertexBuffers.containsKey(id)) {
+            throw new IllegalArgumentException("DrawBatchData is not uploaded");
+        }
+        if (visible ? this.hiddenBuffers.remove(id) : this.hiddenBuffers.add(id)) {
+            final int[] slots = this.renderBufferSlots.get(id);
+            if (slots != null) {
+                for (int slot : slots) {
+                    this.markSlotDirty(slot);
+                }
+            }
+        }
     }
 
     public void clearRenderList() {
-        this.renderBuffers.clear();
+        this.renderBufferSlots.clear();
+        this.hiddenBuffers.clear();
+        this.pendingDrawCommands.clear();
+        this.pendingSlotOwners.clear();
     }
 
     public void rebuildCommandBuffer() {
-        final List<DrawCommand> drawCommands = new ArrayList<>(this.renderBuffers.size());
-        for (int id : this.renderBuffers) {
-            drawCommands.addAll(this.bufferDrawCommands.get(id));
+        final int slotCount = this.pendingDrawCommands.size();
+        if (this.commandBuffer.getSize() < (long) slotCount * DrawCommand.BYTES) { // Resizing discards the buffer contents
+            this.commandBuffer.ensureSize(Math.max((long) slotCount * DrawCommand.BYTES, this.commandBuffer.getSize() * 2));
+            this.markAllSlotsDirty();
         }
-        final MemoryBuffer commandMemoryBuffer = ThinGL.memoryBufferPool().borrowMemoryBuffer();
-        commandMemoryBuffer.ensureCanWrite((long) drawCommands.size() * DrawCommand.BYTES);
-        for (DrawCommand drawCommand : drawCommands) {
-            drawCommand.write(commandMemoryBuffer);
+        if (this.boundsBuffer != null && this.boundsBuffer.getSize() < (long) slotCount * BOUNDS_BYTES) {
+            this.boundsBuffer.ensureSize(Math.max((long) slotCount * BOUNDS_BYTES, this.boundsBuffer.getSize() * 2));
+            this.markAllSlotsDirty();
+        }
+        if (this.drawCommands.size() != slotCount) {
+            this.gpuCulled = false;
+        }
+        while (this.drawCommands.size() > slotCount) {
+            this.drawCommands.removeLast();
+        }
+        final int dirtySlotEnd = Math.min(this.dirtySlotEnd, slotCount);
+        if (this.dirtySlotStart < dirtySlotEnd) {
+            this.gpuCulled = false;
+            final MemoryBuffer commandMemoryBuffer = ThinGL.memoryBufferPool().borrowMemoryBuffer((long) (dirtySlotEnd - this.dirtySlotStart) * DrawCommand.BYTES);
+            for (int slot = this.dirtySlotStart; slot < dirtySlotEnd; slot++) {
+                // Hidden buffers keep their slot and the slot is passed as base instance, so per-draw data stays addressable after culling
+                final int instanceCount = this.hiddenBuffers.contains(this.pendingSlotOwners.getInt(slot)) ? 0 : 1;
+                final DrawCommand drawCommand = this.pendingDrawCommands.get(slot).withInstances(instanceCount, slot);
+                drawCommand.write(commandMemoryBuffer);
+                if (slot < this.drawCommands.size()) {
+                    this.drawCommands.set(slot, drawCommand);
+                } else {
+                    this.drawCommands.add(drawCommand);
+                }
+            }
+            this.commandBuffer.upload((long) this.dirtySlotStart * DrawCommand.BYTES, commandMemoryBuffer.finish());
+            ThinGL.memoryBufferPool().returnMemoryBuffer(commandMemoryBuffer);
+
+            if (this.boundsBuffer != null) {
+                final MemoryBuffer boundsMemoryBuffer = ThinGL.memoryBufferPool().borrowMemoryBuffer((long) (dirtySlotEnd - this.dirtySlotStart) * BOUNDS_BYTES);
+                for (int slot = this.dirtySlotStart; slot < dirtySlotEnd; slot++) {
+                    final ExtendedAABBf bounds = this.bufferBounds.get(this.pendingSlotOwners.getInt(slot));
+                    if (bounds != null) {
+                        boundsMemoryBuffer.writeFloat(bounds.minX).writeFloat(bounds.minY).writeFloat(bounds.minZ).writeFloat(0F);
+                        boundsMemoryBuffer.writeFloat(bounds.maxX).writeFloat(bounds.maxY).writeFloat(bounds.maxZ).writeFloat(0F);
+                    } else { // Never culled
+                        boundsMemoryBuffer.writeFloat(-Float.MAX_VALUE).writeFloat(-Float.MAX_VALUE).writeFloat(-Float.MAX_VALUE).writeFloat(0F);
+                        boundsMemoryBuffer.writeFloat(Float.MAX_VALUE).writeFloat(Float.MAX_VALUE).writeFloat(Float.MAX_VALUE).writeFloat(0F);
+                    }
+                }
+                this.boundsBuffer.upload((long) this.dirtySlotStart * BOUNDS_BYTES, boundsMemoryBuffer.finish());
+                ThinGL.memoryBufferPool().returnMemoryBuffer(boundsMemoryBuffer);
+            }
+        }
+        this.dirtySlotStart = Integer.MAX_VALUE;
+        this.dirtySlotEnd = 0;
+    }
+
+    public void cullGpu(final Matrix4f viewProjectionMatrix) {
+        if (this.boundsBuffer == null) {
+            this.boundsBuffer = new MutableBuffer(BOUNDS_BYTES * 512L, GL15C.GL_DYNAMIC_DRAW);
+            this.culledCommandBuffer = new MutableBuffer(DrawCommand.BYTES * 512L, GL15C.GL_DYNAMIC_COPY);
+            this.drawCountBuffer = new MutableBuffer(Integer.BYTES, GL15C.GL_DYNAMIC_COPY);
+            final BufferRange drawCountBuffer = ThinGL.capabilities().supportsIndirectDrawCount() ? new BufferRange(this.drawCountBuffer) : null;
+            this.culledUploadedDrawBatchData = new UploadedDrawBatchData(this.drawBatch, this.vertexArray, new HashMap<>(), new HashMap<>(), new BufferRange(this.culledCommandBuffer), this.drawCommands, drawCountBuffer);
+            this.markAllSlotsDirty();
+        }
+        this.rebuildCommandBuffer();
+        this.gpuCulled = false;
+        final int drawCount = this.drawCommands.size();
+        if (drawCount == 0) {
+            return;
+        }
+
+        this.culledCommandBuffer.ensureSize((long) drawCount * DrawCommand.BYTES);
+        final MemoryBuffer drawCountMemoryBuffer = ThinGL.memoryBufferPool().borrowMemoryBuffer(Integer.BYTES);
+        drawCountMemoryBuffer.writeInt(0);
+        this.drawCountBuffer.upload(0L, drawCountMemoryBuffer.finish());
+        ThinGL.memoryBufferPool().returnMemoryBuffer(drawCountMemoryBuffer);
+
+        final ComputeProgram program = ThinGL.programs().getMultidrawCull();
+        program.bind();
+        for (int i = 0; i < 6; i++) {
+            program.setUniformVector4f("u_FrustumPlanes[" + i + "]", viewProjectionMatrix.frustumPlane(i, this.frustumPlane));
+        }
+        program.setUniformUnsignedInt("u_DrawCount", drawCount);
+        program.setUniformUnsignedInt("u_CommandSize", (this.indexAllocator != null ? DrawElementsCommand.BYTES : DrawArraysCommand.BYTES) / Integer.BYTES);
+        program.setUniformBoolean("u_CompactOutput", this.culledUploadedDrawBatchData.drawCountBuffer() != null);
+        program.setShaderStorageBuffer("ssbo_Bounds", this.boundsBuffer);
+        program.setShaderStorageBuffer("ssbo_InputCommands", this.commandBuffer);
+        program.setShaderStorageBuffer("ssbo_OutputCommands", this.culledCommandBuffer);
+        program.setShaderStorageBuffer("ssbo_DrawCount", this.drawCountBuffer);
+        program.dispatch(Math.ceilDiv(drawCount, CULL_WORKGROUP_SIZE), 1, 1);
+        program.unbind();
+        ThinGL.glBackend().memoryBarrier(GL42C.GL_COMMAND_BARRIER_BIT);
+        this.gpuCulled = true;
+    }
+
+    public long compact(final long byteBudget) {
+        final int vertexSize = this.drawBatch.vertexDataLayout().getSize();
+        final Int2LongMap movedVertexBuffers = new Int2LongOpenHashMap(); // id -> address delta
+        final Int2LongMap movedIndexBuffers = new Int2LongOpenHashMap(); // id -> address delta
+        long movedBytes = compactArena(this.vertexAllocator, this.vertexBuffer, this.storedVertexBuffers, vertexSize, byteBudget, movedVertexBuffers);
+        if (this.indexAllocator != null) {
+            movedBytes += compactArena(this.indexAllocator, this.indexBuffer, this.storedIndexBuffers, Integer.BYTES, byteBudget - movedBytes, movedIndexBuffers);
+        }
+
+        for (Int2LongMap.Entry entry : movedVertexBuffers.int2LongEntrySet()) {
+            final int vertexOffset = (int) (entry.getLongValue() / vertexSize);
+            this.bufferDrawCommands.get(entry.getIntKey()).replaceAll(drawCommand -> drawCommand.withVertexOffset(vertexOffset));
+            this.updateRenderSlots(entry.getIntKey());
+        }
+        for (Int2LongMap.Entry entry : movedIndexBuffers.int2LongEntrySet()) {
+            final int indexOffset = (int) (entry.getLongValue() / Integer.BYTES);
+            this.bufferDrawCommands.get(entry.getIntKey()).replaceAll(drawCommand -> ((DrawElementsCommand) drawCommand).withIndexOffset(indexOffset));
+            this.updateRenderSlots(entry.getIntKey());
+        }
+
+        if (getFragmentation(this.vertexAllocator) <= COMPACTION_FRAGMENTATION_THRESHOLD) {
+            final long shrunkSize = MathUtils.align(this.vertexAllocator.getUsedEndAddress(), MIN_RESIZE_AMOUNT) + MIN_RESIZE_AMOUNT;
+            if (this.vertexBuffer.getSize() > shrunkSize) {
+                this.vertexBuffer = BufferUtil.shrink(this.vertexBuffer, shrunkSize);
+                this.vertexArray.setVertexBuffer(0, this.vertexBuffer, 0, vertexSize);
+            }
+        }
+        if (this.indexAllocator != null && getFragmentation(this.indexAllocator) <= COMPACTION_FRAGMENTATION_THRESHOLD) {
+            final long shrunkSize = MathUtils.align(this.indexAllocator.getUsedEndAddress(), MIN_RESIZE_AMOUNT) + MIN_RESIZE_AMOUNT;
+            if (this.indexBuffer.getSize() > shrunkSize) {
+                this.indexBuffer = BufferUtil.shrink(this.indexBuffer, shrunkSize);
+                this.vertexArray.setIndexBuffer(GL11C.GL_UNSIGNED_INT, this.indexBuffer);
+            }
         }
-        final Memory commandData = commandMemoryBuffer.finish();
-        this.commandBuffer.ensureSize(commandData.getSize());
-        this.commandBuffer.upload(commandData);
-        ThinGL.memoryBufferPool().returnMemoryBuffer(commandMemoryBuffer);
-        this.uploadedDrawBatchData = new UploadedDrawBatchData(this.drawBatch, this.vertexArray, new HashMap<>(), new HashMap<>(), this.commandBuffer, drawCommands);
+
+        if (!movedVertexBuffers.isEmpty() || !movedIndexBuffers.isEmpty()) {
+            this.rebuildCommandBuffer();
+        }
+        return movedBytes;
     }
 
     public void free() {
         DrawBatchDataUploader.freePersistentData(this.uploadedDrawBatchData);
+        if (this.boundsBuffer != null) {
+            this.boundsBuffer.free();
+            this.culledCommandBuffer.free();
+            this.drawCountBuffer.free();
+        }
     }
 
     public ArenaMemoryAllocator getVertexAllocator() {
@@ -231,7 +443,63 @@ public class MultiDrawBuilder {
     }
 
     public UploadedDrawBatchData getUploadedDrawBatchData() {
-        return this.uploadedDrawBatchData;
+        return this.gpuCulled ? this.culledUploadedDrawBatchData : this.uploadedDrawBatchData;
+    }
+
+    private void updateRenderSlots(final int id) {
+        final int[] slots = this.renderBufferSlots.get(id);
+        if (slots != null) {
+            final List<DrawCommand> drawCommands = this.bufferDrawCommands.get(id);
+            for (int i = 0; i < slots.length; i++) {
+                this.pendingDrawCommands.set(slots[i], drawCommands.get(i));
+                this.markSlotDirty(slots[i]);
+            }
+        }
+    }
+
+    private void markAllSlotsDirty() {
+        this.dirtySlotStart = 0;
+        this.dirtySlotEnd = this.pendingDrawCommands.size();
+    }
+
+    private void markSlotDirty(final int slot) {
+        this.dirtySlotStart = Math.min(this.dirtySlotStart, slot);
+        this.dirtySlotEnd = Math.max(this.dirtySlotEnd, slot + 1);
+    }
+
+    private static long compactArena(final ArenaMemoryAllocator allocator, final Buffer buffer, final Int2LongMap storedBuffers, final int alignment, final long byteBudget, final Int2LongMap movedBuffers) {
+        if (byteBudget <= 0 || getFragmentation(allocator) <= COMPACTION_FRAGMENTATION_THRESHOLD) {
+            return 0;
+        }
+
+        final int[] ids = storedBuffers.keySet().toIntArray();
+        IntArrays.quickSort(ids, (id1, id2) -> Long.compare(storedBuffers.get(id2), storedBuffers.get(id1)));
+        long movedBytes = 0;
+        for (int id : ids) {
+            final long oldAddress = storedBuffers.get(id);
+            final long size = allocator.getAllocationSize(oldAddress);
+            if (oldAddress + size <= allocator.getAddress() + allocator.getUsedMemory()) { // Everything below is already densely packed
+                break;
+            }
+            if (movedBytes > 0 && movedBytes + size > byteBudget) {
+                break;
+            }
+            final long newAddress = allocator.allocBelow(size, alignment, oldAddress);
+            if (newAddress == -1) {
+                continue;
+            }
+            buffer.copyTo(buffer, oldAddress, newAddress, Math.min(size, buffer.getSize() - oldAddress));
+            allocator.free(oldAddress);
+            storedBuffers.put(id, newAddress);
+            movedBuffers.put(id, newAddress - oldAddress);
+            movedBytes += size;
+        }
+        return movedBytes;
+    }
+
+    private static float getFragmentation(final ArenaMemoryAllocator allocator) {
+        final long usedSize = allocator.getUsedEndAddress() - allocator.getAddress();
+        return usedSize > 0 ? 1F - (float) allocator.getUsedMemory() / usedSize : 0F;
     }
 
 }
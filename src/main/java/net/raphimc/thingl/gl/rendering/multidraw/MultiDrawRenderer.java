@@ -19,18 +19,26 @@ package net.raphimc.thingl.gl.rendering.multidraw;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Reference2IntMap;
 import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
 import net.lenni0451.commons.arrays.ArrayUtils;
 import net.lenni0451.commons.math.MathUtils;
+import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.rendering.DrawBatchRenderer;
+import net.raphimc.thingl.gl.rendering.RenderStateTracker;
 import net.raphimc.thingl.gl.rendering.dataholder.PersistentMultiDrawBatchDataHolder;
+import net.raphimc.thingl.gl.rendering.upload.BufferRange;
 import net.raphimc.thingl.gl.rendering.upload.UploadedDrawBatchData;
 import net.raphimc.thingl.gl.resource.buffer.Buffer;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.util.RenderMathUtil;
+import net.raphimc.thingl.util.joml.ExtendedAABBf;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
 
 import java.util.Map;
@@ -43,6 +51,11 @@ public class MultiDrawRenderer {
     private final Reference2ObjectMap<DrawBatch, MultiDrawBuilder> drawBatches = new Reference2ObjectLinkedOpenHashMap<>();
     private final AtomicInteger idGenerator = new AtomicInteger();
     private final Int2ObjectMap<Reference2IntMap<DrawBatch>> drawBatchBuffers = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<ExtendedAABBf> drawBatchBufferBounds = new Int2ObjectOpenHashMap<>();
+    private final IntSet renderList = new IntLinkedOpenHashSet();
+    private final IntSet culledRenderList = new IntOpenHashSet();
+    private final FrustumIntersection frustumIntersection = new FrustumIntersection();
+    private final RenderStateTracker renderStateTracker = new RenderStateTracker();
 
     public MultiDrawRenderer() {
         this(DrawBatch.EMPTY_ARRAY, DrawBatch.EMPTY_ARRAY);
@@ -54,13 +67,24 @@ public class MultiDrawRenderer {
     }
 
     public int uploadDrawBatchBuffers(final PersistentMultiDrawBatchDataHolder multiDrawBatchDataHolder) {
+        return this.uploadDrawBatchBuffers(multiDrawBatchDataHolder, null);
+    }
+
+    public int uploadDrawBatchBuffers(final PersistentMultiDrawBatchDataHolder multiDrawBatchDataHolder, final ExtendedAABBf bounds) {
         final int id = this.idGenerator.getAndIncrement();
         final Reference2IntMap<DrawBatch> multiDrawIds = new Reference2IntOpenHashMap<>();
         for (Map.Entry<DrawBatch, UploadedDrawBatchData> entry : multiDrawBatchDataHolder.getUploadedDrawBatches().entrySet()) {
             final MultiDrawBuilder multiDrawBuilder = this.drawBatches.computeIfAbsent(entry.getKey(), drawBatch -> new MultiDrawBuilder((DrawBatch) drawBatch));
-            multiDrawIds.put(entry.getKey(), multiDrawBuilder.uploadBuffer(entry.getValue()));
+            final int multiDrawId = multiDrawBuilder.uploadBuffer(entry.getValue());
+            if (bounds != null) {
+                multiDrawBuilder.setBounds(multiDrawId, bounds);
+            }
+            multiDrawIds.put(entry.getKey(), multiDrawId);
         }
         this.drawBatchBuffers.put(id, multiDrawIds);
+        if (bounds != null) {
+            this.drawBatchBufferBounds.put(id, bounds);
+        }
         return id;
     }
 
@@ -70,6 +94,7 @@ public class MultiDrawRenderer {
         }
         this.removeFromRenderList(id);
         final Reference2IntMap<DrawBatch> multiDrawIds = this.drawBatchBuffers.remove(id);
+        this.drawBatchBufferBounds.remove(id);
         for (Reference2IntMap.Entry<DrawBatch> entry : multiDrawIds.reference2IntEntrySet()) {
             final MultiDrawBuilder multiDrawBuilder = this.drawBatches.get(entry.getKey());
             multiDrawBuilder.removeBuffer(entry.getIntValue());
@@ -87,10 +112,11 @@ public class MultiDrawRenderer {
         if (!this.drawBatchBuffers.containsKey(id)) {
             throw new IllegalArgumentException("DrawBatch is not uploaded");
         }
-        final Reference2IntMap<DrawBatch> multiDrawIds = this.drawBatchBuffers.get(id);
-        for (Reference2IntMap.Entry<DrawBatch> entry : multiDrawIds.reference2IntEntrySet()) {
-            final MultiDrawBuilder multiDrawBuilder = this.drawBatches.get(entry.getKey());
-            multiDrawBuilder.addToRenderList(entry.getIntValue());
+        if (this.renderList.add(id)) {
+            final Reference2IntMap<DrawBatch> multiDrawIds = this.drawBatchBuffers.get(id);
+            for (Reference2IntMap.Entry<DrawBatch> entry : multiDrawIds.reference2IntEntrySet()) {
+                this.drawBatches.get(entry.getKey()).addToRenderList(entry.getIntValue());
+            }
         }
     }
 
@@ -98,25 +124,75 @@ public class MultiDrawRenderer {
         if (!this.drawBatchBuffers.containsKey(id)) {
             throw new IllegalArgumentException("DrawBatch is not uploaded");
         }
-        final Reference2IntMap<DrawBatch> multiDrawIds = this.drawBatchBuffers.get(id);
-        for (Reference2IntMap.Entry<DrawBatch> entry : multiDrawIds.reference2IntEntrySet()) {
-            final MultiDrawBuilder multiDrawBuilder = this.drawBatches.get(entry.getKey());
-            multiDrawBuilder.removeFromRenderList(entry.getIntValue());
+        if (this.renderList.remove(id)) {
+            this.culledRenderList.remove(id);
+            final Reference2IntMap<DrawBatch> multiDrawIds = this.drawBatchBuffers.get(id);
+            for (Reference2IntMap.Entry<DrawBatch> entry : multiDrawIds.reference2IntEntrySet()) {
+                this.drawBatches.get(entry.getKey()).removeFromRenderList(entry.getIntValue());
+            }
         }
     }
 
     public void clearRenderList() {
+        this.renderList.clear();
+        this.culledRenderList.clear();
         for (MultiDrawBuilder multiDrawBuilder : this.drawBatches.values()) {
             multiDrawBuilder.clearRenderList();
         }
     }
 
+    public void cull(final Matrix4f viewProjectionMatrix) {
+        this.frustumIntersection.set(viewProjectionMatrix, false);
+        for (int id : this.renderList) {
+            final ExtendedAABBf bounds = this.drawBatchBufferBounds.get(id);
+            if (bounds == null) {
+                continue;
+            }
+            final boolean visible = this.frustumIntersection.testAab(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
+            if (visible) {
+                if (this.culledRenderList.remove(id)) {
+                    this.setVisible(id, true);
+                }
+            } else {
+                if (this.culledRenderList.add(id)) {
+                    this.setVisible(id, false);
+                }
+            }
+        }
+        this.rebuildCommandBuffer();
+    }
+
+    public void cullGpu(final Matrix4f viewProjectionMatrix) {
+        if (!ThinGL.capabilities().supportsComputeShaders()) {
+            this.cull(viewProjectionMatrix);
+            return;
+        }
+        for (int id : this.culledRenderList) {
+            this.setVisible(id, true);
+        }
+        this.culledRenderList.clear();
+        for (MultiDrawBuilder multiDrawBuilder : this.drawBatches.values()) {
+            multiDrawBuilder.cullGpu(viewProjectionMatrix);
+        }
+    }
+
     public void rebuildCommandBuffer() {
         for (MultiDrawBuilder multiDrawBuilder : this.drawBatches.values()) {
             multiDrawBuilder.rebuildCommandBuffer();
         }
     }
 
+    public long compact(final long byteBudget) {
+        long movedBytes = 0;
+        for (MultiDrawBuilder multiDrawBuilder : this.drawBatches.values()) {
+            if (movedBytes >= byteBudget) {
+                break;
+            }
+            movedBytes += multiDrawBuilder.compact(byteBudget - movedBytes);
+        }
+        return movedBytes;
+    }
+
     public void draw() {
         this.draw(RenderMathUtil.getIdentityMatrix());
     }
@@ -124,32 +200,34 @@ public class MultiDrawRenderer {
     public void draw(final Matrix4f modelMatrix) {
         if (this.hasDrawBatches()) {
             for (DrawBatch drawBatch : this.firstOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix);
+                this.render(drawBatch, modelMatrix, null);
             }
             for (DrawBatch drawBatch : this.drawBatches.keySet()) {
                 if (!ArrayUtils.contains(this.firstOrderedDrawBatches, drawBatch) && !ArrayUtils.contains(this.lastOrderedDrawBatches, drawBatch)) {
-                    this.draw(drawBatch, modelMatrix);
+                    this.render(drawBatch, modelMatrix, null);
                 }
             }
             for (DrawBatch drawBatch : this.lastOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix);
+                this.render(drawBatch, modelMatrix, null);
             }
+            this.renderStateTracker.restore();
         }
     }
 
     public void draw(final Matrix4f modelMatrix, final Buffer drawDataBuffer) {
         if (this.hasDrawBatches()) {
             for (DrawBatch drawBatch : this.firstOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix, drawDataBuffer);
+                this.render(drawBatch, modelMatrix, drawDataBuffer);
             }
             for (DrawBatch drawBatch : this.drawBatches.keySet()) {
                 if (!ArrayUtils.contains(this.firstOrderedDrawBatches, drawBatch) && !ArrayUtils.contains(this.lastOrderedDrawBatches, drawBatch)) {
-                    this.draw(drawBatch, modelMatrix, drawDataBuffer);
+                    this.render(drawBatch, modelMatrix, drawDataBuffer);
                 }
             }
             for (DrawBatch drawBatch : this.lastOrderedDrawBatches) {
-                this.draw(drawBatch, modelMatrix, drawDataBuffer);
+                this.render(drawBatch, modelMatrix, drawDataBuffer);
             }
+            this.renderStateTracker.restore();
         }
     }
 
@@ -158,12 +236,16 @@ public class MultiDrawRenderer {
     }
 
     public void draw(final DrawBatch drawBatch, final Matrix4f modelMatrix, final Buffer drawDataBuffer) {
-        final MultiDrawBuilder multiDrawBuilder = this.drawBatches.get(drawBatch);
-        if (multiDrawBuilder != null) {
-            multiDrawBuilder.getUploadedDrawBatchData().shaderStorageBuffers().put("ssbo_DrawData", drawDataBuffer);
-            DrawBatchRenderer.render(multiDrawBuilder.getUploadedDrawBatchData(), modelMatrix);
-            multiDrawBuilder.getUploadedDrawBatchData().shaderStorageBuffers().remove("ssbo_DrawData");
-        }
+        this.render(drawBatch, modelMatrix, drawDataBuffer);
+        this.renderStateTracker.restore();
+    }
+
+    public ExtendedAABBf getBounds(final int id) {
+        return this.drawBatchBufferBounds.get(id);
+    }
+
+    public int getCulledCount() {
+        return this.culledRenderList.size();
     }
 
     public String getMemoryAllocationString() {
@@ -185,4 +267,20 @@ public class MultiDrawRenderer {
         return !this.drawBatches.isEmpty();
     }
 
+    private void setVisible(final int id, final boolean visible) {
+        final Reference2IntMap<DrawBatch> multiDrawIds = this.drawBatchBuffers.get(id);
+        for (Reference2IntMap.Entry<DrawBatch> entry : multiDrawIds.reference2IntEntrySet()) {
+            this.drawBatches.get(entry.getKey()).setVisible(entry.getIntValue(), visible);
+        }
+    }
+
+    private void render(final DrawBatch drawBatch, final Matrix4f modelMatrix, final Buffer drawDataBuffer) {
+        final MultiDrawBuilder multiDrawBuilder = this.drawBatches.get(drawBatch);
+        if (multiDrawBuilder != null) {
+            multiDrawBuilder.getUploadedDrawBatchData().shaderStorageBuffers().put("ssbo_DrawData", new BufferRange(drawDataBuffer));
+            DrawBatchRenderer.render(multiDrawBuilder.getUploadedDrawBatchData(), modelMatrix, this.renderStateTracker);
+            multiDrawBuilder.getUploadedDrawBatchData().shaderStorageBuffers().remove("ssbo_DrawData");
+        }
+    }
+
 }
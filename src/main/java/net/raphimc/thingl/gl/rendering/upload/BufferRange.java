@@ -0,0 +1,32 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.rendering.upload;
+
+import net.raphimc.thingl.gl.resource.buffer.Buffer;
+
+public record BufferRange(Buffer buffer, long offset, long size) {
+
+    public BufferRange(final Buffer buffer) {
+        this(buffer, 0L, -1L);
+    }
+
+    public boolean isFullBuffer() {
+        return this.size < 0L;
+    }
+
+}
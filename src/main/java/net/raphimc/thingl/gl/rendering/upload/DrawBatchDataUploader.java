@@ -20,34 +20,55 @@ package net.raphimc.thingl.gl.rendering.upload;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.rendering.dataholder.MappedDrawBatchDataHolder;
 import net.raphimc.thingl.gl.resource.buffer.Buffer;
 import net.raphimc.thingl.gl.resource.buffer.impl.ImmutableBuffer;
 import net.raphimc.thingl.gl.resource.buffer.impl.MutableBuffer;
 import net.raphimc.thingl.gl.resource.vertexarray.VertexArray;
+import net.raphimc.thingl.gl.util.StreamingBuffer;
 import net.raphimc.thingl.memory.MemoryBuffer;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.command.DrawCommand;
+import net.raphimc.thingl.rendering.command.impl.DrawElementsCommand;
 import net.raphimc.thingl.rendering.preparation.PreparedDrawBatchData;
+import net.raphimc.thingl.rendering.vertex.DataType;
 import net.raphimc.thingl.resource.memory.Memory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public final class DrawBatchDataUploader {
 
+    private static final int STREAMING_VERTEX_ALIGNMENT = 16;
+
     private DrawBatchDataUploader() {
     }
 
     public static UploadedDrawBatchData uploadTemporary(final PreparedDrawBatchData preparedDrawBatchData) {
+        return uploadTemporary(preparedDrawBatchData, null);
+    }
+
+    public static UploadedDrawBatchData uploadTemporary(final PreparedDrawBatchData preparedDrawBatchData, final ShaderDataArena shaderDataArena) {
+        if (preparedDrawBatchData.drawBatchDataHolder() instanceof MappedDrawBatchDataHolder mappedDrawBatchDataHolder) {
+            return uploadMapped(preparedDrawBatchData, mappedDrawBatchDataHolder);
+        }
+        if (ThinGL.config().streamingUploads() && ThinGL.capabilities().supportsBufferStorage()) {
+            final UploadedDrawBatchData uploadedDrawBatchData = uploadStreaming(preparedDrawBatchData);
+            if (uploadedDrawBatchData != null) {
+                return uploadedDrawBatchData;
+            }
+        }
+
         final DrawBatch drawBatch = preparedDrawBatchData.drawBatch();
         final VertexArray vertexArray = ThinGL.immediateVertexArrays().getVertexArray(drawBatch.vertexDataLayout(), drawBatch.instanceVertexDataLayout());
 
         if (preparedDrawBatchData.indexBuffer() != null) {
             final Memory indexData = preparedDrawBatchData.indexBuffer().buffer();
-            if (indexData == ThinGL.quadIndexBuffer().getSharedData()) {
-                vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), ThinGL.quadIndexBuffer().getSharedBuffer());
+            if (ThinGL.quadIndexBuffer().isSharedData(indexData)) {
+                vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), ThinGL.quadIndexBuffer().getSharedBuffer(indexData));
             } else {
-                final MutableBuffer indexBuffer = ThinGL.gpuBufferPool().borrowBuffer();
-                indexBuffer.ensureSize(indexData.getSize());
+                final MutableBuffer indexBuffer = ThinGL.gpuBufferPool().borrowBuffer(indexData.getSize());
                 indexBuffer.upload(indexData);
                 vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), indexBuffer);
             }
@@ -65,49 +86,47 @@ public final class DrawBatchDataUploader {
             instanceVertexBuffer.upload(instanceVertexData);
         }
 
-        final Object2ObjectMap<String, Buffer> uniformBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.uniformBuffers().size());
+        final Object2ObjectMap<String, BufferRange> uniformBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.uniformBuffers().size());
         for (Map.Entry<String, Memory> entry : preparedDrawBatchData.uniformBuffers().entrySet()) {
             final Memory uniformData = entry.getValue();
-            final MutableBuffer uniformBuffer = ThinGL.gpuBufferPool().borrowBuffer();
-            uniformBuffer.ensureSize(uniformData.getSize());
+            final BufferRange arenaBufferRange = shaderDataArena != null ? shaderDataArena.getBufferRange(uniformData) : null;
+            if (arenaBufferRange != null) {
+                uniformBuffers.put(entry.getKey(), arenaBufferRange);
+                continue;
+            }
+            final MutableBuffer uniformBuffer = ThinGL.gpuBufferPool().borrowBuffer(uniformData.getSize());
             uniformBuffer.upload(uniformData);
-            uniformBuffers.put(entry.getKey(), uniformBuffer);
+            uniformBuffers.put(entry.getKey(), new BufferRange(uniformBuffer));
         }
 
-        final Object2ObjectMap<String, Buffer> shaderStorageBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.shaderStorageBuffers().size());
+        final Object2ObjectMap<String, BufferRange> shaderStorageBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.shaderStorageBuffers().size());
         for (Map.Entry<String, Memory> entry : preparedDrawBatchData.shaderStorageBuffers().entrySet()) {
             final Memory shaderStorageData = entry.getValue();
-            final MutableBuffer shaderStorageBuffer = ThinGL.gpuBufferPool().borrowBuffer();
-            shaderStorageBuffer.ensureSize(shaderStorageData.getSize());
-            shaderStorageBuffer.upload(shaderStorageData);
-            shaderStorageBuffers.put(entry.getKey(), shaderStorageBuffer);
-        }
-
-        MutableBuffer commandBuffer = null;
-        if (preparedDrawBatchData.drawCommands().size() > 1) {
-            final MemoryBuffer commandMemoryBuffer = ThinGL.memoryBufferPool().borrowMemoryBuffer();
-            commandMemoryBuffer.ensureCanWrite((long) preparedDrawBatchData.drawCommands().size() * DrawCommand.BYTES);
-            for (DrawCommand drawCommand : preparedDrawBatchData.drawCommands()) {
-                drawCommand.write(commandMemoryBuffer);
+            final BufferRange arenaBufferRange = shaderDataArena != null ? shaderDataArena.getBufferRange(shaderStorageData) : null;
+            if (arenaBufferRange != null) {
+                shaderStorageBuffers.put(entry.getKey(), arenaBufferRange);
+                continue;
             }
-            final Memory commandData = commandMemoryBuffer.finish();
-            commandBuffer = ThinGL.gpuBufferPool().borrowBuffer();
-            commandBuffer.ensureSize(commandData.getSize());
-            commandBuffer.upload(commandData);
-            ThinGL.memoryBufferPool().returnMemoryBuffer(commandMemoryBuffer);
+            final MutableBuffer shaderStorageBuffer = ThinGL.gpuBufferPool().borrowBuffer(shaderStorageData.getSize());
+            shaderStorageBuffer.upload(shaderStorageData);
+            shaderStorageBuffers.put(entry.getKey(), new BufferRange(shaderStorageBuffer));
         }
 
+        final BufferRange commandBuffer = uploadTemporaryDrawCommands(preparedDrawBatchData.drawCommands());
         return new UploadedDrawBatchData(preparedDrawBatchData.drawBatch(), vertexArray, uniformBuffers, shaderStorageBuffers, commandBuffer, preparedDrawBatchData.drawCommands());
     }
 
     public static UploadedDrawBatchData uploadPersistent(final PreparedDrawBatchData preparedDrawBatchData) {
+        if (preparedDrawBatchData.drawBatchDataHolder() instanceof MappedDrawBatchDataHolder) {
+            throw new IllegalArgumentException("Mapped draw batch data can only be uploaded temporarily");
+        }
         final DrawBatch drawBatch = preparedDrawBatchData.drawBatch();
         final VertexArray vertexArray = new VertexArray();
 
         if (preparedDrawBatchData.indexBuffer() != null) {
             final Memory indexData = preparedDrawBatchData.indexBuffer().buffer();
-            if (indexData == ThinGL.quadIndexBuffer().getSharedData()) {
-                vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), ThinGL.quadIndexBuffer().getSharedBuffer());
+            if (ThinGL.quadIndexBuffer().isSharedData(indexData)) {
+                vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), ThinGL.quadIndexBuffer().getSharedBuffer(indexData));
             } else {
                 final Buffer indexBuffer = new ImmutableBuffer(indexData, 0);
                 vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), indexBuffer);
@@ -124,25 +143,19 @@ public final class DrawBatchDataUploader {
             vertexArray.configureVertexDataLayout(1, drawBatch.vertexDataLayout().getElements().length, drawBatch.instanceVertexDataLayout(), 1);
         }
 
-        final Object2ObjectMap<String, Buffer> uniformBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.uniformBuffers().size());
+        final Object2ObjectMap<String, BufferRange> uniformBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.uniformBuffers().size());
         for (Map.Entry<String, Memory> entry : preparedDrawBatchData.uniformBuffers().entrySet()) {
-            uniformBuffers.put(entry.getKey(), new ImmutableBuffer(entry.getValue(), 0));
+            uniformBuffers.put(entry.getKey(), new BufferRange(new ImmutableBuffer(entry.getValue(), 0)));
         }
 
-        final Object2ObjectMap<String, Buffer> shaderStorageBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.shaderStorageBuffers().size());
+        final Object2ObjectMap<String, BufferRange> shaderStorageBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.shaderStorageBuffers().size());
         for (Map.Entry<String, Memory> entry : preparedDrawBatchData.shaderStorageBuffers().entrySet()) {
-            shaderStorageBuffers.put(entry.getKey(), new ImmutableBuffer(entry.getValue(), 0));
+            shaderStorageBuffers.put(entry.getKey(), new BufferRange(new ImmutableBuffer(entry.getValue(), 0)));
         }
 
-        Buffer commandBuffer = null;
+        BufferRange commandBuffer = null;
         if (preparedDrawBatchData.drawCommands().size() > 1) {
-            final MemoryBuffer commandMemoryBuffer = ThinGL.memoryBufferPool().borrowMemoryBuffer();
-            commandMemoryBuffer.ensureCanWrite((long) preparedDrawBatchData.drawCommands().size() * DrawCommand.BYTES);
-            for (DrawCommand drawCommand : preparedDrawBatchData.drawCommands()) {
-                drawCommand.write(commandMemoryBuffer);
-            }
-            commandBuffer = new ImmutableBuffer(commandMemoryBuffer.finish(), 0);
-            ThinGL.memoryBufferPool().returnMemoryBuffer(commandMemoryBuffer);
+            commandBuffer = new BufferRange(new ImmutableBuffer(writeDrawCommands(preparedDrawBatchData.drawCommands()), 0));
         }
 
         return new UploadedDrawBatchData(preparedDrawBatchData.drawBatch(), vertexArray, uniformBuffers, shaderStorageBuffers, commandBuffer, preparedDrawBatchData.drawCommands());
@@ -151,33 +164,176 @@ public final class DrawBatchDataUploader {
     public static void freeTemporaryData(final UploadedDrawBatchData uploadedDrawBatchData) {
         final VertexArray vertexArray = uploadedDrawBatchData.vertexArray();
         if (vertexArray.getIndexBuffer() != null) {
-            if (vertexArray.getIndexBuffer() != ThinGL.quadIndexBuffer().getSharedBuffer()) {
-                ThinGL.gpuBufferPool().returnBuffer((MutableBuffer) vertexArray.getIndexBuffer());
-            }
+            returnTemporaryBuffer(vertexArray.getIndexBuffer());
             vertexArray.setIndexBuffer(0, null);
         }
-        for (Buffer buffer : uploadedDrawBatchData.uniformBuffers().values()) {
-            ThinGL.gpuBufferPool().returnBuffer((MutableBuffer) buffer);
+        if (!(vertexArray.getVertexBuffers().get(0) instanceof MutableBuffer)) { // Streaming vertex arrays don't own their vertex buffers
+            vertexArray.setVertexBuffer(0, null, 0, 0);
+            vertexArray.setVertexBuffer(1, null, 0, 0);
         }
-        for (Buffer buffer : uploadedDrawBatchData.shaderStorageBuffers().values()) {
-            ThinGL.gpuBufferPool().returnBuffer((MutableBuffer) buffer);
+        for (BufferRange bufferRange : uploadedDrawBatchData.uniformBuffers().values()) {
+            if (bufferRange.isFullBuffer()) { // Ranges are owned by the streaming buffer or a shader data arena
+                returnTemporaryBuffer(bufferRange.buffer());
+            }
+        }
+        for (BufferRange bufferRange : uploadedDrawBatchData.shaderStorageBuffers().values()) {
+            if (bufferRange.isFullBuffer()) {
+                returnTemporaryBuffer(bufferRange.buffer());
+            }
         }
         if (uploadedDrawBatchData.commandBuffer() != null) {
-            ThinGL.gpuBufferPool().returnBuffer((MutableBuffer) uploadedDrawBatchData.commandBuffer());
+            returnTemporaryBuffer(uploadedDrawBatchData.commandBuffer().buffer());
         }
     }
 
     public static void freePersistentData(final UploadedDrawBatchData uploadedDrawBatchData) {
         uploadedDrawBatchData.vertexArray().freeFully();
-        for (Buffer buffer : uploadedDrawBatchData.uniformBuffers().values()) {
-            buffer.free();
+        for (BufferRange bufferRange : uploadedDrawBatchData.uniformBuffers().values()) {
+            bufferRange.buffer().free();
         }
-        for (Buffer buffer : uploadedDrawBatchData.shaderStorageBuffers().values()) {
-            buffer.free();
+        for (BufferRange bufferRange : uploadedDrawBatchData.shaderStorageBuffers().values()) {
+            bufferRange.buffer().free();
         }
         if (uploadedDrawBatchData.commandBuffer() != null) {
-            uploadedDrawBatchData.commandBuffer().free();
+            uploadedDrawBatchData.commandBuffer().buffer().free();
+        }
+        if (uploadedDrawBatchData.drawCountBuffer() != null) {
+            uploadedDrawBatchData.drawCountBuffer().buffer().free();
+        }
+    }
+
+    private static UploadedDrawBatchData uploadMapped(final PreparedDrawBatchData preparedDrawBatchData, final MappedDrawBatchDataHolder mappedDrawBatchDataHolder) {
+        final DrawBatch drawBatch = preparedDrawBatchData.drawBatch();
+        final VertexArray vertexArray = ThinGL.immediateVertexArrays().getStreamingVertexArray(drawBatch.vertexDataLayout(), drawBatch.instanceVertexDataLayout());
+
+        if (preparedDrawBatchData.indexBuffer() != null) {
+            final Memory indexData = preparedDrawBatchData.indexBuffer().buffer();
+            if (ThinGL.quadIndexBuffer().isSharedData(indexData)) {
+                vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), ThinGL.quadIndexBuffer().getSharedBuffer(indexData));
+            } else {
+                vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), mappedDrawBatchDataHolder.getMappedBuffer(indexData));
+            }
+        }
+
+        vertexArray.setVertexBuffer(0, mappedDrawBatchDataHolder.getMappedBuffer(preparedDrawBatchData.vertexBuffer()), 0, drawBatch.vertexDataLayout().getSize());
+        if (preparedDrawBatchData.instanceVertexBuffer() != null) {
+            vertexArray.setVertexBuffer(1, mappedDrawBatchDataHolder.getMappedBuffer(preparedDrawBatchData.instanceVertexBuffer()), 0, drawBatch.instanceVertexDataLayout().getSize());
+        }
+
+        final Object2ObjectMap<String, BufferRange> uniformBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.uniformBuffers().size());
+        for (Map.Entry<String, Memory> entry : preparedDrawBatchData.uniformBuffers().entrySet()) {
+            uniformBuffers.put(entry.getKey(), new BufferRange(mappedDrawBatchDataHolder.getMappedBuffer(entry.getValue())));
+        }
+
+        final Object2ObjectMap<String, BufferRange> shaderStorageBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.shaderStorageBuffers().size());
+        for (Map.Entry<String, Memory> entry : preparedDrawBatchData.shaderStorageBuffers().entrySet()) {
+            shaderStorageBuffers.put(entry.getKey(), new BufferRange(mappedDrawBatchDataHolder.getMappedBuffer(entry.getValue())));
+        }
+
+        final BufferRange commandBuffer = uploadTemporaryDrawCommands(preparedDrawBatchData.drawCommands());
+        return new UploadedDrawBatchData(drawBatch, vertexArray, uniformBuffers, shaderStorageBuffers, commandBuffer, preparedDrawBatchData.drawCommands());
+    }
+
+    private static UploadedDrawBatchData uploadStreaming(final PreparedDrawBatchData preparedDrawBatchData) {
+        final StreamingBuffer streamingBuffer = ThinGL.streamingBuffer();
+        final DrawBatch drawBatch = preparedDrawBatchData.drawBatch();
+        if (!preparedDrawBatchData.shaderStorageBuffers().isEmpty() && !ThinGL.capabilities().supportsShaderStorageBuffers()) {
+            return null;
+        }
+
+        final List<DrawCommand> drawCommands = new ArrayList<>(preparedDrawBatchData.drawCommands());
+        Buffer indexBuffer = null;
+        if (preparedDrawBatchData.indexBuffer() != null) {
+            final Memory indexData = preparedDrawBatchData.indexBuffer().buffer();
+            if (ThinGL.quadIndexBuffer().isSharedData(indexData)) {
+                indexBuffer = ThinGL.quadIndexBuffer().getSharedBuffer(indexData);
+            } else {
+                final int indexSize = DataType.fromGlType(preparedDrawBatchData.indexBuffer().type()).getSize();
+                final long indexOffset = streamingBuffer.write(indexData, indexSize);
+                if (indexOffset == -1L) {
+                    return null;
+                }
+                final int firstIndex = (int) (indexOffset / indexSize);
+                drawCommands.replaceAll(drawCommand -> ((DrawElementsCommand) drawCommand).withIndexOffset(firstIndex));
+                indexBuffer = streamingBuffer.getBuffer();
+            }
+        }
+
+        final long vertexOffset = streamingBuffer.write(preparedDrawBatchData.vertexBuffer(), STREAMING_VERTEX_ALIGNMENT);
+        if (vertexOffset == -1L) {
+            return null;
+        }
+        long instanceVertexOffset = -1L;
+        if (preparedDrawBatchData.instanceVertexBuffer() != null) {
+            instanceVertexOffset = streamingBuffer.write(preparedDrawBatchData.instanceVertexBuffer(), STREAMING_VERTEX_ALIGNMENT);
+            if (instanceVertexOffset == -1L) {
+                return null;
+            }
+        }
+
+        final Object2ObjectMap<String, BufferRange> uniformBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.uniformBuffers().size());
+        for (Map.Entry<String, Memory> entry : preparedDrawBatchData.uniformBuffers().entrySet()) {
+            final long offset = streamingBuffer.write(entry.getValue(), ThinGL.capabilities().getUniformBufferOffsetAlignment());
+            if (offset == -1L) {
+                return null;
+            }
+            uniformBuffers.put(entry.getKey(), new BufferRange(streamingBuffer.getBuffer(), offset, entry.getValue().getSize()));
+        }
+
+        final Object2ObjectMap<String, BufferRange> shaderStorageBuffers = new Object2ObjectOpenHashMap<>(preparedDrawBatchData.shaderStorageBuffers().size());
+        for (Map.Entry<String, Memory> entry : preparedDrawBatchData.shaderStorageBuffers().entrySet()) {
+            final long offset = streamingBuffer.write(entry.getValue(), ThinGL.capabilities().getShaderStorageBufferOffsetAlignment());
+            if (offset == -1L) {
+                return null;
+            }
+            shaderStorageBuffers.put(entry.getKey(), new BufferRange(streamingBuffer.getBuffer(), offset, entry.getValue().getSize()));
+        }
+
+        BufferRange commandBuffer = null;
+        if (drawCommands.size() > 1) {
+            final Memory commandData = writeDrawCommands(drawCommands);
+            final long offset = streamingBuffer.write(commandData, Integer.BYTES);
+            if (offset == -1L) {
+                return null;
+            }
+            commandBuffer = new BufferRange(streamingBuffer.getBuffer(), offset, commandData.getSize());
+        }
+
+        final VertexArray vertexArray = ThinGL.immediateVertexArrays().getStreamingVertexArray(drawBatch.vertexDataLayout(), drawBatch.instanceVertexDataLayout());
+        vertexArray.setVertexBuffer(0, streamingBuffer.getBuffer(), vertexOffset, drawBatch.vertexDataLayout().getSize());
+        if (instanceVertexOffset != -1L) {
+            vertexArray.setVertexBuffer(1, streamingBuffer.getBuffer(), instanceVertexOffset, drawBatch.instanceVertexDataLayout().getSize());
+        }
+        if (indexBuffer != null) {
+            vertexArray.setIndexBuffer(preparedDrawBatchData.indexBuffer().type(), indexBuffer);
+        }
+
+        return new UploadedDrawBatchData(drawBatch, vertexArray, uniformBuffers, shaderStorageBuffers, commandBuffer, drawCommands);
+    }
+
+    private static BufferRange uploadTemporaryDrawCommands(final List<DrawCommand> drawCommands) {
+        if (drawCommands.size() <= 1) {
+            return null;
+        }
+
+        final Memory commandData = writeDrawCommands(drawCommands);
+        final MutableBuffer commandBuffer = ThinGL.gpuBufferPool().borrowBuffer(commandData.getSize());
+        commandBuffer.upload(commandData);
+        return new BufferRange(commandBuffer);
+    }
+
+    private static void returnTemporaryBuffer(final Buffer buffer) {
+        if (buffer instanceof MutableBuffer mutableBuffer && !ThinGL.quadIndexBuffer().isSharedBuffer(buffer)) { // Streaming and mapped buffers are immutable and not pooled
+            ThinGL.gpuBufferPool().returnBuffer(mutableBuffer);
+        }
+    }
+
+    private static Memory writeDrawCommands(final List<DrawCommand> drawCommands) {
+        final MemoryBuffer memoryBuffer = new MemoryBuffer(ThinGL.frameArena().allocate((long) drawCommands.size() * DrawCommand.BYTES));
+        for (DrawCommand drawCommand : drawCommands) {
+            drawCommand.write(memoryBuffer);
         }
+        return memoryBuffer.finish();
     }
 
 }
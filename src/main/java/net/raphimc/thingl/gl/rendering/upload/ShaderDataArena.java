@@ -0,0 +1,80 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.rendering.upload;
+
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.lenni0451.commons.math.MathUtils;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.resource.buffer.impl.MutableBuffer;
+import net.raphimc.thingl.rendering.preparation.PreparedDrawBatchData;
+import net.raphimc.thingl.resource.memory.Memory;
+
+import java.util.List;
+
+public class ShaderDataArena {
+
+    private final Reference2LongMap<Memory> offsets = new Reference2LongOpenHashMap<>();
+    private final MutableBuffer buffer;
+
+    public ShaderDataArena(final List<PreparedDrawBatchData> preparedDrawBatchDatas) {
+        ThinGL.get().assertOnRenderThread();
+        this.offsets.defaultReturnValue(-1L);
+        final int uniformBufferOffsetAlignment = Math.max(ThinGL.capabilities().getUniformBufferOffsetAlignment(), 1);
+        final int shaderStorageBufferOffsetAlignment = Math.max(ThinGL.capabilities().getShaderStorageBufferOffsetAlignment(), 1);
+        long size = 0L;
+        for (PreparedDrawBatchData preparedDrawBatchData : preparedDrawBatchDatas) {
+            for (Memory uniformData : preparedDrawBatchData.uniformBuffers().values()) {
+                size = MathUtils.align(size, uniformBufferOffsetAlignment);
+                this.offsets.put(uniformData, size);
+                size += uniformData.getSize();
+            }
+            for (Memory shaderStorageData : preparedDrawBatchData.shaderStorageBuffers().values()) {
+                size = MathUtils.align(size, shaderStorageBufferOffsetAlignment);
+                this.offsets.put(shaderStorageData, size);
+                size += shaderStorageData.getSize();
+            }
+        }
+        if (size == 0L) {
+            this.buffer = null;
+            return;
+        }
+
+        final Memory data = ThinGL.frameArena().allocate(size);
+        for (Reference2LongMap.Entry<Memory> entry : this.offsets.reference2LongEntrySet()) {
+            entry.getKey().copyTo(data, 0L, entry.getLongValue(), entry.getKey().getSize());
+        }
+        this.buffer = ThinGL.gpuBufferPool().borrowBuffer(size);
+        this.buffer.upload(data);
+    }
+
+    public BufferRange getBufferRange(final Memory memory) {
+        final long offset = this.offsets.getLong(memory);
+        if (offset == -1L) {
+            return null;
+        }
+        return new BufferRange(this.buffer, offset, memory.getSize());
+    }
+
+    public void free() {
+        if (this.buffer != null) {
+            ThinGL.gpuBufferPool().returnBuffer(this.buffer);
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.rendering.upload;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.rendering.dataholder.MappedDrawBatchDataHolder;
+import net.raphimc.thingl.rendering.DrawBatch;
+import net.raphimc.thingl.rendering.command.DrawCommand;
+import net.raphimc.thingl.rendering.preparation.PreparedDrawBatchData;
+import net.raphimc.thingl.resource.memory.Memory;
+
+import java.util.Map;
+
+public class UploadCache {
+
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final Object2ObjectMap<CacheKey, CacheEntry> entries = new Object2ObjectOpenHashMap<>();
+    private int frame;
+    private long hitCount;
+    private long missCount;
+    private long savedBytes;
+
+    public UploadCache() {
+        ThinGL.get().addFrameFinishedCallback(() -> {
+            this.entries.values().removeIf(entry -> {
+                if (entry.lastUsedFrame != this.frame) {
+                    if (entry.uploadedDrawBatchData != null) {
+                        DrawBatchDataUploader.freePersistentData(entry.uploadedDrawBatchData);
+                    }
+                    return true;
+                }
+                return false;
+            });
+            this.frame++;
+        });
+    }
+
+    public UploadedDrawBatchData getOrUpload(final PreparedDrawBatchData preparedDrawBatchData) {
+        ThinGL.get().assertOnRenderThread();
+        if (preparedDrawBatchData.drawBatchDataHolder() instanceof MappedDrawBatchDataHolder) { // Reading back mapped memory is slow
+            return null;
+        }
+
+        final long size = getSize(preparedDrawBatchData);
+        final CacheKey key = new CacheKey(preparedDrawBatchData.drawBatch(), hash(preparedDrawBatchData), size);
+        final CacheEntry entry = this.entries.get(key);
+        if (entry == null) { // Only cache batches which are seen in two consecutive frames
+            this.entries.put(key, new CacheEntry(this.frame));
+            this.missCount++;
+            return null;
+        }
+
+        if (entry.uploadedDrawBatchData == null) {
+            entry.uploadedDrawBatchData = DrawBatchDataUploader.uploadPersistent(preparedDrawBatchData);
+            this.missCount++;
+        } else {
+            this.hitCount++;
+            this.savedBytes += size;
+        }
+        entry.lastUsedFrame = this.frame;
+        return entry.uploadedDrawBatchData;
+    }
+
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    public long getSavedBytes() {
+        return this.savedBytes;
+    }
+
+    public void resetStatistics() {
+        this.hitCount = 0L;
+        this.missCount = 0L;
+        this.savedBytes = 0L;
+    }
+
+    public int getSize() {
+        return this.entries.size();
+    }
+
+    public void free() {
+        for (CacheEntry entry : this.entries.values()) {
+            if (entry.uploadedDrawBatchData != null) {
+                DrawBatchDataUploader.freePersistentData(entry.uploadedDrawBatchData);
+            }
+        }
+        this.entries.clear();
+    }
+
+    private static long getSize(final PreparedDrawBatchData preparedDrawBatchData) {
+        long size = preparedDrawBatchData.vertexBuffer().getSize();
+        if (preparedDrawBatchData.instanceVertexBuffer() != null) {
+            size += preparedDrawBatchData.instanceVertexBuffer().getSize();
+        }
+        if (preparedDrawBatchData.indexBuffer() != null && !ThinGL.quadIndexBuffer().isSharedData(preparedDrawBatchData.indexBuffer().buffer())) {
+            size += preparedDrawBatchData.indexBuffer().buffer().getSize();
+        }
+        for (Memory uniformData : preparedDrawBatchData.uniformBuffers().values()) {
+            size += uniformData.getSize();
+        }
+        for (Memory shaderStorageData : preparedDrawBatchData.shaderStorageBuffers().values()) {
+            size += shaderStorageData.getSize();
+        }
+        return size;
+    }
+
+    private static long hash(final PreparedDrawBatchData preparedDrawBatchData) {
+        long hash = hash(0L, preparedDrawBatchData.vertexBuffer());
+        if (preparedDrawBatchData.instanceVertexBuffer() != null) {
+            hash = hash(hash, preparedDrawBatchData.instanceVertexBuffer());
+        }
+        if (preparedDrawBatchData.indexBuffer() != null) {
+            final Memory indexData = preparedDrawBatchData.indexBuffer().buffer();
+            hash = ThinGL.quadIndexBuffer().isSharedData(indexData) ? mix(hash ^ preparedDrawBatchData.indexBuffer().type()) : hash(hash, indexData);
+        }
+        for (Map.Entry<String, Memory> entry : preparedDrawBatchData.uniformBuffers().entrySet()) {
+            hash = hash(mix(hash ^ entry.getKey().hashCode()), entry.getValue());
+        }
+        for (Map.Entry<String, Memory> entry : preparedDrawBatchData.shaderStorageBuffers().entrySet()) {
+            hash = hash(mix(hash ^ entry.getKey().hashCode()), entry.getValue());
+        }
+        for (DrawCommand drawCommand : preparedDrawBatchData.drawCommands()) { // Connected primitives are only described by the draw commands
+            hash = mix(hash ^ drawCommand.hashCode());
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, final Memory memory) {
+        final long size = memory.getSize();
+        hash = mix(hash ^ size);
+        long offset = 0;
+        for (; offset + Long.BYTES <= size; offset += Long.BYTES) {
+            hash = mix(hash ^ memory.getLong(offset));
+        }
+        for (; offset < size; offset++) {
+            hash = mix(hash ^ memory.getByte(offset));
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value *= HASH_MULTIPLIER;
+        return value ^ (value >>> 32);
+    }
+
+    private record CacheKey(DrawBatch drawBatch, long hash, long size) {
+    }
+
+    private static class CacheEntry {
+
+        private UploadedDrawBatchData uploadedDrawBatchData;
+        private int lastUsedFrame;
+
+        private CacheEntry(final int lastUsedFrame) {
+            this.lastUsedFrame = lastUsedFrame;
+        }
+
+    }
+
+}
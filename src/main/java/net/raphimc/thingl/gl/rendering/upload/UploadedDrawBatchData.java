@@ -17,7 +17,6 @@
  */
 package net.raphimc.thingl.gl.rendering.upload;
 
-import net.raphimc.thingl.gl.resource.buffer.Buffer;
 import net.raphimc.thingl.gl.resource.vertexarray.VertexArray;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.command.DrawCommand;
@@ -25,5 +24,10 @@ import net.raphimc.thingl.rendering.command.DrawCommand;
 import java.util.List;
 import java.util.Map;
 
-public record UploadedDrawBatchData(DrawBatch drawBatch, VertexArray vertexArray, Map<String, Buffer> uniformBuffers, Map<String, Buffer> shaderStorageBuffers, Buffer commandBuffer, List<DrawCommand> drawCommands) {
+public record UploadedDrawBatchData(DrawBatch drawBatch, VertexArray vertexArray, Map<String, BufferRange> uniformBuffers, Map<String, BufferRange> shaderStorageBuffers, BufferRange commandBuffer, List<DrawCommand> drawCommands, BufferRange drawCountBuffer) {
+
+    public UploadedDrawBatchData(final DrawBatch drawBatch, final VertexArray vertexArray, final Map<String, BufferRange> uniformBuffers, final Map<String, BufferRange> shaderStorageBuffers, final BufferRange commandBuffer, final List<DrawCommand> drawCommands) {
+        this(drawBatch, vertexArray, uniformBuffers, shaderStorageBuffers, commandBuffer, drawCommands, null);
+    }
+
 }
@@ -71,7 +71,11 @@ public abstract class Buffer extends GLObject {
     }
 
     public Memory download(final long offset, final long length) {
-        final Memory data = MemoryAllocator.allocateMemory(length);
+        return this.download(offset, length, MemoryAllocator.INSTANCE);
+    }
+
+    public Memory download(final long offset, final long length, final MemoryAllocator memoryAllocator) {
+        final Memory data = memoryAllocator.allocate(length);
         ThinGL.glBackend().getNamedBufferSubData(this.getGlId(), offset, data.getSize(), data.getAddress());
         return data;
     }
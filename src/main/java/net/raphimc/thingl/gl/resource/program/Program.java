@@ -19,6 +19,8 @@ package net.raphimc.thingl.gl.resource.program;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.lenni0451.commons.color.Color;
 import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.resource.GLContainerObject;
@@ -28,8 +30,7 @@ import net.raphimc.thingl.gl.resource.image.texture.ImageTexture;
 import net.raphimc.thingl.gl.resource.image.texture.Texture;
 import net.raphimc.thingl.gl.resource.sampler.Sampler;
 import net.raphimc.thingl.gl.resource.shader.Shader;
-import net.raphimc.thingl.memory.allocator.MemoryAllocator;
-import net.raphimc.thingl.resource.memory.Memory;
+import net.raphimc.thingl.implementation.GlobalUniforms;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
@@ -39,7 +40,6 @@ import org.lwjgl.opengl.GL11C;
 import org.lwjgl.opengl.GL20C;
 import org.lwjgl.opengl.GL31C;
 import org.lwjgl.opengl.GL43C;
-import org.lwjgl.system.MemoryStack;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -47,9 +47,11 @@ import java.util.Set;
 
 public class Program extends GLContainerObject {
 
+    private static final int FIRST_UNIFORM_BUFFER_INDEX = GlobalUniforms.UNIFORM_BUFFER_INDEX + 1; // The global uniform buffer is always bound
+
     private Set<Shader> shaders;
 
-    private final Object2IntMap<String> uniformLocationCache = new Object2IntOpenHashMap<>();
+    private final Object2ObjectMap<String, UniformHandle> uniformHandles = new Object2ObjectOpenHashMap<>();
     private final Object2IntMap<String> uniformBlockIndexCache = new Object2IntOpenHashMap<>();
     private final Object2IntMap<String> shaderStorageBlockIndexCache = new Object2IntOpenHashMap<>();
 
@@ -57,6 +59,8 @@ public class Program extends GLContainerObject {
     private int currentImageUnit;
     private int currentUniformBufferIndex;
     private int currentShaderStorageBufferIndex;
+    private long issuedUniformUpdates;
+    private long elidedUniformUpdates;
 
     public Program(final Shader... shaders) {
         super(ThinGL.glBackend().createProgram());
@@ -100,7 +104,6 @@ public class Program extends GLContainerObject {
     }
 
     public void link() {
-        this.uniformLocationCache.clear();
         this.uniformBlockIndexCache.clear();
         this.shaderStorageBlockIndexCache.clear();
         ThinGL.glBackend().linkProgram(this.getGlId());
@@ -110,6 +113,9 @@ public class Program extends GLContainerObject {
         } else if (!linkLog.isBlank()) {
             ThinGL.LOGGER.warn("Program link log: " + linkLog);
         }
+        for (UniformHandle uniformHandle : this.uniformHandles.values()) { // Linking changes the locations and resets all values
+            uniformHandle.resolve();
+        }
     }
 
     public void validate() {
@@ -123,19 +129,19 @@ public class Program extends GLContainerObject {
     }
 
     public void setUniformBoolean(final String name, final boolean v) {
-        ThinGL.glBackend().programUniform1i(this.getGlId(), this.getUniformLocation(name), v ? GL11C.GL_TRUE : GL11C.GL_FALSE);
+        this.getUniformHandle(name).setInt(v ? GL11C.GL_TRUE : GL11C.GL_FALSE);
     }
 
     public void setUniformInt(final String name, final int v) {
-        ThinGL.glBackend().programUniform1i(this.getGlId(), this.getUniformLocation(name), v);
+        this.getUniformHandle(name).setInt(v);
     }
 
     public void setUniformUnsignedInt(final String name, final int v) {
-        ThinGL.glBackend().programUniform1ui(this.getGlId(), this.getUniformLocation(name), v);
+        this.getUniformHandle(name).setUnsignedInt(v);
     }
 
     public void setUniformFloat(final String name, final float v) {
-        ThinGL.glBackend().programUniform1f(this.getGlId(), this.getUniformLocation(name), v);
+        this.getUniformHandle(name).setFloat(v);
     }
 
     public void setUniformVector2f(final String name, final Vector2f vector) {
@@ -143,7 +149,7 @@ public class Program extends GLContainerObject {
     }
 
     public void setUniformVector2f(final String name, final float v1, final float v2) {
-        ThinGL.glBackend().programUniform2f(this.getGlId(), this.getUniformLocation(name), v1, v2);
+        this.getUniformHandle(name).setVector2f(v1, v2);
     }
 
     public void setUniformVector3f(final String name, final Vector3f vector) {
@@ -151,7 +157,7 @@ public class Program extends GLContainerObject {
     }
 
     public void setUniformVector3f(final String name, final float v1, final float v2, final float v3) {
-        ThinGL.glBackend().programUniform3f(this.getGlId(), this.getUniformLocation(name), v1, v2, v3);
+        this.getUniformHandle(name).setVector3f(v1, v2, v3);
     }
 
     public void setUniformVector4f(final String name, final Vector4f vector) {
@@ -163,27 +169,19 @@ public class Program extends GLContainerObject {
     }
 
     public void setUniformVector4f(final String name, final float v1, final float v2, final float v3, final float v4) {
-        ThinGL.glBackend().programUniform4f(this.getGlId(), this.getUniformLocation(name), v1, v2, v3, v4);
+        this.getUniformHandle(name).setVector4f(v1, v2, v3, v4);
     }
 
     public void setUniformIntArray(final String name, final int... v) {
-        ThinGL.glBackend().programUniform1iv(this.getGlId(), this.getUniformLocation(name), v);
+        this.getUniformHandle(name).setIntArray(v);
     }
 
     public void setUniformMatrix3f(final String name, final Matrix3f matrix) {
-        try (MemoryStack memoryStack = MemoryStack.stackPush()) {
-            final Memory memory = MemoryAllocator.wrapMemory(memoryStack.nmalloc(Memory.MATRIX3F_SIZE), Memory.MATRIX3F_SIZE);
-            memory.putMatrix3f(0, matrix);
-            ThinGL.glBackend().programUniformMatrix3fv(this.getGlId(), this.getUniformLocation(name), 1, false, memory.getAddress());
-        }
+        this.getUniformHandle(name).setMatrix3f(matrix);
     }
 
     public void setUniformMatrix4f(final String name, final Matrix4f matrix) {
-        try (MemoryStack memoryStack = MemoryStack.stackPush()) {
-            final Memory memory = MemoryAllocator.wrapMemory(memoryStack.nmalloc(Memory.MATRIX4F_SIZE), Memory.MATRIX4F_SIZE);
-            memory.putMatrix4f(0, matrix);
-            ThinGL.glBackend().programUniformMatrix4fv(this.getGlId(), this.getUniformLocation(name), 1, false, memory.getAddress());
-        }
+        this.getUniformHandle(name).setMatrix4f(matrix);
     }
 
     public void setUniformSampler(final String name, final Framebuffer framebuffer) {
@@ -259,6 +257,11 @@ public class Program extends GLContainerObject {
         }
     }
 
+    public void setUniformBuffer(final String name, final Buffer buffer, final long offset, final long size) {
+        ThinGL.glBackend().uniformBlockBinding(this.getGlId(), this.getUniformBlockIndex(name), this.currentUniformBufferIndex);
+        ThinGL.glBackend().bindBufferRange(GL31C.GL_UNIFORM_BUFFER, this.currentUniformBufferIndex++, buffer.getGlId(), offset, size);
+    }
+
     public void setShaderStorageBuffer(final String name, final Buffer buffer) {
         ThinGL.glBackend().shaderStorageBlockBinding(this.getGlId(), this.getShaderStorageBlockIndex(name), this.currentShaderStorageBufferIndex);
         if (buffer != null) {
@@ -268,10 +271,15 @@ public class Program extends GLContainerObject {
         }
     }
 
+    public void setShaderStorageBuffer(final String name, final Buffer buffer, final long offset, final long size) {
+        ThinGL.glBackend().shaderStorageBlockBinding(this.getGlId(), this.getShaderStorageBlockIndex(name), this.currentShaderStorageBufferIndex);
+        ThinGL.glBackend().bindBufferRange(GL43C.GL_SHADER_STORAGE_BUFFER, this.currentShaderStorageBufferIndex++, buffer.getGlId(), offset, size);
+    }
+
     public void bind() {
         this.currentTextureUnit = 0;
         this.currentImageUnit = 0;
-        this.currentUniformBufferIndex = 0;
+        this.currentUniformBufferIndex = FIRST_UNIFORM_BUFFER_INDEX;
         this.currentShaderStorageBufferIndex = 0;
         if (ThinGL.config().restoreProgramBinding()) {
             ThinGL.glStateStack().pushProgram();
@@ -282,7 +290,7 @@ public class Program extends GLContainerObject {
     public void unbind() {
         this.currentTextureUnit = 0;
         this.currentImageUnit = 0;
-        this.currentUniformBufferIndex = 0;
+        this.currentUniformBufferIndex = FIRST_UNIFORM_BUFFER_INDEX;
         this.currentShaderStorageBufferIndex = 0;
         if (ThinGL.config().restoreProgramBinding()) {
             ThinGL.glStateStack().popProgram();
@@ -329,12 +337,34 @@ public class Program extends GLContainerObject {
         return Collections.unmodifiableSet(this.shaders);
     }
 
-    private int getUniformLocation(final String name) {
-        return this.uniformLocationCache.computeIfAbsent(name, this::queryUniformLocation);
+    public UniformHandle getUniformHandle(final String name) {
+        UniformHandle uniformHandle = this.uniformHandles.get(name);
+        if (uniformHandle == null) {
+            uniformHandle = new UniformHandle(this, name);
+            this.uniformHandles.put(name, uniformHandle);
+        }
+        return uniformHandle;
+    }
+
+    public long getIssuedUniformUpdates() {
+        return this.issuedUniformUpdates;
+    }
+
+    public long getElidedUniformUpdates() {
+        return this.elidedUniformUpdates;
     }
 
-    private int queryUniformLocation(final String name) {
-        return ThinGL.glBackend().getUniformLocation(this.getGlId(), name);
+    public void resetUniformStatistics() {
+        this.issuedUniformUpdates = 0L;
+        this.elidedUniformUpdates = 0L;
+    }
+
+    void recordUniformUpdate(final boolean elided) {
+        if (elided) {
+            this.elidedUniformUpdates++;
+        } else {
+            this.issuedUniformUpdates++;
+        }
     }
 
     public int getUniformBlockIndex(final String name) {
@@ -0,0 +1,186 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.resource.program;
+
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.memory.allocator.MemoryAllocator;
+import net.raphimc.thingl.resource.memory.Memory;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.lwjgl.system.MemoryStack;
+
+public class UniformHandle {
+
+    private static final int MAX_SHADOW_VALUE_COUNT = 16;
+    private static final int TYPE_UNKNOWN = 0;
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_UNSIGNED_INT = 2;
+    private static final int TYPE_FLOAT = 3;
+    private static final int TYPE_MATRIX = 4;
+
+    private final Program program;
+    private final String name;
+    private int location;
+    private final int[] shadowValues = new int[MAX_SHADOW_VALUE_COUNT];
+    private int shadowType;
+    private int shadowValueCount;
+    private int newValueCount;
+    private boolean newValuesChanged;
+
+    UniformHandle(final Program program, final String name) {
+        this.program = program;
+        this.name = name;
+        this.resolve();
+    }
+
+    void resolve() {
+        this.location = ThinGL.glBackend().getUniformLocation(this.program.getGlId(), this.name);
+        this.shadowType = TYPE_UNKNOWN;
+    }
+
+    public void setInt(final int v) {
+        if (this.begin(TYPE_INT).put(v).commit()) {
+            ThinGL.glBackend().programUniform1i(this.program.getGlId(), this.location, v);
+        }
+    }
+
+    public void setUnsignedInt(final int v) {
+        if (this.begin(TYPE_UNSIGNED_INT).put(v).commit()) {
+            ThinGL.glBackend().programUniform1ui(this.program.getGlId(), this.location, v);
+        }
+    }
+
+    public void setIntArray(final int... v) {
+        if (v.length > MAX_SHADOW_VALUE_COUNT) {
+            this.shadowType = TYPE_UNKNOWN;
+            this.issue();
+            ThinGL.glBackend().programUniform1iv(this.program.getGlId(), this.location, v);
+            return;
+        }
+        this.begin(TYPE_INT);
+        for (int i : v) {
+            this.put(i);
+        }
+        if (this.commit()) {
+            ThinGL.glBackend().programUniform1iv(this.program.getGlId(), this.location, v);
+        }
+    }
+
+    public void setFloat(final float v) {
+        if (this.begin(TYPE_FLOAT).put(v).commit()) {
+            ThinGL.glBackend().programUniform1f(this.program.getGlId(), this.location, v);
+        }
+    }
+
+    public void setVector2f(final float v1, final float v2) {
+        if (this.begin(TYPE_FLOAT).put(v1).put(v2).commit()) {
+            ThinGL.glBackend().programUniform2f(this.program.getGlId(), this.location, v1, v2);
+        }
+    }
+
+    public void setVector3f(final float v1, final float v2, final float v3) {
+        if (this.begin(TYPE_FLOAT).put(v1).put(v2).put(v3).commit()) {
+            ThinGL.glBackend().programUniform3f(this.program.getGlId(), this.location, v1, v2, v3);
+        }
+    }
+
+    public void setVector4f(final float v1, final float v2, final float v3, final float v4) {
+        if (this.begin(TYPE_FLOAT).put(v1).put(v2).put(v3).put(v4).commit()) {
+            ThinGL.glBackend().programUniform4f(this.program.getGlId(), this.location, v1, v2, v3, v4);
+        }
+    }
+
+    public void setMatrix3f(final Matrix3f matrix) {
+        this.begin(TYPE_MATRIX);
+        this.put(matrix.m00()).put(matrix.m01()).put(matrix.m02());
+        this.put(matrix.m10()).put(matrix.m11()).put(matrix.m12());
+        this.put(matrix.m20()).put(matrix.m21()).put(matrix.m22());
+        if (this.commit()) {
+            try (MemoryStack memoryStack = MemoryStack.stackPush()) {
+                final Memory memory = MemoryAllocator.wrapMemory(memoryStack.nmalloc(Memory.MATRIX3F_SIZE), Memory.MATRIX3F_SIZE);
+                memory.putMatrix3f(0, matrix);
+                ThinGL.glBackend().programUniformMatrix3fv(this.program.getGlId(), this.location, 1, false, memory.getAddress());
+            }
+        }
+    }
+
+    public void setMatrix4f(final Matrix4f matrix) {
+        this.begin(TYPE_MATRIX);
+        this.put(matrix.m00()).put(matrix.m01()).put(matrix.m02()).put(matrix.m03());
+        this.put(matrix.m10()).put(matrix.m11()).put(matrix.m12()).put(matrix.m13());
+        this.put(matrix.m20()).put(matrix.m21()).put(matrix.m22()).put(matrix.m23());
+        this.put(matrix.m30()).put(matrix.m31()).put(matrix.m32()).put(matrix.m33());
+        if (this.commit()) {
+            try (MemoryStack memoryStack = MemoryStack.stackPush()) {
+                final Memory memory = MemoryAllocator.wrapMemory(memoryStack.nmalloc(Memory.MATRIX4F_SIZE), Memory.MATRIX4F_SIZE);
+                memory.putMatrix4f(0, matrix);
+                ThinGL.glBackend().programUniformMatrix4fv(this.program.getGlId(), this.location, 1, false, memory.getAddress());
+            }
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getLocation() {
+        return this.location;
+    }
+
+    public boolean isActive() {
+        return this.location != -1;
+    }
+
+    private UniformHandle begin(final int type) {
+        this.newValueCount = 0;
+        this.newValuesChanged = this.shadowType != type;
+        this.shadowType = type;
+        return this;
+    }
+
+    private UniformHandle put(final float v) {
+        return this.put(Float.floatToRawIntBits(v));
+    }
+
+    private UniformHandle put(final int v) {
+        if (this.shadowValues[this.newValueCount] != v) {
+            this.shadowValues[this.newValueCount] = v;
+            this.newValuesChanged = true;
+        }
+        this.newValueCount++;
+        return this;
+    }
+
+    private boolean commit() {
+        if (this.newValueCount != this.shadowValueCount) {
+            this.shadowValueCount = this.newValueCount;
+            this.newValuesChanged = true;
+        }
+        if (!this.newValuesChanged || this.location == -1) { // Setting an inactive uniform is a no-op in GL
+            this.program.recordUniformUpdate(true);
+            return false;
+        }
+        this.issue();
+        return true;
+    }
+
+    private void issue() {
+        this.program.recordUniformUpdate(false);
+    }
+
+}
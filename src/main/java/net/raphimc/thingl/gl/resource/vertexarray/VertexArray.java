@@ -27,6 +27,7 @@ import net.raphimc.thingl.rendering.vertex.VertexDataLayout;
 import net.raphimc.thingl.rendering.vertex.VertexDataLayoutElement;
 import org.lwjgl.opengl.GL11C;
 import org.lwjgl.opengl.GL40C;
+import org.lwjgl.opengl.GL46C;
 
 public class VertexArray extends GLContainerObject {
 
@@ -115,6 +116,18 @@ public class VertexArray extends GLContainerObject {
         this.unbind();
     }
 
+    public void drawArraysIndirectCount(final DrawMode drawMode, final Buffer indirectCommandBuffer, final long offset, final Buffer drawCountBuffer, final long drawCountOffset, final int maxCount) {
+        this.bind();
+        final int prevIndirectCommandBuffer = ThinGL.glBackend().getInteger(GL40C.GL_DRAW_INDIRECT_BUFFER_BINDING);
+        final int prevDrawCountBuffer = ThinGL.glBackend().getInteger(GL46C.GL_PARAMETER_BUFFER_BINDING);
+        ThinGL.glBackend().bindBuffer(GL40C.GL_DRAW_INDIRECT_BUFFER, indirectCommandBuffer.getGlId());
+        ThinGL.glBackend().bindBuffer(GL46C.GL_PARAMETER_BUFFER, drawCountBuffer.getGlId());
+        ThinGL.glBackend().multiDrawArraysIndirectCount(drawMode.getGlMode(), offset, drawCountOffset, maxCount, 0);
+        ThinGL.glBackend().bindBuffer(GL46C.GL_PARAMETER_BUFFER, prevDrawCountBuffer);
+        ThinGL.glBackend().bindBuffer(GL40C.GL_DRAW_INDIRECT_BUFFER, prevIndirectCommandBuffer);
+        this.unbind();
+    }
+
     public void drawElements(final DrawMode drawMode, final int count, final int offset) {
         this.bind();
         ThinGL.glBackend().drawElements(drawMode.getGlMode(), count, this.indexType, offset);
@@ -140,6 +153,18 @@ public class VertexArray extends GLContainerObject {
         this.unbind();
     }
 
+    public void drawElementsIndirectCount(final DrawMode drawMode, final Buffer indirectCommandBuffer, final long offset, final Buffer drawCountBuffer, final long drawCountOffset, final int maxCount) {
+        this.bind();
+        final int prevIndirectCommandBuffer = ThinGL.glBackend().getInteger(GL40C.GL_DRAW_INDIRECT_BUFFER_BINDING);
+        final int prevDrawCountBuffer = ThinGL.glBackend().getInteger(GL46C.GL_PARAMETER_BUFFER_BINDING);
+        ThinGL.glBackend().bindBuffer(GL40C.GL_DRAW_INDIRECT_BUFFER, indirectCommandBuffer.getGlId());
+        ThinGL.glBackend().bindBuffer(GL46C.GL_PARAMETER_BUFFER, drawCountBuffer.getGlId());
+        ThinGL.glBackend().multiDrawElementsIndirectCount(drawMode.getGlMode(), this.indexType, offset, drawCountOffset, maxCount, 0);
+        ThinGL.glBackend().bindBuffer(GL46C.GL_PARAMETER_BUFFER, prevDrawCountBuffer);
+        ThinGL.glBackend().bindBuffer(GL40C.GL_DRAW_INDIRECT_BUFFER, prevIndirectCommandBuffer);
+        this.unbind();
+    }
+
     @Override
     protected void free0() {
         ThinGL.glBackend().deleteVertexArray(this.getGlId());
@@ -151,7 +176,7 @@ public class VertexArray extends GLContainerObject {
             buffer.free();
         }
         this.vertexBuffers.clear();
-        if (this.indexBuffer != null && this.indexBuffer != ThinGL.quadIndexBuffer().getSharedBuffer()) {
+        if (this.indexBuffer != null && !ThinGL.quadIndexBuffer().isSharedBuffer(this.indexBuffer)) {
             this.indexBuffer.free();
         }
         this.indexBuffer = null;
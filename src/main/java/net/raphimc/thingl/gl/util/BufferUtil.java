@@ -40,16 +40,29 @@ public final class BufferUtil {
             return buffer;
         }
 
+        return reallocate(buffer, size);
+    }
+
+    public static Buffer shrink(final Buffer buffer, final long size) {
+        if (buffer.getSize() <= size) {
+            return buffer;
+        }
+
+        return reallocate(buffer, size);
+    }
+
+    private static Buffer reallocate(final Buffer buffer, final long size) {
+        final long copySize = Math.min(buffer.getSize(), size);
         if (buffer instanceof ImmutableBuffer immutableBuffer) {
             final ImmutableBuffer newBuffer = new ImmutableBuffer(size, immutableBuffer.getFlags());
             newBuffer.setDebugName(immutableBuffer.getDebugName());
-            immutableBuffer.copyTo(newBuffer, 0, 0, immutableBuffer.getSize());
+            immutableBuffer.copyTo(newBuffer, 0, 0, copySize);
             immutableBuffer.free();
             return newBuffer;
         } else if (buffer instanceof MutableBuffer mutableBuffer) {
             final MutableBuffer newBuffer = new MutableBuffer(size, mutableBuffer.getUsage());
             newBuffer.setDebugName(mutableBuffer.getDebugName());
-            mutableBuffer.copyTo(newBuffer, 0, 0, mutableBuffer.getSize());
+            mutableBuffer.copyTo(newBuffer, 0, 0, copySize);
             mutableBuffer.free();
             return newBuffer;
         } else {
@@ -0,0 +1,73 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.util;
+
+import net.raphimc.thingl.gl.resource.buffer.impl.ImmutableBuffer;
+import net.raphimc.thingl.memory.MemoryBuffer;
+import net.raphimc.thingl.resource.memory.Memory;
+import org.lwjgl.opengl.GL30C;
+import org.lwjgl.opengl.GL44C;
+
+public class MappedMemoryBuffer extends MemoryBuffer {
+
+    private static final long DEFAULT_INITIAL_SIZE = 256 * 1024L;
+    private static final int MAP_FLAGS = GL30C.GL_MAP_WRITE_BIT | GL44C.GL_MAP_PERSISTENT_BIT | GL44C.GL_MAP_COHERENT_BIT;
+
+    private ImmutableBuffer buffer;
+
+    public MappedMemoryBuffer() {
+        this(DEFAULT_INITIAL_SIZE);
+    }
+
+    public MappedMemoryBuffer(final long initialSize) {
+        this(createBuffer(initialSize));
+    }
+
+    private MappedMemoryBuffer(final ImmutableBuffer buffer) {
+        super(buffer.mapFullRange(MAP_FLAGS), true);
+        this.buffer = buffer;
+    }
+
+    @Override
+    protected Memory reallocateMemory(final Memory memory, final long newSize) {
+        final ImmutableBuffer newBuffer = createBuffer(newSize);
+        if (this.getWritePosition() > 0L) { // Copy on the GPU because the old mapping can't be read from
+            this.buffer.copyTo(newBuffer, 0L, 0L, this.getWritePosition());
+        }
+        this.buffer.free();
+        this.buffer = newBuffer;
+        return newBuffer.mapFullRange(MAP_FLAGS);
+    }
+
+    @Override
+    protected void freeMemory(final Memory memory) {
+        this.buffer.free();
+        this.buffer = null;
+    }
+
+    public ImmutableBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    private static ImmutableBuffer createBuffer(final long size) {
+        final ImmutableBuffer buffer = new ImmutableBuffer(size, MAP_FLAGS);
+        buffer.setDebugName("Mapped Memory Buffer " + buffer.getGlId());
+        return buffer;
+    }
+
+}
@@ -28,9 +28,12 @@ public class QuadIndexBuffer {
 
     public static final int QUAD_VERTEX_COUNT = 4;
     public static final int QUAD_INDEX_COUNT = 6;
+    public static final int MAX_SHORT_QUAD_COUNT = 65536 / QUAD_VERTEX_COUNT;
 
     private final MutableBuffer indexBuffer = new MutableBuffer(0L, GL15C.GL_DYNAMIC_DRAW);
     private Memory indexData = null;
+    private MutableBuffer shortIndexBuffer = null;
+    private Memory shortIndexData = null;
 
     public QuadIndexBuffer() {
         this.ensureSize(4096);
@@ -64,9 +67,55 @@ public class QuadIndexBuffer {
         return this.indexData;
     }
 
+    public Buffer getSharedShortBuffer() {
+        this.initializeShortIndexBuffer();
+        return this.shortIndexBuffer;
+    }
+
+    public Memory getSharedShortData() {
+        this.initializeShortIndexBuffer();
+        return this.shortIndexData;
+    }
+
+    public Buffer getSharedBuffer(final Memory sharedData) {
+        if (sharedData == this.indexData) {
+            return this.indexBuffer;
+        } else if (sharedData != null && sharedData == this.shortIndexData) {
+            return this.shortIndexBuffer;
+        } else {
+            throw new IllegalArgumentException("Memory is not shared quad index data");
+        }
+    }
+
+    public boolean isSharedData(final Memory memory) {
+        return memory == this.indexData || (memory != null && memory == this.shortIndexData);
+    }
+
+    public boolean isSharedBuffer(final Buffer buffer) {
+        return buffer == this.indexBuffer || (buffer != null && buffer == this.shortIndexBuffer);
+    }
+
     public void free() {
         this.indexBuffer.free();
         this.indexData.free();
+        if (this.shortIndexBuffer != null) {
+            this.shortIndexBuffer.free();
+            this.shortIndexData.free();
+        }
+    }
+
+    private void initializeShortIndexBuffer() {
+        if (this.shortIndexBuffer == null) { // Covers every quad which can be addressed with 16-bit indices, so it never has to be resized
+            final MemoryBuffer memoryBuffer = new MemoryBuffer((long) MAX_SHORT_QUAD_COUNT * QUAD_INDEX_COUNT * Short.BYTES);
+            for (int i = 0; i < MAX_SHORT_QUAD_COUNT; i++) {
+                final int vertexIndex = i * QUAD_VERTEX_COUNT;
+                memoryBuffer.writeShort((short) vertexIndex).writeShort((short) (vertexIndex + 1)).writeShort((short) (vertexIndex + 2));
+                memoryBuffer.writeShort((short) (vertexIndex + 2)).writeShort((short) (vertexIndex + 3)).writeShort((short) vertexIndex);
+            }
+            this.shortIndexData = memoryBuffer.finish();
+            this.shortIndexBuffer = new MutableBuffer(this.shortIndexData, GL15C.GL_STATIC_DRAW);
+            this.shortIndexBuffer.setDebugName("Quad Short Index Buffer");
+        }
     }
 
 }
@@ -0,0 +1,145 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.util;
+
+import net.lenni0451.commons.math.MathUtils;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.resource.buffer.Buffer;
+import net.raphimc.thingl.gl.resource.buffer.impl.ImmutableBuffer;
+import net.raphimc.thingl.gl.resource.sync.FenceSync;
+import net.raphimc.thingl.resource.memory.Memory;
+import org.lwjgl.opengl.GL30C;
+import org.lwjgl.opengl.GL32C;
+import org.lwjgl.opengl.GL44C;
+
+public class StreamingBuffer {
+
+    private static final int REGION_COUNT = 3;
+    private static final long MIN_REGION_SIZE = 4 * 1024 * 1024L;
+    private static final long MAX_REGION_SIZE = 256 * 1024 * 1024L;
+    private static final int REGION_ALIGNMENT = 256;
+    private static final int MAP_FLAGS = GL30C.GL_MAP_WRITE_BIT | GL44C.GL_MAP_PERSISTENT_BIT | GL44C.GL_MAP_COHERENT_BIT;
+
+    private final FenceSync[] regionFences = new FenceSync[REGION_COUNT];
+    private ImmutableBuffer buffer;
+    private Memory mappedMemory;
+    private long regionSize = MIN_REGION_SIZE;
+    private long requiredRegionSize;
+    private int currentRegion;
+    private long writePosition;
+    private boolean regionAcquired;
+
+    public StreamingBuffer() {
+        ThinGL.get().addFrameFinishedCallback(() -> {
+            if (this.regionAcquired) {
+                final FenceSync fenceSync = new FenceSync();
+                final int region = this.currentRegion;
+                this.regionFences[region] = fenceSync;
+                ThinGL.syncManager().runWhenFenceSyncSignaled(fenceSync, _ -> {
+                    if (this.regionFences[region] == fenceSync) {
+                        this.regionFences[region] = null;
+                    }
+                    fenceSync.free();
+                });
+                this.currentRegion = (this.currentRegion + 1) % REGION_COUNT;
+                this.writePosition = 0L;
+                this.regionAcquired = false;
+            }
+            if (this.requiredRegionSize > this.regionSize && this.regionSize < MAX_REGION_SIZE) {
+                this.regionSize = Math.min(MathUtils.align(Math.max(this.requiredRegionSize, this.regionSize * 2), REGION_ALIGNMENT), MAX_REGION_SIZE);
+                this.retireBuffer();
+            }
+            this.requiredRegionSize = 0L;
+        });
+    }
+
+    public long write(final Memory data, final int alignment) {
+        ThinGL.get().assertOnRenderThread();
+        if (!this.regionAcquired) {
+            this.acquireRegion();
+        }
+
+        final long regionStart = this.currentRegion * this.regionSize;
+        final long offset = MathUtils.align(regionStart + this.writePosition, alignment);
+        if (offset + data.getSize() > regionStart + this.regionSize) {
+            this.requiredRegionSize = Math.max(this.requiredRegionSize, this.writePosition + data.getSize() + alignment);
+            return -1L;
+        }
+        data.copyTo(this.mappedMemory, 0L, offset, data.getSize());
+        this.writePosition = offset + data.getSize() - regionStart;
+        return offset;
+    }
+
+    public Buffer getBuffer() {
+        return this.buffer;
+    }
+
+    public long getRegionSize() {
+        return this.regionSize;
+    }
+
+    public long getUsedRegionSize() {
+        return this.writePosition;
+    }
+
+    public void free() {
+        if (this.buffer != null) {
+            this.buffer.free();
+        }
+        for (FenceSync fenceSync : this.regionFences) {
+            if (fenceSync != null) {
+                fenceSync.free();
+            }
+        }
+    }
+
+    private void acquireRegion() {
+        if (this.buffer == null) {
+            this.buffer = new ImmutableBuffer(this.regionSize * REGION_COUNT, MAP_FLAGS);
+            this.buffer.setDebugName("Streaming Buffer");
+            this.mappedMemory = this.buffer.mapFullRange(MAP_FLAGS);
+        }
+        final FenceSync fenceSync = this.regionFences[this.currentRegion];
+        if (fenceSync != null && !fenceSync.isSignaled()) {
+            if (fenceSync.clientWait(GL32C.GL_SYNC_FLUSH_COMMANDS_BIT, Long.MAX_VALUE) == GL32C.GL_WAIT_FAILED) {
+                ThinGL.LOGGER.warn("Failed to wait for streaming buffer region to become available");
+            }
+        }
+        this.regionAcquired = true;
+    }
+
+    private void retireBuffer() {
+        if (this.buffer != null) {
+            final ImmutableBuffer buffer = this.buffer;
+            final FenceSync fenceSync = new FenceSync();
+            ThinGL.syncManager().runWhenFenceSyncSignaled(fenceSync, _ -> {
+                fenceSync.free();
+                buffer.free();
+            });
+            this.buffer = null;
+            this.mappedMemory = null;
+            this.currentRegion = 0;
+            this.writePosition = 0L;
+            this.regionAcquired = false;
+            for (int i = 0; i < REGION_COUNT; i++) {
+                this.regionFences[i] = null;
+            }
+        }
+    }
+
+}
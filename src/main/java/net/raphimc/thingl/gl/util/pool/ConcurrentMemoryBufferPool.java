@@ -0,0 +1,222 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.util.pool;
+
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.memory.MemoryBuffer;
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentMemoryBufferPool {
+
+    private static final int MAGAZINE_SIZE = 16;
+    private static final long EPOCH_LENGTH = TimeUnit.SECONDS.toNanos(1);
+    private static final int IDLE_EPOCHS = 60;
+
+    private final ConcurrentLinkedDeque<Magazine> fullMagazines = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Magazine> emptyMagazines = new ConcurrentLinkedDeque<>();
+    private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::createThreadCache);
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile int epoch;
+    private long epochStartTime = System.nanoTime();
+
+    public ConcurrentMemoryBufferPool() {
+        ThinGL.get().addFrameFinishedCallback(() -> {
+            final long time = System.nanoTime();
+            if (time - this.epochStartTime >= EPOCH_LENGTH) {
+                this.epochStartTime = time;
+                this.epoch++;
+                this.flushIdleThreadCaches();
+                this.trimIdleMagazines();
+            }
+        });
+    }
+
+    public MemoryBuffer borrowMemoryBuffer() {
+        final ThreadCache threadCache = this.threadCache.get();
+        synchronized (threadCache) { // Uncontended unless the cache is being flushed
+            threadCache.epoch = this.epoch;
+            if (threadCache.loaded.isEmpty()) {
+                if (!threadCache.previous.isEmpty()) {
+                    threadCache.swap();
+                } else {
+                    final Magazine fullMagazine = this.fullMagazines.pollFirst();
+                    if (fullMagazine == null) {
+                        this.size.incrementAndGet();
+                        return new MemoryBuffer();
+                    }
+                    this.emptyMagazines.offerFirst(threadCache.previous);
+                    threadCache.previous = threadCache.loaded;
+                    threadCache.loaded = fullMagazine;
+                }
+            }
+            return threadCache.loaded.pop();
+        }
+    }
+
+    public void returnMemoryBuffer(final MemoryBuffer memoryBuffer) {
+        memoryBuffer.reset();
+        final ThreadCache threadCache = this.threadCache.get();
+        synchronized (threadCache) {
+            threadCache.epoch = this.epoch;
+            if (threadCache.loaded.isFull()) {
+                if (!threadCache.previous.isFull()) {
+                    threadCache.swap();
+                } else {
+                    threadCache.previous.epoch = this.epoch;
+                    this.fullMagazines.offerFirst(threadCache.previous);
+                    threadCache.previous = threadCache.loaded;
+                    threadCache.loaded = this.takeEmptyMagazine();
+                }
+            }
+            threadCache.loaded.push(memoryBuffer);
+        }
+    }
+
+    public int getSize() {
+        return this.size.get();
+    }
+
+    public void free() {
+        for (ThreadCache threadCache : this.threadCaches) {
+            this.flushThreadCache(threadCache);
+        }
+        Magazine magazine;
+        while ((magazine = this.fullMagazines.pollFirst()) != null) {
+            this.freeMagazine(magazine);
+        }
+        this.threadCaches.removeIf(threadCache -> threadCache.owner.refersTo(null));
+        this.emptyMagazines.clear();
+    }
+
+    private void flushIdleThreadCaches() {
+        // Pool threads get replaced over time, so the magazines of dead or idle threads are handed back to the depot
+        final int idleEpoch = this.epoch - IDLE_EPOCHS;
+        this.threadCaches.removeIf(threadCache -> {
+            final Thread owner = threadCache.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                this.flushThreadCache(threadCache);
+                return true;
+            } else if (threadCache.epoch - idleEpoch <= 0) {
+                this.flushThreadCache(threadCache);
+            }
+            return false;
+        });
+    }
+
+    private void flushThreadCache(final ThreadCache threadCache) {
+        synchronized (threadCache) {
+            threadCache.loaded = this.flushMagazine(threadCache.loaded);
+            threadCache.previous = this.flushMagazine(threadCache.previous);
+        }
+    }
+
+    private Magazine flushMagazine(final Magazine magazine) {
+        if (magazine.isEmpty()) {
+            return magazine;
+        }
+        magazine.epoch = this.epoch - IDLE_EPOCHS; // Already idle, so the following trim frees it unless it is borrowed first
+        this.fullMagazines.offerLast(magazine);
+        return this.takeEmptyMagazine();
+    }
+
+    private Magazine takeEmptyMagazine() {
+        final Magazine emptyMagazine = this.emptyMagazines.pollFirst();
+        return emptyMagazine != null ? emptyMagazine : new Magazine();
+    }
+
+    private void trimIdleMagazines() {
+        // Magazines are pushed to the head of the depot, so the least recently returned ones are at the tail
+        final int idleEpoch = this.epoch - IDLE_EPOCHS;
+        Magazine magazine;
+        while ((magazine = this.fullMagazines.pollLast()) != null) {
+            if (magazine.epoch - idleEpoch > 0) {
+                this.fullMagazines.offerLast(magazine);
+                break;
+            }
+            this.freeMagazine(magazine);
+            this.emptyMagazines.offerFirst(magazine);
+        }
+    }
+
+    private void freeMagazine(final Magazine magazine) {
+        while (!magazine.isEmpty()) {
+            magazine.pop().free();
+            this.size.decrementAndGet();
+        }
+    }
+
+    private ThreadCache createThreadCache() {
+        final ThreadCache threadCache = new ThreadCache(Thread.currentThread());
+        threadCache.epoch = this.epoch;
+        this.threadCaches.add(threadCache);
+        return threadCache;
+    }
+
+    private static class ThreadCache {
+
+        private final WeakReference<Thread> owner;
+        private Magazine loaded = new Magazine();
+        private Magazine previous = new Magazine();
+        private int epoch;
+
+        private ThreadCache(final Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        private void swap() {
+            final Magazine loaded = this.loaded;
+            this.loaded = this.previous;
+            this.previous = loaded;
+        }
+
+    }
+
+    private static class Magazine {
+
+        private final MemoryBuffer[] memoryBuffers = new MemoryBuffer[MAGAZINE_SIZE];
+        private int count;
+        private int epoch;
+
+        private MemoryBuffer pop() {
+            final MemoryBuffer memoryBuffer = this.memoryBuffers[--this.count];
+            this.memoryBuffers[this.count] = null;
+            return memoryBuffer;
+        }
+
+        private void push(final MemoryBuffer memoryBuffer) {
+            this.memoryBuffers[this.count++] = memoryBuffer;
+        }
+
+        private boolean isEmpty() {
+            return this.count == 0;
+        }
+
+        private boolean isFull() {
+            return this.count == MAGAZINE_SIZE;
+        }
+
+    }
+
+}
@@ -17,74 +17,55 @@
  */
 package net.raphimc.thingl.gl.util.pool;
 
-import it.unimi.dsi.fastutil.objects.Reference2LongMap;
-import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
-import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
-import it.unimi.dsi.fastutil.objects.ReferenceList;
 import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.gl.resource.buffer.impl.MutableBuffer;
 import net.raphimc.thingl.gl.util.BufferUtil;
 import org.lwjgl.opengl.GL15C;
 
-public class GpuBufferPool {
+public class GpuBufferPool extends SizeClassPool<MutableBuffer> {
 
-    private final ReferenceList<MutableBuffer> free = new ReferenceArrayList<>();
-    private final ReferenceList<MutableBuffer> inUse = new ReferenceArrayList<>();
-    private final Reference2LongMap<MutableBuffer> bufferAccessTime = new Reference2LongOpenHashMap<>();
+    private int createdBufferCount;
 
     public GpuBufferPool() {
-        ThinGL.get().addFrameFinishedCallback(() -> {
-            if (!this.inUse.isEmpty()) {
-                ThinGL.LOGGER.warn(this.inUse.size() + " GPU Buffer(s) were not returned to the pool. Forcibly reclaiming them.");
-                this.free.addAll(this.inUse);
-                this.inUse.clear();
-            }
-            this.bufferAccessTime.reference2LongEntrySet().removeIf(entry -> {
-                if (System.nanoTime() - entry.getLongValue() > 60_000_000_000L) {
-                    if (this.free.contains(entry.getKey())) {
-                        this.free.remove(entry.getKey());
-                        entry.getKey().free();
-                    }
-                    return true;
-                }
-                return false;
-            });
-        });
+        super("GPU Buffer");
     }
 
     public MutableBuffer borrowBuffer() {
-        ThinGL.get().assertOnRenderThread();
-        final MutableBuffer buffer;
-        if (this.free.isEmpty()) {
-            buffer = new MutableBuffer(BufferUtil.DEFAULT_BUFFER_SIZE, GL15C.GL_DYNAMIC_DRAW);
-            buffer.setDebugName("Buffer Pool Buffer " + this.getSize());
-        } else {
-            buffer = this.free.removeFirst();
-        }
-        this.inUse.add(buffer);
-        this.bufferAccessTime.put(buffer, System.nanoTime());
-        return buffer;
+        return this.borrowBuffer(BufferUtil.DEFAULT_BUFFER_SIZE);
+    }
+
+    public MutableBuffer borrowBuffer(final long minSize) {
+        return this.borrow(minSize);
     }
 
     public void returnBuffer(final MutableBuffer buffer) {
-        ThinGL.get().assertOnRenderThread();
-        if (!this.inUse.remove(buffer)) {
-            throw new IllegalStateException("Buffer is not part of the pool");
-        }
-        this.free.add(buffer);
+        this.giveBack(buffer);
+    }
+
+    @Override
+    protected MutableBuffer create(final long size) {
+        final MutableBuffer buffer = new MutableBuffer(size, GL15C.GL_DYNAMIC_DRAW);
+        buffer.setDebugName("Buffer Pool Buffer " + this.createdBufferCount++);
+        return buffer;
+    }
+
+    @Override
+    protected long getSize(final MutableBuffer buffer) {
+        return buffer.getSize();
+    }
+
+    @Override
+    protected void reset(final MutableBuffer buffer) {
     }
 
-    public int getSize() {
-        return this.free.size() + this.inUse.size();
+    @Override
+    protected void destroy(final MutableBuffer buffer) {
+        buffer.free();
     }
 
-    public void free() {
-        for (MutableBuffer buffer : this.free) {
-            buffer.free();
-        }
-        for (MutableBuffer buffer : this.inUse) {
-            buffer.free();
-        }
+    @Override
+    protected long getBudget() {
+        return ThinGL.config().gpuBufferPoolBudget();
     }
 
 }
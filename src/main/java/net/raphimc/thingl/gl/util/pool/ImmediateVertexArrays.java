@@ -58,8 +58,16 @@ public class ImmediateVertexArrays {
     }
 
     public VertexArray getVertexArray(final VertexDataLayout vertexDataLayout, final VertexDataLayout instanceVertexDataLayout) {
+        return this.getVertexArray(vertexDataLayout, instanceVertexDataLayout, false);
+    }
+
+    public VertexArray getStreamingVertexArray(final VertexDataLayout vertexDataLayout, final VertexDataLayout instanceVertexDataLayout) {
+        return this.getVertexArray(vertexDataLayout, instanceVertexDataLayout, true);
+    }
+
+    private VertexArray getVertexArray(final VertexDataLayout vertexDataLayout, final VertexDataLayout instanceVertexDataLayout, final boolean streaming) {
         ThinGL.get().assertOnRenderThread();
-        final CacheKey cacheKey = new CacheKey(vertexDataLayout, instanceVertexDataLayout);
+        final CacheKey cacheKey = new CacheKey(vertexDataLayout, instanceVertexDataLayout, streaming);
         final VertexArray vertexArray = this.vertexArrayCache.computeIfAbsent(cacheKey, this::createVertexArray);
         this.vertexArrayAccessTime.put(vertexArray, System.nanoTime());
         return vertexArray;
@@ -80,6 +88,14 @@ public class ImmediateVertexArrays {
 
     private VertexArray createVertexArray(final CacheKey cacheKey) {
         final VertexArray vertexArray = new VertexArray();
+        if (cacheKey.streaming) { // Vertex buffers are bound to the streaming buffer during each draw
+            vertexArray.setDebugName("Streaming Vertex Array " + vertexArray.getGlId());
+            vertexArray.configureVertexDataLayout(0, 0, cacheKey.vertexDataLayout, 0);
+            if (cacheKey.instanceVertexDataLayout != null) {
+                vertexArray.configureVertexDataLayout(1, cacheKey.vertexDataLayout.getElements().length, cacheKey.instanceVertexDataLayout, 1);
+            }
+            return vertexArray;
+        }
         vertexArray.setDebugName("Immediate Vertex Array " + vertexArray.getGlId());
         final MutableBuffer vertexBuffer = new MutableBuffer(BufferUtil.DEFAULT_BUFFER_SIZE, GL15C.GL_DYNAMIC_DRAW);
         vertexBuffer.setDebugName("Immediate Vertex Buffer " + vertexBuffer.getGlId());
@@ -94,7 +110,7 @@ public class ImmediateVertexArrays {
         return vertexArray;
     }
 
-    private record CacheKey(VertexDataLayout vertexDataLayout, VertexDataLayout instanceVertexDataLayout) {
+    private record CacheKey(VertexDataLayout vertexDataLayout, VertexDataLayout instanceVertexDataLayout, boolean streaming) {
     }
 
 }
@@ -0,0 +1,111 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.util.pool;
+
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import it.unimi.dsi.fastutil.objects.ReferenceList;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.resource.sync.FenceSync;
+import net.raphimc.thingl.gl.util.MappedMemoryBuffer;
+
+public class MappedMemoryBufferPool {
+
+    private final ReferenceList<MappedMemoryBuffer> free = new ReferenceArrayList<>();
+    private final ReferenceList<MappedMemoryBuffer> inUse = new ReferenceArrayList<>();
+    private final ReferenceList<MappedMemoryBuffer> returned = new ReferenceArrayList<>();
+    private final ReferenceList<MappedMemoryBuffer> inFlight = new ReferenceArrayList<>();
+    private final Reference2LongMap<MappedMemoryBuffer> memoryBufferAccessTime = new Reference2LongOpenHashMap<>();
+
+    public MappedMemoryBufferPool() {
+        ThinGL.get().addFrameFinishedCallback(() -> {
+            if (!this.inUse.isEmpty()) {
+                ThinGL.LOGGER.warn(this.inUse.size() + " MappedMemoryBuffer(s) were not returned to the pool. Forcibly reclaiming them.");
+                for (MappedMemoryBuffer memoryBuffer : this.inUse) {
+                    memoryBuffer.reset();
+                }
+                this.returned.addAll(this.inUse);
+                this.inUse.clear();
+            }
+            if (!this.returned.isEmpty()) { // The GPU might still be reading from the returned buffers
+                final ReferenceList<MappedMemoryBuffer> memoryBuffers = new ReferenceArrayList<>(this.returned);
+                this.returned.clear();
+                this.inFlight.addAll(memoryBuffers);
+                final FenceSync fenceSync = new FenceSync();
+                ThinGL.syncManager().runWhenFenceSyncSignaled(fenceSync, _ -> {
+                    this.inFlight.removeAll(memoryBuffers);
+                    this.free.addAll(memoryBuffers);
+                    fenceSync.free();
+                });
+            }
+            this.memoryBufferAccessTime.reference2LongEntrySet().removeIf(entry -> {
+                if (System.nanoTime() - entry.getLongValue() > 60_000_000_000L) {
+                    if (this.free.contains(entry.getKey())) {
+                        this.free.remove(entry.getKey());
+                        entry.getKey().free();
+                    }
+                    return true;
+                }
+                return false;
+            });
+        });
+    }
+
+    public MappedMemoryBuffer borrowMemoryBuffer() {
+        ThinGL.get().assertOnRenderThread();
+        final MappedMemoryBuffer memoryBuffer;
+        if (this.free.isEmpty()) {
+            memoryBuffer = new MappedMemoryBuffer();
+        } else {
+            memoryBuffer = this.free.removeFirst();
+        }
+        this.inUse.add(memoryBuffer);
+        this.memoryBufferAccessTime.put(memoryBuffer, System.nanoTime());
+        return memoryBuffer;
+    }
+
+    public void returnMemoryBuffer(final MappedMemoryBuffer memoryBuffer) {
+        ThinGL.get().assertOnRenderThread();
+        if (!this.inUse.remove(memoryBuffer)) {
+            throw new IllegalStateException("MappedMemoryBuffer is not part of the pool");
+        }
+        memoryBuffer.reset();
+        this.returned.add(memoryBuffer);
+    }
+
+    public int getSize() {
+        return this.free.size() + this.inUse.size() + this.returned.size() + this.inFlight.size();
+    }
+
+    public void free() {
+        for (MappedMemoryBuffer memoryBuffer : this.free) {
+            memoryBuffer.free();
+        }
+        for (MappedMemoryBuffer memoryBuffer : this.inUse) {
+            memoryBuffer.free();
+        }
+        for (MappedMemoryBuffer memoryBuffer : this.returned) {
+            memoryBuffer.free();
+        }
+        for (MappedMemoryBuffer memoryBuffer : this.inFlight) {
+            memoryBuffer.free();
+        }
+    }
+
+}
@@ -17,75 +17,52 @@
  */
 package net.raphimc.thingl.gl.util.pool;
 
-import it.unimi.dsi.fastutil.objects.Reference2LongMap;
-import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
-import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
-import it.unimi.dsi.fastutil.objects.ReferenceList;
 import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.memory.MemoryBuffer;
 
-public class MemoryBufferPool {
+public class MemoryBufferPool extends SizeClassPool<MemoryBuffer> {
 
-    private final ReferenceList<MemoryBuffer> free = new ReferenceArrayList<>();
-    private final ReferenceList<MemoryBuffer> inUse = new ReferenceArrayList<>();
-    private final Reference2LongMap<MemoryBuffer> memoryBufferAccessTime = new Reference2LongOpenHashMap<>();
+    private static final long DEFAULT_MEMORY_BUFFER_SIZE = 64 * 1024L;
 
     public MemoryBufferPool() {
-        ThinGL.get().addFrameFinishedCallback(() -> {
-            if (!this.inUse.isEmpty()) {
-                ThinGL.LOGGER.warn(this.inUse.size() + " MemoryBuffer(s) were not returned to the pool. Forcibly reclaiming them.");
-                for (MemoryBuffer memoryBuffer : this.inUse) {
-                    memoryBuffer.reset();
-                }
-                this.free.addAll(this.inUse);
-                this.inUse.clear();
-            }
-            this.memoryBufferAccessTime.reference2LongEntrySet().removeIf(entry -> {
-                if (System.nanoTime() - entry.getLongValue() > 60_000_000_000L) {
-                    if (this.free.contains(entry.getKey())) {
-                        this.free.remove(entry.getKey());
-                        entry.getKey().free();
-                    }
-                    return true;
-                }
-                return false;
-            });
-        });
+        super("MemoryBuffer");
     }
 
     public MemoryBuffer borrowMemoryBuffer() {
-        ThinGL.get().assertOnRenderThread();
-        final MemoryBuffer memoryBuffer;
-        if (this.free.isEmpty()) {
-            memoryBuffer = new MemoryBuffer();
-        } else {
-            memoryBuffer = this.free.removeFirst();
-        }
-        this.inUse.add(memoryBuffer);
-        this.memoryBufferAccessTime.put(memoryBuffer, System.nanoTime());
-        return memoryBuffer;
+        return this.borrowMemoryBuffer(DEFAULT_MEMORY_BUFFER_SIZE);
+    }
+
+    public MemoryBuffer borrowMemoryBuffer(final long minSize) {
+        return this.borrow(minSize);
     }
 
     public void returnMemoryBuffer(final MemoryBuffer memoryBuffer) {
-        ThinGL.get().assertOnRenderThread();
-        if (!this.inUse.remove(memoryBuffer)) {
-            throw new IllegalStateException("MemoryBuffer is not part of the pool");
-        }
+        this.giveBack(memoryBuffer);
+    }
+
+    @Override
+    protected MemoryBuffer create(final long size) {
+        return new MemoryBuffer(size);
+    }
+
+    @Override
+    protected long getSize(final MemoryBuffer memoryBuffer) {
+        return memoryBuffer.getSize();
+    }
+
+    @Override
+    protected void reset(final MemoryBuffer memoryBuffer) {
         memoryBuffer.reset();
-        this.free.add(memoryBuffer);
     }
 
-    public int getSize() {
-        return this.free.size() + this.inUse.size();
+    @Override
+    protected void destroy(final MemoryBuffer memoryBuffer) {
+        memoryBuffer.free();
     }
 
-    public void free() {
-        for (MemoryBuffer memoryBuffer : this.free) {
-            memoryBuffer.free();
-        }
-        for (MemoryBuffer memoryBuffer : this.inUse) {
-            memoryBuffer.free();
-        }
+    @Override
+    protected long getBudget() {
+        return ThinGL.config().memoryBufferPoolBudget();
     }
 
 }
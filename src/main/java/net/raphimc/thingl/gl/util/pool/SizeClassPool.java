@@ -0,0 +1,182 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.gl.util.pool;
+
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import net.raphimc.thingl.ThinGL;
+
+import java.util.Arrays;
+
+public abstract class SizeClassPool<T> {
+
+    public static final int SIZE_CLASS_COUNT = 32;
+    private static final int MIN_SIZE_CLASS_SHIFT = 12;
+    private static final long MAX_IDLE_TIME = 60_000_000_000L;
+
+    private final String name;
+    private final ReferenceLinkedOpenHashSet<T>[] free;
+    private final ReferenceLinkedOpenHashSet<T> leastRecentlyUsed = new ReferenceLinkedOpenHashSet<>();
+    private final ReferenceSet<T> inUse = new ReferenceOpenHashSet<>();
+    private final Reference2LongMap<T> objectSize = new Reference2LongOpenHashMap<>();
+    private final Reference2LongMap<T> returnTime = new Reference2LongOpenHashMap<>();
+    private final long[] hitCounts = new long[SIZE_CLASS_COUNT];
+    private final long[] missCounts = new long[SIZE_CLASS_COUNT];
+    private long totalSize;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected SizeClassPool(final String name) {
+        this.name = name;
+        this.free = new ReferenceLinkedOpenHashSet[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            this.free[i] = new ReferenceLinkedOpenHashSet<>();
+        }
+        ThinGL.get().addFrameFinishedCallback(() -> {
+            if (!this.inUse.isEmpty()) {
+                ThinGL.LOGGER.warn(this.inUse.size() + " " + this.name + "(s) were not returned to the pool. Forcibly reclaiming them.");
+                for (T object : this.inUse) {
+                    this.addFree(object);
+                }
+                this.inUse.clear();
+            }
+            final long time = System.nanoTime();
+            while (!this.leastRecentlyUsed.isEmpty() && time - this.returnTime.getLong(this.leastRecentlyUsed.first()) > MAX_IDLE_TIME) {
+                this.freeLeastRecentlyUsed();
+            }
+            this.trimToBudget();
+        });
+    }
+
+    protected T borrow(final long minSize) {
+        ThinGL.get().assertOnRenderThread();
+        final int sizeClass = Math.min(getSizeClass(minSize, true), SIZE_CLASS_COUNT - 1);
+        final ReferenceLinkedOpenHashSet<T> free = this.free[sizeClass];
+        final T object;
+        if (!free.isEmpty() && this.objectSize.getLong(free.last()) >= minSize) {
+            object = free.removeLast();
+            this.leastRecentlyUsed.remove(object);
+            this.returnTime.removeLong(object);
+            this.hitCounts[sizeClass]++;
+        } else {
+            object = this.create(Math.max(getSizeClassSize(sizeClass), minSize));
+            this.objectSize.put(object, this.getSize(object));
+            this.totalSize += this.objectSize.getLong(object);
+            this.missCounts[sizeClass]++;
+        }
+        this.inUse.add(object);
+        return object;
+    }
+
+    protected void giveBack(final T object) {
+        ThinGL.get().assertOnRenderThread();
+        if (!this.inUse.remove(object)) {
+            throw new IllegalStateException(this.name + " is not part of the pool");
+        }
+        this.addFree(object);
+        this.trimToBudget();
+    }
+
+    public long getHitCount(final int sizeClass) {
+        return this.hitCounts[sizeClass];
+    }
+
+    public long getMissCount(final int sizeClass) {
+        return this.missCounts[sizeClass];
+    }
+
+    public void resetStatistics() {
+        Arrays.fill(this.hitCounts, 0L);
+        Arrays.fill(this.missCounts, 0L);
+    }
+
+    public long getTotalSize() {
+        return this.totalSize;
+    }
+
+    public int getSize() {
+        return this.leastRecentlyUsed.size() + this.inUse.size();
+    }
+
+    public void free() {
+        for (T object : this.leastRecentlyUsed) {
+            this.destroy(object);
+        }
+        for (T object : this.inUse) {
+            this.destroy(object);
+        }
+        for (ReferenceLinkedOpenHashSet<T> free : this.free) {
+            free.clear();
+        }
+        this.leastRecentlyUsed.clear();
+        this.inUse.clear();
+        this.objectSize.clear();
+        this.returnTime.clear();
+        this.totalSize = 0L;
+    }
+
+    public static long getSizeClassSize(final int sizeClass) {
+        return 1L << (sizeClass + MIN_SIZE_CLASS_SHIFT);
+    }
+
+    protected abstract T create(final long size);
+
+    protected abstract long getSize(final T object);
+
+    protected abstract void reset(final T object);
+
+    protected abstract void destroy(final T object);
+
+    protected abstract long getBudget();
+
+    private void addFree(final T object) {
+        this.reset(object);
+        final long size = this.getSize(object); // The object might have grown while it was borrowed
+        this.totalSize += size - this.objectSize.put(object, size);
+        this.free[Math.min(getSizeClass(size, false), SIZE_CLASS_COUNT - 1)].add(object);
+        this.leastRecentlyUsed.add(object);
+        this.returnTime.put(object, System.nanoTime());
+    }
+
+    private void trimToBudget() {
+        final long budget = this.getBudget();
+        while (this.totalSize > budget && !this.leastRecentlyUsed.isEmpty()) {
+            this.freeLeastRecentlyUsed();
+        }
+    }
+
+    private void freeLeastRecentlyUsed() {
+        final T object = this.leastRecentlyUsed.removeFirst();
+        final long size = this.objectSize.removeLong(object);
+        this.free[Math.min(getSizeClass(size, false), SIZE_CLASS_COUNT - 1)].remove(object);
+        this.returnTime.removeLong(object);
+        this.totalSize -= size;
+        this.destroy(object);
+    }
+
+    private static int getSizeClass(final long size, final boolean roundUp) {
+        if (size <= 1L << MIN_SIZE_CLASS_SHIFT) {
+            return 0;
+        }
+        final int log2 = roundUp ? Long.SIZE - Long.numberOfLeadingZeros(size - 1) : Long.SIZE - 1 - Long.numberOfLeadingZeros(size);
+        return log2 - MIN_SIZE_CLASS_SHIFT;
+    }
+
+}
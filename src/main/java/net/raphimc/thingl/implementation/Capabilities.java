@@ -18,7 +18,12 @@
 package net.raphimc.thingl.implementation;
 
 import net.raphimc.thingl.ThinGL;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL20C;
 import org.lwjgl.opengl.GL30C;
+import org.lwjgl.opengl.GL31C;
+import org.lwjgl.opengl.GL43C;
+import org.lwjgl.opengl.GLCapabilities;
 import org.lwjgl.system.Configuration;
 import org.lwjgl.util.freetype.FreeType;
 
@@ -35,6 +40,14 @@ public class Capabilities {
     private final int maxSamples;
     private final int maxColorAttachments;
     private final int maxArrayTextureLayers;
+    private final int maxTextureImageUnits;
+    private final int uniformBufferOffsetAlignment;
+    private final int shaderStorageBufferOffsetAlignment;
+    private final boolean supportsBufferStorage;
+    private final boolean supportsShaderStorageBuffers;
+    private final boolean supportsComputeShaders;
+    private final boolean supportsIndirectDrawCount;
+    private final boolean supportsBindlessTextures;
 
     static {
         STB_AVAILABLE = isClassPresent("org.lwjgl.stb.LibSTB");
@@ -127,6 +140,19 @@ public class Capabilities {
         this.maxSamples = ThinGL.glBackend().getInteger(GL30C.GL_MAX_SAMPLES);
         this.maxColorAttachments = ThinGL.glBackend().getInteger(GL30C.GL_MAX_COLOR_ATTACHMENTS);
         this.maxArrayTextureLayers = ThinGL.glBackend().getInteger(GL30C.GL_MAX_ARRAY_TEXTURE_LAYERS);
+        this.maxTextureImageUnits = ThinGL.glBackend().getInteger(GL20C.GL_MAX_TEXTURE_IMAGE_UNITS);
+        final GLCapabilities glCapabilities = GL.getCapabilities();
+        this.supportsBufferStorage = glCapabilities.glBufferStorage != 0L;
+        this.supportsShaderStorageBuffers = glCapabilities.OpenGL43;
+        this.supportsComputeShaders = glCapabilities.glDispatchCompute != 0L;
+        this.supportsIndirectDrawCount = glCapabilities.glMultiDrawElementsIndirectCount != 0L;
+        this.supportsBindlessTextures = glCapabilities.GL_ARB_bindless_texture && this.supportsShaderStorageBuffers;
+        this.uniformBufferOffsetAlignment = ThinGL.glBackend().getInteger(GL31C.GL_UNIFORM_BUFFER_OFFSET_ALIGNMENT);
+        if (this.supportsShaderStorageBuffers) {
+            this.shaderStorageBufferOffsetAlignment = ThinGL.glBackend().getInteger(GL43C.GL_SHADER_STORAGE_BUFFER_OFFSET_ALIGNMENT);
+        } else {
+            this.shaderStorageBufferOffsetAlignment = this.uniformBufferOffsetAlignment;
+        }
     }
 
     public int getMaxSamples() {
@@ -141,6 +167,38 @@ public class Capabilities {
         return this.maxArrayTextureLayers;
     }
 
+    public int getMaxTextureImageUnits() {
+        return this.maxTextureImageUnits;
+    }
+
+    public int getUniformBufferOffsetAlignment() {
+        return this.uniformBufferOffsetAlignment;
+    }
+
+    public int getShaderStorageBufferOffsetAlignment() {
+        return this.shaderStorageBufferOffsetAlignment;
+    }
+
+    public boolean supportsBufferStorage() {
+        return this.supportsBufferStorage;
+    }
+
+    public boolean supportsShaderStorageBuffers() {
+        return this.supportsShaderStorageBuffers;
+    }
+
+    public boolean supportsComputeShaders() {
+        return this.supportsComputeShaders;
+    }
+
+    public boolean supportsIndirectDrawCount() {
+        return this.supportsIndirectDrawCount;
+    }
+
+    public boolean supportsBindlessTextures() {
+        return this.supportsBindlessTextures;
+    }
+
     private static boolean isClassPresent(final String className) {
         try {
             Class.forName(className, false, Capabilities.class.getClassLoader());
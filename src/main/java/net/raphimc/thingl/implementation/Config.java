@@ -21,6 +21,16 @@ public class Config {
 
     private boolean restoreProgramBinding = false;
     private boolean restoreVertexArrayBinding = false;
+    private boolean streamingUploads = false;
+    private boolean mappedUploads = false;
+    private boolean uploadCaching = false;
+    private boolean sortDrawBatches = false;
+    private boolean triangulateConnectedPrimitives = false;
+    private boolean narrowIndices = false;
+    private boolean analyticShapes = false;
+    private int triangulationCacheSize = 0;
+    private long gpuBufferPoolBudget = 256 * 1024 * 1024L;
+    private long memoryBufferPoolBudget = 256 * 1024 * 1024L;
 
     public boolean restoreProgramBinding() {
         return this.restoreProgramBinding;
@@ -38,4 +48,84 @@ public class Config {
         this.restoreVertexArrayBinding = restoreVertexArrayBinding;
     }
 
+    public boolean streamingUploads() {
+        return this.streamingUploads;
+    }
+
+    public void setStreamingUploads(final boolean streamingUploads) {
+        this.streamingUploads = streamingUploads;
+    }
+
+    public boolean mappedUploads() {
+        return this.mappedUploads;
+    }
+
+    public void setMappedUploads(final boolean mappedUploads) {
+        this.mappedUploads = mappedUploads;
+    }
+
+    public boolean uploadCaching() {
+        return this.uploadCaching;
+    }
+
+    public void setUploadCaching(final boolean uploadCaching) {
+        this.uploadCaching = uploadCaching;
+    }
+
+    public boolean sortDrawBatches() {
+        return this.sortDrawBatches;
+    }
+
+    public void setSortDrawBatches(final boolean sortDrawBatches) {
+        this.sortDrawBatches = sortDrawBatches;
+    }
+
+    public boolean triangulateConnectedPrimitives() {
+        return this.triangulateConnectedPrimitives;
+    }
+
+    public void setTriangulateConnectedPrimitives(final boolean triangulateConnectedPrimitives) {
+        this.triangulateConnectedPrimitives = triangulateConnectedPrimitives;
+    }
+
+    public boolean narrowIndices() {
+        return this.narrowIndices;
+    }
+
+    public void setNarrowIndices(final boolean narrowIndices) {
+        this.narrowIndices = narrowIndices;
+    }
+
+    public boolean analyticShapes() {
+        return this.analyticShapes;
+    }
+
+    public void setAnalyticShapes(final boolean analyticShapes) {
+        this.analyticShapes = analyticShapes;
+    }
+
+    public int triangulationCacheSize() {
+        return this.triangulationCacheSize;
+    }
+
+    public void setTriangulationCacheSize(final int triangulationCacheSize) {
+        this.triangulationCacheSize = triangulationCacheSize;
+    }
+
+    public long gpuBufferPoolBudget() {
+        return this.gpuBufferPoolBudget;
+    }
+
+    public void setGpuBufferPoolBudget(final long gpuBufferPoolBudget) {
+        this.gpuBufferPoolBudget = gpuBufferPoolBudget;
+    }
+
+    public long memoryBufferPoolBudget() {
+        return this.memoryBufferPoolBudget;
+    }
+
+    public void setMemoryBufferPoolBudget(final long memoryBufferPoolBudget) {
+        this.memoryBufferPoolBudget = memoryBufferPoolBudget;
+    }
+
 }
@@ -18,14 +18,44 @@
 package net.raphimc.thingl.implementation;
 
 import net.lenni0451.commons.color.Color;
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.resource.buffer.impl.MutableBuffer;
+import net.raphimc.thingl.gl.wrapper.GLStateManager;
+import net.raphimc.thingl.resource.memory.Memory;
+import org.joml.Matrix4f;
 import org.joml.Matrix4fStack;
+import org.lwjgl.opengl.GL15C;
+import org.lwjgl.opengl.GL31C;
 
 public class GlobalUniforms {
 
+    public static final String UNIFORM_BLOCK_NAME = "ubo_GlobalUniforms";
+    public static final int UNIFORM_BUFFER_INDEX = 0;
+    private static final int UNIFORM_BUFFER_SIZE = Memory.MATRIX4F_SIZE * 2 + Memory.VECTOR4F_SIZE * 2; // std140 layout, see global_uniforms.glsl
+
     private final Matrix4fStack projectionMatrixStack = new Matrix4fStack(16);
     private final Matrix4fStack viewMatrixStack = new Matrix4fStack(16);
     private Color colorModifier = Color.WHITE;
 
+    private MutableBuffer uniformBuffer;
+    private final Matrix4f uploadedProjectionMatrix = new Matrix4f();
+    private final Matrix4f uploadedViewMatrix = new Matrix4f();
+    private int uploadedColorModifier;
+    private int uploadedViewportWidth;
+    private int uploadedViewportHeight;
+
+    public void bindUniformBuffer() {
+        final GLStateManager.Viewport viewport = ThinGL.glStateManager().getViewport();
+        if (this.uniformBuffer == null) {
+            this.uniformBuffer = new MutableBuffer(UNIFORM_BUFFER_SIZE, GL15C.GL_DYNAMIC_DRAW);
+            this.uniformBuffer.setDebugName("Global Uniforms");
+            this.uploadUniformBuffer(viewport);
+        } else if (!this.uploadedProjectionMatrix.equals(this.projectionMatrixStack) || !this.uploadedViewMatrix.equals(this.viewMatrixStack) || this.colorModifier.toABGR() != this.uploadedColorModifier || viewport.width() != this.uploadedViewportWidth || viewport.height() != this.uploadedViewportHeight) {
+            this.uploadUniformBuffer(viewport);
+        }
+        ThinGL.glBackend().bindBufferBase(GL31C.GL_UNIFORM_BUFFER, UNIFORM_BUFFER_INDEX, this.uniformBuffer.getGlId());
+    }
+
     public Matrix4fStack getProjectionMatrix() {
         return this.projectionMatrixStack;
     }
@@ -42,4 +72,26 @@ public class GlobalUniforms {
         this.colorModifier = colorModifier;
     }
 
+    public void free() {
+        if (this.uniformBuffer != null) {
+            this.uniformBuffer.free();
+            this.uniformBuffer = null;
+        }
+    }
+
+    private void uploadUniformBuffer(final GLStateManager.Viewport viewport) {
+        this.uploadedProjectionMatrix.set(this.projectionMatrixStack);
+        this.uploadedViewMatrix.set(this.viewMatrixStack);
+        this.uploadedColorModifier = this.colorModifier.toABGR();
+        this.uploadedViewportWidth = viewport.width();
+        this.uploadedViewportHeight = viewport.height();
+
+        final Memory memory = ThinGL.frameArena().allocate(UNIFORM_BUFFER_SIZE);
+        memory.putMatrix4f(0L, this.uploadedProjectionMatrix);
+        memory.putMatrix4f(Memory.MATRIX4F_SIZE, this.uploadedViewMatrix);
+        memory.putVector4f(Memory.MATRIX4F_SIZE * 2L, this.colorModifier.getRed() / 255F, this.colorModifier.getGreen() / 255F, this.colorModifier.getBlue() / 255F, this.colorModifier.getAlpha() / 255F);
+        memory.putVector4f(Memory.MATRIX4F_SIZE * 2L + Memory.VECTOR4F_SIZE, viewport.width(), viewport.height(), 0F, 0F);
+        this.uniformBuffer.upload(memory);
+    }
+
 }
@@ -135,6 +135,8 @@ public interface GLBackend {
 
     void bindBufferBase(final int target, final int index, final int buffer);
 
+    void bindBufferRange(final int target, final int index, final int buffer, final long offset, final long size);
+
     void bindFramebuffer(final int target, final int framebuffer);
 
     void bindVertexArray(final int array);
@@ -219,8 +221,12 @@ public interface GLBackend {
 
     void drawElementsInstancedBaseVertexBaseInstance(final int mode, final int count, final int type, final long indices, final int primcount, final int basevertex, final int baseinstance);
 
+    void memoryBarrier(final int barriers);
+
     void copyImageSubData(final int srcName, final int srcTarget, final int srcLevel, final int srcX, final int srcY, final int srcZ, final int dstName, final int dstTarget, final int dstLevel, final int dstX, final int dstY, final int dstZ, final int srcWidth, final int srcHeight, final int srcDepth);
 
+    void dispatchCompute(final int num_groups_x, final int num_groups_y, final int num_groups_z);
+
     String getObjectLabel(final int identifier, final int name);
 
     int getProgramResourceIndex(final int program, final int programInterface, final CharSequence name);
@@ -361,4 +367,16 @@ public interface GLBackend {
 
     void vertexArrayVertexBuffer(final int vaobj, final int bindingindex, final int buffer, final long offset, final int stride);
 
+    void multiDrawArraysIndirectCount(final int mode, final long indirect, final long drawcount, final int maxdrawcount, final int stride);
+
+    void multiDrawElementsIndirectCount(final int mode, final int type, final long indirect, final long drawcount, final int maxdrawcount, final int stride);
+
+    long getTextureHandle(final int texture);
+
+    long getTextureSamplerHandle(final int texture, final int sampler);
+
+    void makeTextureHandleResident(final long handle);
+
+    void makeTextureHandleNonResident(final long handle);
+
 }
@@ -50,6 +50,7 @@ import net.raphimc.thingl.rendering.command.impl.DrawElementsCommand;
 import net.raphimc.thingl.resource.image.Image;
 import net.raphimc.thingl.util.glsl.GlslNodeMutator;
 import org.lwjgl.opengl.ARBBufferStorage;
+import org.lwjgl.opengl.ARBIndirectParameters;
 import org.lwjgl.opengl.ARBTextureStorage;
 import org.lwjgl.opengl.ARBTextureStorageMultisample;
 import org.lwjgl.opengl.ARBVertexAttribBinding;
@@ -153,6 +154,14 @@ public class GL41Backend extends GL45Backend {
         super.bindBufferBase(target, index, buffer);
     }
 
+    @Override
+    public void bindBufferRange(final int target, final int index, final int buffer, final long offset, final long size) {
+        if (target == GL43C.GL_SHADER_STORAGE_BUFFER && !this.supportsShaderStorageBuffers) {
+            throw new UnsupportedOperationException();
+        }
+        super.bindBufferRange(target, index, buffer, offset, size);
+    }
+
     @Override
     public void deleteVertexArray(final int array) {
         this.vertexArrayObjects.remove(array);
@@ -196,6 +205,17 @@ public class GL41Backend extends GL45Backend {
         }
     }
 
+    @Override
+    public void memoryBarrier(final int barriers) {
+        if (this.capabilities.glMemoryBarrier != 0L) {
+            super.memoryBarrier(barriers);
+        } else if (this.capabilities.glMemoryBarrierEXT != 0L) {
+            EXTShaderImageLoadStore.glMemoryBarrierEXT(barriers);
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Override
     public void copyImageSubData(final int srcName, final int srcTarget, final int srcLevel, final int srcX, final int srcY, final int srcZ, final int dstName, final int dstTarget, final int dstLevel, final int dstX, final int dstY, final int dstZ, final int srcWidth, final int srcHeight, final int srcDepth) {
         if (this.capabilities.glCopyImageSubData != 0L) {
@@ -205,6 +225,15 @@ public class GL41Backend extends GL45Backend {
         }
     }
 
+    @Override
+    public void dispatchCompute(final int num_groups_x, final int num_groups_y, final int num_groups_z) {
+        if (this.capabilities.glDispatchCompute != 0L) {
+            super.dispatchCompute(num_groups_x, num_groups_y, num_groups_z);
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Override
     public String getObjectLabel(final int identifier, final int name) {
         if (this.capabilities.glGetObjectLabel != 0L) {
@@ -1384,6 +1413,28 @@ public class GL41Backend extends GL45Backend {
         }
     }
 
+    @Override
+    public void multiDrawArraysIndirectCount(final int mode, final long indirect, final long drawcount, final int maxdrawcount, final int stride) {
+        if (this.capabilities.glMultiDrawArraysIndirectCount != 0L) {
+            super.multiDrawArraysIndirectCount(mode, indirect, drawcount, maxdrawcount, stride);
+        } else if (this.capabilities.glMultiDrawArraysIndirectCountARB != 0L) {
+            ARBIndirectParameters.glMultiDrawArraysIndirectCountARB(mode, indirect, drawcount, maxdrawcount, stride);
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public void multiDrawElementsIndirectCount(final int mode, final int type, final long indirect, final long drawcount, final int maxdrawcount, final int stride) {
+        if (this.capabilities.glMultiDrawElementsIndirectCount != 0L) {
+            super.multiDrawElementsIndirectCount(mode, type, indirect, drawcount, maxdrawcount, stride);
+        } else if (this.capabilities.glMultiDrawElementsIndirectCountARB != 0L) {
+            ARBIndirectParameters.glMultiDrawElementsIndirectCountARB(mode, type, indirect, drawcount, maxdrawcount, stride);
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     public void putTextureTarget(final int texture, final int target) {
         this.textureTargets.put(texture, target);
     }
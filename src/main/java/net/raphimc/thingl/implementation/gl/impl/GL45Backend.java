@@ -18,6 +18,7 @@
 package net.raphimc.thingl.implementation.gl.impl;
 
 import net.raphimc.thingl.implementation.gl.GLBackend;
+import org.lwjgl.opengl.ARBBindlessTexture;
 import org.lwjgl.opengl.ARBVertexAttribBinding;
 import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL11C;
@@ -35,6 +36,7 @@ import org.lwjgl.opengl.GL42C;
 import org.lwjgl.opengl.GL43C;
 import org.lwjgl.opengl.GL44C;
 import org.lwjgl.opengl.GL45C;
+import org.lwjgl.opengl.GL46C;
 import org.lwjgl.opengl.GLCapabilities;
 
 public class GL45Backend implements GLBackend {
@@ -338,6 +340,11 @@ public class GL45Backend implements GLBackend {
         GL30C.glBindBufferBase(target, index, buffer);
     }
 
+    @Override
+    public void bindBufferRange(final int target, final int index, final int buffer, final long offset, final long size) {
+        GL30C.glBindBufferRange(target, index, buffer, offset, size);
+    }
+
     @Override
     public void bindFramebuffer(final int target, final int framebuffer) {
         GL30C.glBindFramebuffer(target, framebuffer);
@@ -548,11 +555,21 @@ public class GL45Backend implements GLBackend {
         GL42C.glDrawElementsInstancedBaseVertexBaseInstance(mode, count, type, indices, primcount, basevertex, baseinstance);
     }
 
+    @Override
+    public void memoryBarrier(final int barriers) {
+        GL42C.glMemoryBarrier(barriers);
+    }
+
     @Override
     public void copyImageSubData(final int srcName, final int srcTarget, final int srcLevel, final int srcX, final int srcY, final int srcZ, final int dstName, final int dstTarget, final int dstLevel, final int dstX, final int dstY, final int dstZ, final int srcWidth, final int srcHeight, final int srcDepth) {
         GL43C.glCopyImageSubData(srcName, srcTarget, srcLevel, srcX, srcY, srcZ, dstName, dstTarget, dstLevel, dstX, dstY, dstZ, srcWidth, srcHeight, srcDepth);
     }
 
+    @Override
+    public void dispatchCompute(final int num_groups_x, final int num_groups_y, final int num_groups_z) {
+        GL43C.glDispatchCompute(num_groups_x, num_groups_y, num_groups_z);
+    }
+
     @Override
     public String getObjectLabel(final int identifier, final int name) {
         return GL43C.glGetObjectLabel(identifier, name);
@@ -947,4 +964,34 @@ public class GL45Backend implements GLBackend {
         GL45C.glVertexArrayVertexBuffer(vaobj, bindingindex, buffer, offset, stride);
     }
 
+    @Override
+    public void multiDrawArraysIndirectCount(final int mode, final long indirect, final long drawcount, final int maxdrawcount, final int stride) {
+        GL46C.glMultiDrawArraysIndirectCount(mode, indirect, drawcount, maxdrawcount, stride);
+    }
+
+    @Override
+    public void multiDrawElementsIndirectCount(final int mode, final int type, final long indirect, final long drawcount, final int maxdrawcount, final int stride) {
+        GL46C.glMultiDrawElementsIndirectCount(mode, type, indirect, drawcount, maxdrawcount, stride);
+    }
+
+    @Override
+    public long getTextureHandle(final int texture) {
+        return ARBBindlessTexture.glGetTextureHandleARB(texture);
+    }
+
+    @Override
+    public long getTextureSamplerHandle(final int texture, final int sampler) {
+        return ARBBindlessTexture.glGetTextureSamplerHandleARB(texture, sampler);
+    }
+
+    @Override
+    public void makeTextureHandleResident(final long handle) {
+        ARBBindlessTexture.glMakeTextureHandleResidentARB(handle);
+    }
+
+    @Override
+    public void makeTextureHandleNonResident(final long handle) {
+        ARBBindlessTexture.glMakeTextureHandleNonResidentARB(handle);
+    }
+
 }
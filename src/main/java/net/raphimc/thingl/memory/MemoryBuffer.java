@@ -54,8 +54,12 @@ public class MemoryBuffer {
     }
 
     public MemoryBuffer(final Memory memory) {
+        this(memory, false);
+    }
+
+    protected MemoryBuffer(final Memory memory, final boolean resizable) {
         this.memory = memory;
-        this.resizable = false;
+        this.resizable = resizable;
     }
 
     public byte readByte() {
@@ -481,7 +485,7 @@ public class MemoryBuffer {
 
             final long oldSize = this.getSize();
             final long newSize = MathUtils.align(oldSize + Math.max(bytes, oldSize), GROW_ALIGNMENT);
-            this.memory = MemoryAllocator.reallocateMemory(this.memory, newSize);
+            this.memory = this.reallocateMemory(this.memory, newSize);
         }
     }
 
@@ -498,10 +502,18 @@ public class MemoryBuffer {
 
     public void free() {
         this.reset();
-        this.memory.free();
+        this.freeMemory(this.memory);
         this.memory = null;
     }
 
+    protected Memory reallocateMemory(final Memory memory, final long newSize) {
+        return MemoryAllocator.reallocateMemory(memory, newSize);
+    }
+
+    protected void freeMemory(final Memory memory) {
+        memory.free();
+    }
+
     public Memory getMemory() {
         return this.memory;
     }
@@ -17,6 +17,7 @@
  */
 package net.raphimc.thingl.memory.allocator;
 
+import net.raphimc.thingl.memory.allocator.impl.SlabMemoryAllocator;
 import net.raphimc.thingl.memory.allocator.impl.UnsafeMemoryAllocator;
 import net.raphimc.thingl.resource.memory.Memory;
 import org.lwjgl.system.MemoryUtil;
@@ -25,7 +26,11 @@ import java.nio.ByteBuffer;
 
 public abstract class MemoryAllocator {
 
-    public static final MemoryAllocator INSTANCE = UnsafeMemoryAllocator.INSTANCE;
+    public static final MemoryAllocator INSTANCE = switch (System.getProperty("thingl.memoryAllocator", "unsafe")) {
+        case "unsafe" -> UnsafeMemoryAllocator.INSTANCE;
+        case "slab" -> new SlabMemoryAllocator();
+        default -> throw new IllegalArgumentException("Unknown memory allocator: " + System.getProperty("thingl.memoryAllocator"));
+    };
 
     public static Memory wrapMemory(final ByteBuffer byteBuffer) {
         if (byteBuffer == null) {
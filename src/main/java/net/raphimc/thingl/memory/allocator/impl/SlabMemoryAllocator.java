@@ -0,0 +1,273 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.memory.allocator.impl;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.raphimc.thingl.memory.allocator.MemoryAllocator;
+import net.raphimc.thingl.resource.memory.Memory;
+import net.raphimc.thingl.resource.memory.impl.SlabMemory;
+import net.raphimc.thingl.resource.memory.impl.UnsafeMemory;
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SuppressWarnings("removal")
+public class SlabMemoryAllocator extends MemoryAllocator {
+
+    public static final int LARGE_BLOCK = -1;
+    private static final int MIN_BLOCK_SHIFT = 4;
+    private static final int MAX_BLOCK_SHIFT = 16;
+    private static final int SIZE_CLASS_COUNT = MAX_BLOCK_SHIFT - MIN_BLOCK_SHIFT + 1;
+    private static final long MIN_SLAB_SIZE = 64 * 1024L;
+    private static final int MIN_BLOCKS_PER_SLAB = 16;
+    private static final int THREAD_CACHE_SIZE = 64;
+    private static final int THREAD_CACHE_TRANSFER_SIZE = THREAD_CACHE_SIZE / 2;
+    private static final long DEAD_THREAD_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final SizeClass[] sizeClasses = new SizeClass[SIZE_CLASS_COUNT];
+    private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::createThreadCache);
+    private final AtomicLong lastDeadThreadCheckTime = new AtomicLong(System.nanoTime());
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final AtomicLong peakBytes = new AtomicLong();
+
+    public SlabMemoryAllocator() {
+        for (int i = 0; i < this.sizeClasses.length; i++) {
+            this.sizeClasses[i] = new SizeClass(1L << (MIN_BLOCK_SHIFT + i));
+        }
+    }
+
+    @Override
+    public Memory wrap(final long address, final long size) {
+        if (address != 0L) {
+            return new UnsafeMemory(address, size);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public Memory allocate(final long size) {
+        final int sizeClass = getSizeClass(size);
+        final long address;
+        if (sizeClass == LARGE_BLOCK) {
+            address = UnsafeMemoryAllocator.UNSAFE.allocateMemory(size);
+            if (address == 0L) {
+                throw new OutOfMemoryError("Failed to allocate memory of size: " + size);
+            }
+        } else {
+            address = this.allocateBlock(sizeClass);
+        }
+        this.updateLiveBytes(size);
+        return new SlabMemory(this, address, size, sizeClass);
+    }
+
+    @Override
+    public Memory reallocate(final Memory memory, final long newSize) {
+        final SlabMemory slabMemory = this.checkOwnership(memory);
+        final int sizeClass = slabMemory.getSizeClass();
+        final int newSizeClass = getSizeClass(newSize);
+        if (sizeClass == LARGE_BLOCK && newSizeClass == LARGE_BLOCK) {
+            final long newAddress = UnsafeMemoryAllocator.UNSAFE.reallocateMemory(slabMemory.getAddress(), newSize);
+            if (newAddress == 0L) {
+                throw new OutOfMemoryError("Failed to reallocate memory to size: " + newSize);
+            }
+            this.updateLiveBytes(newSize - slabMemory.getSize());
+            return new SlabMemory(this, newAddress, newSize, LARGE_BLOCK);
+        } else if (sizeClass == newSizeClass) { // The existing block is large enough
+            this.updateLiveBytes(newSize - slabMemory.getSize());
+            return new SlabMemory(this, slabMemory.getAddress(), newSize, sizeClass);
+        }
+
+        final Memory newMemory = this.allocate(newSize);
+        slabMemory.copyTo(newMemory, 0L, 0L, Math.min(slabMemory.getSize(), newSize));
+        this.free(slabMemory);
+        return newMemory;
+    }
+
+    @Override
+    public void free(final Memory memory) {
+        final SlabMemory slabMemory = this.checkOwnership(memory);
+        if (slabMemory.getSizeClass() == LARGE_BLOCK) {
+            UnsafeMemoryAllocator.UNSAFE.freeMemory(slabMemory.getAddress());
+        } else {
+            this.freeBlock(slabMemory.getSizeClass(), slabMemory.getAddress());
+        }
+        this.updateLiveBytes(-slabMemory.getSize());
+    }
+
+    public long getLiveBytes() {
+        return this.liveBytes.get();
+    }
+
+    public long getPeakBytes() {
+        return this.peakBytes.get();
+    }
+
+    public int getSizeClassCount() {
+        return SIZE_CLASS_COUNT;
+    }
+
+    public long getBlockSize(final int sizeClass) {
+        return this.sizeClasses[sizeClass].blockSize;
+    }
+
+    public long getLiveBlockCount(final int sizeClass) {
+        return this.sizeClasses[sizeClass].liveBlocks.get();
+    }
+
+    public long getTotalBlockCount(final int sizeClass) {
+        return this.sizeClasses[sizeClass].totalBlocks.get();
+    }
+
+    public float getOccupancy(final int sizeClass) {
+        final long totalBlockCount = this.getTotalBlockCount(sizeClass);
+        return totalBlockCount != 0L ? (float) this.getLiveBlockCount(sizeClass) / totalBlockCount : 0F;
+    }
+
+    private long allocateBlock(final int sizeClass) {
+        final LongArrayList threadCache = this.threadCache.get().blocks[sizeClass];
+        if (threadCache.isEmpty()) {
+            this.flushDeadThreadCaches();
+            this.sizeClasses[sizeClass].refill(threadCache, THREAD_CACHE_TRANSFER_SIZE);
+        }
+        this.sizeClasses[sizeClass].liveBlocks.incrementAndGet();
+        return threadCache.popLong();
+    }
+
+    private void freeBlock(final int sizeClass, final long address) {
+        final LongArrayList threadCache = this.threadCache.get().blocks[sizeClass];
+        threadCache.add(address);
+        this.sizeClasses[sizeClass].liveBlocks.decrementAndGet();
+        if (threadCache.size() > THREAD_CACHE_SIZE) {
+            this.sizeClasses[sizeClass].release(threadCache, THREAD_CACHE_TRANSFER_SIZE);
+        }
+    }
+
+    private SlabMemory checkOwnership(final Memory memory) {
+        if (!(memory instanceof SlabMemory slabMemory) || slabMemory.getAllocator() != this) {
+            throw new IllegalArgumentException("Memory was not allocated by this allocator");
+        }
+        return slabMemory;
+    }
+
+    private void flushDeadThreadCaches() {
+        // Pool threads get replaced over time, so the blocks cached by dead threads are handed back to the size classes
+        final long time = System.nanoTime();
+        final long lastCheckTime = this.lastDeadThreadCheckTime.get();
+        if (time - lastCheckTime < DEAD_THREAD_CHECK_INTERVAL || !this.lastDeadThreadCheckTime.compareAndSet(lastCheckTime, time)) {
+            return;
+        }
+        this.threadCaches.removeIf(threadCache -> {
+            final Thread owner = threadCache.owner.get();
+            if (owner != null && owner.isAlive()) {
+                return false;
+            }
+            for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+                final LongArrayList blocks = threadCache.blocks[i];
+                if (!blocks.isEmpty()) {
+                    this.sizeClasses[i].release(blocks, blocks.size());
+                }
+            }
+            return true;
+        });
+    }
+
+    private ThreadCache createThreadCache() {
+        final ThreadCache threadCache = new ThreadCache(Thread.currentThread());
+        this.threadCaches.add(threadCache);
+        return threadCache;
+    }
+
+    private void updateLiveBytes(final long delta) {
+        final long liveBytes = this.liveBytes.addAndGet(delta);
+        if (delta > 0L) {
+            this.peakBytes.accumulateAndGet(liveBytes, Math::max);
+        }
+    }
+
+    private static int getSizeClass(final long size) {
+        if (size > 1L << MAX_BLOCK_SHIFT) {
+            return LARGE_BLOCK;
+        }
+        final int blockShift = Long.SIZE - Long.numberOfLeadingZeros(Math.max(size, 1L) - 1L);
+        return Math.max(blockShift, MIN_BLOCK_SHIFT) - MIN_BLOCK_SHIFT;
+    }
+
+    private static final class ThreadCache {
+
+        private final WeakReference<Thread> owner;
+        private final LongArrayList[] blocks = new LongArrayList[SIZE_CLASS_COUNT];
+
+        private ThreadCache(final Thread owner) {
+            this.owner = new WeakReference<>(owner);
+            for (int i = 0; i < this.blocks.length; i++) {
+                this.blocks[i] = new LongArrayList(THREAD_CACHE_SIZE + 1);
+            }
+        }
+
+    }
+
+    private static final class SizeClass {
+
+        private final long blockSize;
+        private final long slabSize;
+        private final LongArrayList freeBlocks = new LongArrayList();
+        private final AtomicLong liveBlocks = new AtomicLong();
+        private final AtomicLong totalBlocks = new AtomicLong();
+
+        private SizeClass(final long blockSize) {
+            this.blockSize = blockSize;
+            this.slabSize = Math.max(MIN_SLAB_SIZE, blockSize * MIN_BLOCKS_PER_SLAB);
+        }
+
+        private synchronized void refill(final LongArrayList threadCache, final int count) {
+            if (this.freeBlocks.isEmpty()) {
+                this.allocateSlab();
+            }
+            final int transferCount = Math.min(count, this.freeBlocks.size());
+            final int start = this.freeBlocks.size() - transferCount;
+            threadCache.addElements(threadCache.size(), this.freeBlocks.elements(), start, transferCount);
+            this.freeBlocks.size(start);
+        }
+
+        private synchronized void release(final LongArrayList threadCache, final int count) {
+            final int start = threadCache.size() - count;
+            this.freeBlocks.addElements(this.freeBlocks.size(), threadCache.elements(), start, count);
+            threadCache.size(start);
+        }
+
+        private void allocateSlab() {
+            final long address = UnsafeMemoryAllocator.UNSAFE.allocateMemory(this.slabSize);
+            if (address == 0L) {
+                throw new OutOfMemoryError("Failed to allocate memory of size: " + this.slabSize);
+            }
+            final long blockCount = this.slabSize / this.blockSize;
+            this.freeBlocks.ensureCapacity(this.freeBlocks.size() + (int) blockCount);
+            for (long i = blockCount - 1; i >= 0; i--) {
+                this.freeBlocks.add(address + i * this.blockSize);
+            }
+            this.totalBlocks.addAndGet(blockCount);
+        }
+
+    }
+
+}
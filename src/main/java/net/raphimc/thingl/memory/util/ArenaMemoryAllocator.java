@@ -17,80 +17,143 @@
  */
 package net.raphimc.thingl.memory.util;
 
+import it.unimi.dsi.fastutil.longs.Long2IntRBTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2IntSortedMap;
 import it.unimi.dsi.fastutil.longs.Long2LongMap;
 import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
-
-import java.util.Map;
-import java.util.TreeMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
 
 public class ArenaMemoryAllocator {
 
+    private static final int BUCKET_COUNT = Long.SIZE;
+
     private final long address;
     private final long size;
     private final Long2LongMap allocationMap = new Long2LongOpenHashMap(); // Address -> Size
-    private final TreeMap<Long, Long> freeMap = new TreeMap<>(); // Address -> Size
+    private final Long2LongMap freeStartMap = new Long2LongOpenHashMap(); // Address -> Size
+    private final Long2LongMap freeEndMap = new Long2LongOpenHashMap(); // End address -> Address
+    private final LongLinkedOpenHashSet[] freeBuckets = new LongLinkedOpenHashSet[BUCKET_COUNT]; // floor(log2(Size)) -> Addresses
+    private final Long2IntSortedMap freeSizeCounts = new Long2IntRBTreeMap(); // Size -> Count
+    private long freeBucketMask;
+    private long usedMemory;
 
     public ArenaMemoryAllocator(final long address, final long size) {
         this.address = address;
         this.size = size;
-        this.freeMap.put(address, size);
+        for (int i = 0; i < this.freeBuckets.length; i++) {
+            this.freeBuckets[i] = new LongLinkedOpenHashSet();
+        }
+        if (size > 0) {
+            this.addFreeSegment(address, size);
+        }
     }
 
     public long alloc(final long segmentSize) {
-        if (segmentSize <= 0) {
+        return this.alloc(segmentSize, 1);
+    }
+
+    public long alloc(final long segmentSize, final long alignment) {
+        if (segmentSize <= 0 || alignment <= 0) {
             return -1;
         }
 
-        for (Map.Entry<Long, Long> entry : this.freeMap.entrySet()) {
-            final long freeSegmentAddress = entry.getKey();
-            final long freeSegmentSize = entry.getValue();
+        long freeSegmentAddress = -1;
+        final int fittingBucket = ceilLog2(segmentSize + alignment - 1);
+        if (fittingBucket < BUCKET_COUNT) { // Every segment in this bucket or above is large enough
+            final long fittingBuckets = this.freeBucketMask & (-1L << fittingBucket);
+            if (fittingBuckets != 0) {
+                freeSegmentAddress = this.freeBuckets[Long.numberOfTrailingZeros(fittingBuckets)].firstLong();
+            }
+        }
+        if (freeSegmentAddress == -1) { // Smaller buckets might still contain a large enough segment
+            for (int bucket = Math.min(fittingBucket, BUCKET_COUNT) - 1; bucket >= floorLog2(segmentSize) && freeSegmentAddress == -1; bucket--) {
+                final LongIterator iterator = this.freeBuckets[bucket].iterator();
+                while (iterator.hasNext()) {
+                    final long candidateAddress = iterator.nextLong();
+                    if (getPadding(candidateAddress, alignment) + segmentSize <= this.freeStartMap.get(candidateAddress)) {
+                        freeSegmentAddress = candidateAddress;
+                        break;
+                    }
+                }
+            }
+        }
+        if (freeSegmentAddress == -1) {
+            return -1;
+        }
 
-            if (freeSegmentSize >= segmentSize) {
-                this.freeMap.remove(freeSegmentAddress);
+        return this.allocFromFreeSegment(freeSegmentAddress, segmentSize, alignment);
+    }
 
-                if (freeSegmentSize > segmentSize) {
-                    final long remainingSize = freeSegmentSize - segmentSize;
-                    final long remainingAddress = freeSegmentAddress + segmentSize;
-                    this.freeMap.put(remainingAddress, remainingSize);
-                }
+    public long allocBelow(final long segmentSize, final long alignment, final long limitAddress) {
+        if (segmentSize <= 0 || alignment <= 0) {
+            return -1;
+        }
 
-                this.allocationMap.put(freeSegmentAddress, segmentSize);
-                return freeSegmentAddress;
+        for (int bucket = floorLog2(segmentSize); bucket < BUCKET_COUNT; bucket++) {
+            if ((this.freeBucketMask & (1L << bucket)) == 0) {
+                continue;
+            }
+            final LongIterator iterator = this.freeBuckets[bucket].iterator();
+            while (iterator.hasNext()) {
+                final long candidateAddress = iterator.nextLong();
+                final long segmentAddress = candidateAddress + getPadding(candidateAddress, alignment);
+                if (segmentAddress + segmentSize <= limitAddress && segmentAddress + segmentSize <= candidateAddress + this.freeStartMap.get(candidateAddress)) {
+                    return this.allocFromFreeSegment(candidateAddress, segmentSize, alignment);
+                }
             }
         }
-
         return -1;
     }
 
     public void free(final long ptr) {
-        long segmentSize = this.allocationMap.remove(ptr);
-        if (segmentSize == 0) {
+        if (!this.allocationMap.containsKey(ptr)) {
             return;
         }
+        long segmentSize = this.allocationMap.remove(ptr);
+        this.usedMemory -= segmentSize;
 
         long start = ptr;
         final long end = start + segmentSize;
-        final Long lower = this.freeMap.floorKey(start);
-        if (lower != null && lower + this.freeMap.get(lower) == start) {
-            start = lower;
-            segmentSize += this.freeMap.get(lower);
-            this.freeMap.remove(lower);
+        if (this.freeEndMap.containsKey(start)) {
+            start = this.freeEndMap.get(start);
+            segmentSize += this.removeFreeSegment(start);
         }
-        final Long higher = this.freeMap.ceilingKey(end);
-        if (higher != null && higher == end) {
-            segmentSize += this.freeMap.get(higher);
-            this.freeMap.remove(higher);
+        if (this.freeStartMap.containsKey(end)) {
+            segmentSize += this.removeFreeSegment(end);
         }
 
-        this.freeMap.put(start, segmentSize);
+        this.addFreeSegment(start, segmentSize);
+    }
+
+    public long getAllocationSize(final long ptr) {
+        return this.allocationMap.getOrDefault(ptr, -1L);
     }
 
     public long getUsedMemory() {
-        return this.allocationMap.values().longStream().sum();
+        return this.usedMemory;
     }
 
     public long getFreeMemory() {
-        return this.freeMap.values().stream().mapToLong(Long::longValue).sum();
+        return this.size - this.usedMemory;
+    }
+
+    public long getUsedEndAddress() {
+        final long end = this.address + this.size;
+        return this.freeEndMap.containsKey(end) ? this.freeEndMap.get(end) : end;
+    }
+
+    public long getLargestFreeSegment() {
+        return this.freeSizeCounts.isEmpty() ? 0 : this.freeSizeCounts.lastLongKey();
+    }
+
+    public int getFreeSegmentCount() {
+        return this.freeStartMap.size();
+    }
+
+    public float getFragmentation() {
+        final long freeMemory = this.getFreeMemory();
+        return freeMemory > 0 ? 1F - (float) this.getLargestFreeSegment() / freeMemory : 0F;
     }
 
     public long getAddress() {
@@ -101,4 +164,60 @@ public class ArenaMemoryAllocator {
         return this.size;
     }
 
+    private long allocFromFreeSegment(final long freeSegmentAddress, final long segmentSize, final long alignment) {
+        final long freeSegmentSize = this.removeFreeSegment(freeSegmentAddress);
+        final long padding = getPadding(freeSegmentAddress, alignment);
+        final long segmentAddress = freeSegmentAddress + padding;
+        if (padding > 0) {
+            this.addFreeSegment(freeSegmentAddress, padding);
+        }
+        final long remainingSize = freeSegmentSize - padding - segmentSize;
+        if (remainingSize > 0) {
+            this.addFreeSegment(segmentAddress + segmentSize, remainingSize);
+        }
+
+        this.allocationMap.put(segmentAddress, segmentSize);
+        this.usedMemory += segmentSize;
+        return segmentAddress;
+    }
+
+    private void addFreeSegment(final long segmentAddress, final long segmentSize) {
+        this.freeStartMap.put(segmentAddress, segmentSize);
+        this.freeEndMap.put(segmentAddress + segmentSize, segmentAddress);
+        final int bucket = floorLog2(segmentSize);
+        this.freeBuckets[bucket].add(segmentAddress);
+        this.freeBucketMask |= 1L << bucket;
+        this.freeSizeCounts.mergeInt(segmentSize, 1, Integer::sum);
+    }
+
+    private long removeFreeSegment(final long segmentAddress) {
+        final long segmentSize = this.freeStartMap.remove(segmentAddress);
+        this.freeEndMap.remove(segmentAddress + segmentSize);
+        final int bucket = floorLog2(segmentSize);
+        this.freeBuckets[bucket].remove(segmentAddress);
+        if (this.freeBuckets[bucket].isEmpty()) {
+            this.freeBucketMask &= ~(1L << bucket);
+        }
+        final int count = this.freeSizeCounts.get(segmentSize);
+        if (count > 1) {
+            this.freeSizeCounts.put(segmentSize, count - 1);
+        } else {
+            this.freeSizeCounts.remove(segmentSize);
+        }
+        return segmentSize;
+    }
+
+    private static long getPadding(final long address, final long alignment) {
+        final long remainder = address % alignment;
+        return remainder != 0 ? alignment - remainder : 0;
+    }
+
+    private static int floorLog2(final long value) {
+        return Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    }
+
+    private static int ceilLog2(final long value) {
+        return value <= 1 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value - 1);
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.memory.util;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.lenni0451.commons.math.MathUtils;
+import net.raphimc.thingl.memory.allocator.MemoryAllocator;
+import net.raphimc.thingl.memory.allocator.impl.UnsafeMemoryAllocator;
+import net.raphimc.thingl.resource.memory.Memory;
+import net.raphimc.thingl.resource.memory.impl.FrameArenaMemory;
+
+@SuppressWarnings("removal")
+public class FrameArena extends MemoryAllocator {
+
+    private static final long DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024L;
+    private static final int ALIGNMENT = 16;
+
+    private final long minBlockSize;
+    private final LongList blockAddresses = new LongArrayList();
+    private final LongList blockSizes = new LongArrayList();
+    private int currentBlock;
+    private long blockPosition;
+    private long usedBytes;
+    private long peakUsedBytes;
+
+    public FrameArena() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public FrameArena(final long minBlockSize) {
+        this.minBlockSize = minBlockSize;
+    }
+
+    @Override
+    public Memory wrap(final long address, final long size) {
+        return UnsafeMemoryAllocator.INSTANCE.wrap(address, size);
+    }
+
+    @Override
+    public synchronized Memory allocate(final long size) {
+        final long alignedSize = MathUtils.align(Math.max(size, 1L), ALIGNMENT);
+        if (this.blockAddresses.isEmpty() || this.blockPosition + alignedSize > this.blockSizes.getLong(this.currentBlock)) {
+            this.nextBlock(alignedSize);
+        }
+        final long address = this.blockAddresses.getLong(this.currentBlock) + this.blockPosition;
+        this.blockPosition += alignedSize;
+        this.usedBytes += alignedSize;
+        this.peakUsedBytes = Math.max(this.peakUsedBytes, this.usedBytes);
+        return new FrameArenaMemory(address, size);
+    }
+
+    @Override
+    public Memory reallocate(final Memory memory, final long newSize) {
+        final Memory newMemory = this.allocate(newSize);
+        memory.copyTo(newMemory, 0L, 0L, Math.min(memory.getSize(), newSize));
+        return newMemory;
+    }
+
+    @Override
+    public void free(final Memory memory) {
+        // Released in bulk when the frame arena is reset
+    }
+
+    public synchronized void reset() {
+        if (this.blockAddresses.size() > 1) { // Merge the overflow chain into a single block which fits the whole frame
+            long totalSize = 0L;
+            for (int i = 0; i < this.blockAddresses.size(); i++) {
+                UnsafeMemoryAllocator.UNSAFE.freeMemory(this.blockAddresses.getLong(i));
+                totalSize += this.blockSizes.getLong(i);
+            }
+            this.blockAddresses.clear();
+            this.blockSizes.clear();
+            this.allocateBlock(totalSize);
+        }
+        this.currentBlock = 0;
+        this.blockPosition = 0L;
+        this.usedBytes = 0L;
+    }
+
+    public synchronized void free() {
+        for (int i = 0; i < this.blockAddresses.size(); i++) {
+            UnsafeMemoryAllocator.UNSAFE.freeMemory(this.blockAddresses.getLong(i));
+        }
+        this.blockAddresses.clear();
+        this.blockSizes.clear();
+        this.currentBlock = 0;
+        this.blockPosition = 0L;
+        this.usedBytes = 0L;
+    }
+
+    public long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    public long getPeakUsedBytes() {
+        return this.peakUsedBytes;
+    }
+
+    public long getCapacity() {
+        long capacity = 0L;
+        for (int i = 0; i < this.blockSizes.size(); i++) {
+            capacity += this.blockSizes.getLong(i);
+        }
+        return capacity;
+    }
+
+    public int getBlockCount() {
+        return this.blockAddresses.size();
+    }
+
+    private void nextBlock(final long minSize) {
+        if (!this.blockAddresses.isEmpty()) {
+            this.usedBytes += this.blockSizes.getLong(this.currentBlock) - this.blockPosition;
+        }
+        for (int i = this.blockAddresses.isEmpty() ? 0 : this.currentBlock + 1; i < this.blockAddresses.size(); i++) {
+            if (this.blockSizes.getLong(i) >= minSize) {
+                this.currentBlock = i;
+                this.blockPosition = 0L;
+                return;
+            }
+        }
+        this.allocateBlock(Math.max(minSize, this.minBlockSize));
+        this.currentBlock = this.blockAddresses.size() - 1;
+        this.blockPosition = 0L;
+    }
+
+    private void allocateBlock(final long size) {
+        final long address = UnsafeMemoryAllocator.UNSAFE.allocateMemory(size);
+        if (address == 0L) {
+            throw new OutOfMemoryError("Failed to allocate memory of size: " + size);
+        }
+        this.blockAddresses.add(address);
+        this.blockSizes.add(size);
+    }
+
+}
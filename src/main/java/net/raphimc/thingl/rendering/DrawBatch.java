@@ -23,11 +23,11 @@ import net.raphimc.thingl.rendering.vertex.VertexDataLayout;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexDataLayout vertexDataLayout, VertexDataLayout instanceVertexDataLayout, Runnable setupAction, Runnable cleanupAction) {
+public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexDataLayout vertexDataLayout, VertexDataLayout instanceVertexDataLayout, RenderState renderState, boolean orderDependent, Runnable setupAction, Runnable cleanupAction) {
 
     public static final DrawBatch[] EMPTY_ARRAY = new DrawBatch[0];
 
-    public record Snippet(Supplier<Program> program, DrawMode drawMode, VertexDataLayout vertexDataLayout, VertexDataLayout instanceVertexDataLayout, Runnable setupAction, Runnable cleanupAction) {
+    public record Snippet(Supplier<Program> program, DrawMode drawMode, VertexDataLayout vertexDataLayout, VertexDataLayout instanceVertexDataLayout, RenderState renderState, boolean orderDependent, Runnable setupAction, Runnable cleanupAction) {
     }
 
     public static class Builder {
@@ -36,6 +36,8 @@ public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexData
         private DrawMode drawMode;
         private VertexDataLayout vertexDataLayout;
         private VertexDataLayout instanceVertexDataLayout;
+        private RenderState renderState;
+        private boolean orderDependent;
         private Runnable setupAction = () -> {
         };
         private Runnable cleanupAction = () -> {
@@ -49,6 +51,8 @@ public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexData
             this.drawMode = snippet.drawMode;
             this.vertexDataLayout = snippet.vertexDataLayout;
             this.instanceVertexDataLayout = snippet.instanceVertexDataLayout;
+            this.renderState = snippet.renderState;
+            this.orderDependent = snippet.orderDependent;
             this.setupAction = snippet.setupAction;
             this.cleanupAction = snippet.cleanupAction;
         }
@@ -58,6 +62,8 @@ public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexData
             this.drawMode = drawBatch.drawMode;
             this.vertexDataLayout = drawBatch.vertexDataLayout;
             this.instanceVertexDataLayout = drawBatch.instanceVertexDataLayout;
+            this.renderState = drawBatch.renderState;
+            this.orderDependent = drawBatch.orderDependent;
             this.setupAction = drawBatch.setupAction;
             this.cleanupAction = drawBatch.cleanupAction;
         }
@@ -82,6 +88,21 @@ public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexData
             return this;
         }
 
+        public Builder renderState(final RenderState renderState) {
+            this.renderState = renderState;
+            return this;
+        }
+
+        public Builder mergeRenderState(final RenderState renderState) {
+            this.renderState = this.renderState != null ? this.renderState.merge(renderState) : renderState;
+            return this;
+        }
+
+        public Builder orderDependent(final boolean orderDependent) {
+            this.orderDependent = orderDependent;
+            return this;
+        }
+
         public Builder setupAction(final Consumer<Program> setupAction) {
             return this.setupAction(() -> setupAction.accept(this.program.get()));
         }
@@ -165,6 +186,10 @@ public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexData
             if (snippet.instanceVertexDataLayout != null) {
                 this.instanceVertexDataLayout = snippet.instanceVertexDataLayout;
             }
+            if (snippet.renderState != null) {
+                this.mergeRenderState(snippet.renderState);
+            }
+            this.orderDependent |= snippet.orderDependent;
             this.appendSetupAction(snippet.setupAction);
             this.prependCleanupAction(snippet.cleanupAction);
             return this;
@@ -180,11 +205,11 @@ public record DrawBatch(Supplier<Program> program, DrawMode drawMode, VertexData
             if (this.vertexDataLayout == null) {
                 throw new IllegalStateException("Vertex data layout must be set");
             }
-            return new DrawBatch(this.program, this.drawMode, this.vertexDataLayout, this.instanceVertexDataLayout, this.setupAction, this.cleanupAction);
+            return new DrawBatch(this.program, this.drawMode, this.vertexDataLayout, this.instanceVertexDataLayout, this.renderState, this.orderDependent, this.setupAction, this.cleanupAction);
         }
 
         public Snippet buildSnippet() {
-            return new Snippet(this.program, this.drawMode, this.vertexDataLayout, this.instanceVertexDataLayout, this.setupAction, this.cleanupAction);
+            return new Snippet(this.program, this.drawMode, this.vertexDataLayout, this.instanceVertexDataLayout, this.renderState, this.orderDependent, this.setupAction, this.cleanupAction);
         }
 
     }
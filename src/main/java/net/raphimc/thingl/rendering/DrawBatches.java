@@ -37,19 +37,19 @@ public final class DrawBatches {
     public static final VertexDataLayout POSITION_LAYOUT = new VertexDataLayout(POSITION_ELEMENT);
     public static final VertexDataLayout POSITION_COLOR_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, COLOR_ELEMENT);
     public static final VertexDataLayout POSITION_TEXTURE_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, TEXTURE_ELEMENT);
+    public static final VertexDataLayout POSITION_TEXTURE_INDEX_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, TEXTURE_ELEMENT, new VertexDataLayoutElement(DataType.UNSIGNED_INT, 1));
     public static final VertexDataLayout POSITION_TEXTURE_ARRAY_LAYER_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, TEXTURE_ELEMENT, new VertexDataLayoutElement(DataType.UNSIGNED_SHORT, 1));
     public static final VertexDataLayout POSITION_COLOR_TEXTURE_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, COLOR_ELEMENT, TEXTURE_ELEMENT);
     public static final VertexDataLayout LINE_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, COLOR_ELEMENT, new VertexDataLayoutElement(DataType.FLOAT, 1));
     public static final VertexDataLayout TEXT_GLYPH_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, TEXTURE_ELEMENT, new VertexDataLayoutElement(DataType.UNSIGNED_BYTE, 1), new VertexDataLayoutElement(DataType.UNSIGNED_SHORT, 1));
+    public static final VertexDataLayout SDF_SHAPE_LAYOUT = new VertexDataLayout(POSITION_ELEMENT, COLOR_ELEMENT, new VertexDataLayoutElement(DataType.FLOAT, 2), new VertexDataLayoutElement(DataType.FLOAT, 2), new VertexDataLayoutElement(DataType.FLOAT, 4), new VertexDataLayoutElement(DataType.FLOAT, 4));
+    public static final VertexDataLayout UNIT_QUAD_LAYOUT = new VertexDataLayout(new VertexDataLayoutElement(DataType.FLOAT, 2));
+    public static final VertexDataLayout SPRITE_INSTANCE_LAYOUT = new VertexDataLayout(new VertexDataLayoutElement(DataType.FLOAT, 4), new VertexDataLayoutElement(DataType.UNSIGNED_SHORT, 4, TargetDataType.FLOAT_NORMALIZED), COLOR_ELEMENT, new VertexDataLayoutElement(DataType.FLOAT, 1), new VertexDataLayoutElement(DataType.SHORT, 2, TargetDataType.FLOAT_NORMALIZED), new VertexDataLayoutElement(DataType.UNSIGNED_INT, 1, TargetDataType.INT));
 
     // === Snippets ===
 
     public static final DrawBatch.Snippet BLEND_SNIPPET = new DrawBatch.Builder()
-        .setupAction(() -> {
-            ThinGL.glStateStack().push();
-            ThinGL.glStateStack().enable(GL11C.GL_BLEND);
-        })
-        .cleanupAction(() -> ThinGL.glStateStack().pop())
+        .renderState(new RenderState.Builder().enable(GL11C.GL_BLEND).build())
         .buildSnippet();
 
     public static final DrawBatch.Snippet COLOR_SNIPPET = new DrawBatch.Builder(BLEND_SNIPPET)
@@ -64,6 +64,27 @@ public final class DrawBatches {
         .vertexDataLayout(POSITION_TEXTURE_LAYOUT)
         .buildSnippet();
 
+    public static final DrawBatch.Snippet MULTI_TEXTURE_SNIPPET = new DrawBatch.Builder(TEXTURE_SNIPPET)
+        .program(() -> ThinGL.programs().getMultiTexture())
+        .vertexDataLayout(POSITION_TEXTURE_INDEX_LAYOUT)
+        .buildSnippet();
+
+    public static final DrawBatch.Snippet BINDLESS_TEXTURE_SNIPPET = new DrawBatch.Builder(TEXTURE_SNIPPET)
+        .program(() -> ThinGL.programs().getBindlessTexture())
+        .vertexDataLayout(POSITION_TEXTURE_INDEX_LAYOUT)
+        .buildSnippet();
+
+    public static final DrawBatch.Snippet INSTANCED_SPRITE_SNIPPET = new DrawBatch.Builder(BLEND_SNIPPET)
+        .program(() -> ThinGL.programs().getInstancedSprite())
+        .drawMode(DrawMode.QUADS)
+        .vertexDataLayout(UNIT_QUAD_LAYOUT)
+        .instanceVertexDataLayout(SPRITE_INSTANCE_LAYOUT)
+        .buildSnippet();
+
+    public static final DrawBatch.Snippet BINDLESS_INSTANCED_SPRITE_SNIPPET = new DrawBatch.Builder(INSTANCED_SPRITE_SNIPPET)
+        .program(() -> ThinGL.programs().getBindlessInstancedSprite())
+        .buildSnippet();
+
     // === Draw Batches ===
 
     public static final DrawBatch COLOR_QUAD = new DrawBatch.Builder(COLOR_SNIPPET)
@@ -80,14 +101,14 @@ public final class DrawBatches {
 
     public static final DrawBatch COLOR_GL_LINE = new DrawBatch.Builder(COLOR_SNIPPET)
         .drawMode(DrawMode.LINES)
-        .appendSetupAction(() -> ThinGL.glStateStack().enable(GL11C.GL_LINE_SMOOTH))
+        .mergeRenderState(new RenderState.Builder().enable(GL11C.GL_LINE_SMOOTH).build())
         .build();
 
     public static final DrawBatch COLOR_LINE = new DrawBatch.Builder(COLOR_SNIPPET)
         .program(() -> ThinGL.programs().getLine())
         .drawMode(DrawMode.LINES)
         .vertexDataLayout(LINE_LAYOUT)
-        .appendSetupAction(() -> ThinGL.glStateStack().disable(GL11C.GL_CULL_FACE))
+        .mergeRenderState(new RenderState.Builder().disable(GL11C.GL_CULL_FACE).build())
         .build();
 
     public static final DrawBatch COLOR_TRIANGLE_FAN = new DrawBatch.Builder(COLOR_SNIPPET)
@@ -98,6 +119,12 @@ public final class DrawBatches {
         .drawMode(DrawMode.TRIANGLE_STRIP)
         .build();
 
+    public static final DrawBatch SDF_SHAPE_QUAD = new DrawBatch.Builder(BLEND_SNIPPET)
+        .program(() -> ThinGL.programs().getSdfShape())
+        .drawMode(DrawMode.QUADS)
+        .vertexDataLayout(SDF_SHAPE_LAYOUT)
+        .build();
+
     // === Instanced Draw Batches ===
 
     public static final DrawBatch INSTANCED_COLOR_QUAD = new DrawBatch.Builder(COLOR_QUAD)
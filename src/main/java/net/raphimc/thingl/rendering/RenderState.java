@@ -0,0 +1,118 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.rendering;
+
+import it.unimi.dsi.fastutil.ints.Int2BooleanMap;
+import it.unimi.dsi.fastutil.ints.Int2BooleanMaps;
+import it.unimi.dsi.fastutil.ints.Int2BooleanOpenHashMap;
+import net.raphimc.thingl.gl.wrapper.GLStateManager;
+
+public record RenderState(Int2BooleanMap capabilities, GLStateManager.BlendFunc blendFunc, Integer blendEquation, Integer depthFunc, Boolean depthMask, GLStateManager.ColorMask colorMask) {
+
+    public static final RenderState EMPTY = new Builder().build();
+
+    public RenderState {
+        capabilities = Int2BooleanMaps.unmodifiable(new Int2BooleanOpenHashMap(capabilities));
+    }
+
+    public RenderState merge(final RenderState other) {
+        return new Builder(this).merge(other).build();
+    }
+
+    public static class Builder {
+
+        private final Int2BooleanMap capabilities = new Int2BooleanOpenHashMap();
+        private GLStateManager.BlendFunc blendFunc;
+        private Integer blendEquation;
+        private Integer depthFunc;
+        private Boolean depthMask;
+        private GLStateManager.ColorMask colorMask;
+
+        public Builder() {
+        }
+
+        public Builder(final RenderState renderState) {
+            this.merge(renderState);
+        }
+
+        public Builder enable(final int capability) {
+            this.capabilities.put(capability, true);
+            return this;
+        }
+
+        public Builder disable(final int capability) {
+            this.capabilities.put(capability, false);
+            return this;
+        }
+
+        public Builder blendFunc(final int src, final int dst) {
+            return this.blendFunc(src, dst, src, dst);
+        }
+
+        public Builder blendFunc(final int srcRGB, final int dstRGB, final int srcAlpha, final int dstAlpha) {
+            this.blendFunc = new GLStateManager.BlendFunc(srcRGB, dstRGB, srcAlpha, dstAlpha);
+            return this;
+        }
+
+        public Builder blendEquation(final int mode) {
+            this.blendEquation = mode;
+            return this;
+        }
+
+        public Builder depthFunc(final int func) {
+            this.depthFunc = func;
+            return this;
+        }
+
+        public Builder depthMask(final boolean state) {
+            this.depthMask = state;
+            return this;
+        }
+
+        public Builder colorMask(final boolean red, final boolean green, final boolean blue, final boolean alpha) {
+            this.colorMask = new GLStateManager.ColorMask(red, green, blue, alpha);
+            return this;
+        }
+
+        public Builder merge(final RenderState renderState) {
+            this.capabilities.putAll(renderState.capabilities);
+            if (renderState.blendFunc != null) {
+                this.blendFunc = renderState.blendFunc;
+            }
+            if (renderState.blendEquation != null) {
+                this.blendEquation = renderState.blendEquation;
+            }
+            if (renderState.depthFunc != null) {
+                this.depthFunc = renderState.depthFunc;
+            }
+            if (renderState.depthMask != null) {
+                this.depthMask = renderState.depthMask;
+            }
+            if (renderState.colorMask != null) {
+                this.colorMask = renderState.colorMask;
+            }
+            return this;
+        }
+
+        public RenderState build() {
+            return new RenderState(this.capabilities, this.blendFunc, this.blendEquation, this.depthFunc, this.depthMask, this.colorMask);
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ package net.raphimc.thingl.rendering.bufferbuilder.impl;
 import net.raphimc.thingl.gl.util.QuadIndexBuffer;
 import net.raphimc.thingl.memory.MemoryBuffer;
 import net.raphimc.thingl.rendering.bufferbuilder.BufferBuilder;
+import net.raphimc.thingl.resource.memory.Memory;
 
 public class IndexBufferBuilder extends BufferBuilder<IndexBufferBuilder> {
 
@@ -57,6 +58,26 @@ public class IndexBufferBuilder extends BufferBuilder<IndexBufferBuilder> {
         return this;
     }
 
+    public IndexBufferBuilder writeQuads(final int firstVertex, final int quadCount) {
+        this.memoryBuffer.ensureCanWrite((long) quadCount * QuadIndexBuffer.QUAD_INDEX_COUNT * Integer.BYTES);
+        for (int i = 0; i < quadCount; i++) {
+            final int vertexIndex = firstVertex + i * QuadIndexBuffer.QUAD_VERTEX_COUNT;
+            this.writeAbsoluteIndex(vertexIndex).writeAbsoluteIndex(vertexIndex + 1).writeAbsoluteIndex(vertexIndex + 2);
+            this.writeAbsoluteIndex(vertexIndex + 2).writeAbsoluteIndex(vertexIndex + 3).writeAbsoluteIndex(vertexIndex);
+        }
+        return this;
+    }
+
+    public IndexBufferBuilder append(final IndexBufferBuilder other, final int vertexOffset) {
+        final Memory otherMemory = other.memoryBuffer.getMemory();
+        this.memoryBuffer.ensureCanWrite((long) other.indexCount * Integer.BYTES);
+        for (int i = 0; i < other.indexCount; i++) {
+            this.memoryBuffer.writeInt(otherMemory.getInt((long) i * Integer.BYTES) + vertexOffset);
+        }
+        this.indexCount += other.indexCount;
+        return this;
+    }
+
     public int getIndexCount() {
         return this.indexCount;
     }
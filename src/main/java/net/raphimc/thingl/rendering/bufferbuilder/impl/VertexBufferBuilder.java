@@ -68,6 +68,30 @@ public class VertexBufferBuilder extends DataBufferBuilder<VertexBufferBuilder>
         }
     }
 
+    public VertexBufferBuilder append(final VertexBufferBuilder other) {
+        final IntList otherConnectedPrimitiveIndices = other.getConnectedPrimitiveIndices();
+        final boolean connectedPrimitives = this.connectedPrimitiveIndices != null || otherConnectedPrimitiveIndices != null;
+        if (connectedPrimitives && this.vertexCount != 0) {
+            this.endConnectedPrimitive();
+        }
+
+        final int vertexOffset = this.vertexCount;
+        this.memoryBuffer.writeMemory(other.memoryBuffer.getMemory().slice(0, other.memoryBuffer.getWritePosition()));
+        this.vertexCount += other.vertexCount;
+        if (otherConnectedPrimitiveIndices != null) {
+            if (this.connectedPrimitiveIndices == null) {
+                this.connectedPrimitiveIndices = new IntArrayList();
+                this.connectedPrimitiveIndices.add(0);
+            }
+            for (int i = 1; i < otherConnectedPrimitiveIndices.size(); i++) {
+                this.connectedPrimitiveIndices.add(vertexOffset + otherConnectedPrimitiveIndices.getInt(i));
+            }
+        } else if (connectedPrimitives && this.vertexCount != vertexOffset) {
+            this.endConnectedPrimitive();
+        }
+        return this;
+    }
+
     public int getVertexCount() {
         return this.vertexCount;
     }
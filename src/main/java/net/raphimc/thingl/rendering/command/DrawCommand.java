@@ -26,6 +26,8 @@ public interface DrawCommand {
 
     DrawCommand withVertexOffset(final int vertexOffset);
 
+    DrawCommand withInstances(final int instanceCount, final int baseInstance);
+
     void write(final MemoryBuffer memoryBuffer);
 
     int vertexCount();
@@ -33,6 +33,11 @@ public record DrawArraysCommand(int vertexCount, int instanceCount, int firstVer
         return new DrawArraysCommand(this.vertexCount, this.instanceCount, this.firstVertex + vertexOffset, this.baseInstance);
     }
 
+    @Override
+    public DrawCommand withInstances(final int instanceCount, final int baseInstance) {
+        return new DrawArraysCommand(this.vertexCount, instanceCount, this.firstVertex, baseInstance);
+    }
+
     @Override
     public void write(final MemoryBuffer memoryBuffer) {
         memoryBuffer.writeInt(this.vertexCount).writeInt(this.instanceCount).writeInt(this.firstVertex).writeInt(this.baseInstance);
@@ -19,11 +19,16 @@ package net.raphimc.thingl.rendering.dataholder;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.raphimc.thingl.gl.util.QuadIndexBuffer;
 import net.raphimc.thingl.memory.MemoryBuffer;
+import net.raphimc.thingl.rendering.DrawBatch;
+import net.raphimc.thingl.rendering.DrawMode;
 import net.raphimc.thingl.rendering.bufferbuilder.ShaderBufferBuilder;
 import net.raphimc.thingl.rendering.bufferbuilder.impl.IndexBufferBuilder;
 import net.raphimc.thingl.rendering.bufferbuilder.impl.VertexBufferBuilder;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -104,22 +109,54 @@ public class DrawBatchDataHolder {
         return this.shaderStorageBufferBuilders;
     }
 
-    public void free() {
+    public void append(final DrawBatch drawBatch, final DrawBatchDataHolder other) {
+        if (other.hasInstanceVertexData()) {
+            throw new IllegalArgumentException("Cannot append draw batch data which contains instance vertex data");
+        }
+        if (!other.uniformBufferBuilders.isEmpty() || !other.shaderStorageBufferBuilders.isEmpty()) {
+            throw new IllegalArgumentException("Cannot append draw batch data which contains uniform or shader storage data");
+        }
+        if (!other.hasVertexData()) {
+            return;
+        }
+
+        final VertexBufferBuilder otherVertexBufferBuilder = other.getVertexBufferBuilder();
+        final boolean generateQuadIndices = drawBatch.drawMode() == DrawMode.QUADS && this.hasIndexData() != other.hasIndexData();
+        final VertexBufferBuilder vertexBufferBuilder = this.getVertexBufferBuilder();
+        final int vertexOffset = vertexBufferBuilder.getVertexCount();
+        if (generateQuadIndices && !this.hasIndexData()) { // Only one side has explicit quad indices, so the implicit ones have to be written out
+            this.getIndexBufferBuilder().writeQuads(0, vertexOffset / QuadIndexBuffer.QUAD_VERTEX_COUNT);
+        }
+        vertexBufferBuilder.append(otherVertexBufferBuilder);
+        if (other.hasIndexData()) {
+            this.getIndexBufferBuilder().append(other.getIndexBufferBuilder(), vertexOffset);
+        } else if (generateQuadIndices) {
+            this.getIndexBufferBuilder().writeQuads(vertexOffset, otherVertexBufferBuilder.getVertexCount() / QuadIndexBuffer.QUAD_VERTEX_COUNT);
+        }
+    }
+
+    public List<MemoryBuffer> getMemoryBuffers() {
+        final List<MemoryBuffer> memoryBuffers = new ArrayList<>();
         if (this.vertexBufferBuilder != null) {
-            this.memoryBufferDisposer.accept(this.vertexBufferBuilder.getMemoryBuffer());
+            memoryBuffers.add(this.vertexBufferBuilder.getMemoryBuffer());
         }
         if (this.instanceVertexBufferBuilder != null) {
-            this.memoryBufferDisposer.accept(this.instanceVertexBufferBuilder.getMemoryBuffer());
+            memoryBuffers.add(this.instanceVertexBufferBuilder.getMemoryBuffer());
         }
         if (this.indexBufferBuilder != null) {
-            this.memoryBufferDisposer.accept(this.indexBufferBuilder.getMemoryBuffer());
+            memoryBuffers.add(this.indexBufferBuilder.getMemoryBuffer());
         }
         for (ShaderBufferBuilder uniformBufferBuilder : this.uniformBufferBuilders.values()) {
-            this.memoryBufferDisposer.accept(uniformBufferBuilder.getMemoryBuffer());
+            memoryBuffers.add(uniformBufferBuilder.getMemoryBuffer());
         }
         for (ShaderBufferBuilder shaderStorageBufferBuilder : this.shaderStorageBufferBuilders.values()) {
-            this.memoryBufferDisposer.accept(shaderStorageBufferBuilder.getMemoryBuffer());
+            memoryBuffers.add(shaderStorageBufferBuilder.getMemoryBuffer());
         }
+        return memoryBuffers;
+    }
+
+    public void free() {
+        this.getMemoryBuffers().forEach(this.memoryBufferDisposer);
     }
 
 }
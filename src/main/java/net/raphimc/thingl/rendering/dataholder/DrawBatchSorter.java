@@ -0,0 +1,125 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.rendering.dataholder;
+
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.raphimc.thingl.gl.resource.program.Program;
+import net.raphimc.thingl.rendering.DrawBatch;
+import net.raphimc.thingl.rendering.RenderState;
+import org.lwjgl.opengl.GL11C;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class DrawBatchSorter {
+
+    private static final int PROGRAM_SHIFT = 44;
+    private static final int RENDER_STATE_SHIFT = 24;
+    private static final int VERTEX_DATA_LAYOUT_SHIFT = 12;
+    private static final long PROGRAM_MASK = 0xFFFFFL << PROGRAM_SHIFT;
+    private static final long RENDER_STATE_MASK = 0xFFFFFL << RENDER_STATE_SHIFT;
+    private static final long VERTEX_DATA_LAYOUT_MASK = 0xFFFFFFL;
+
+    private DrawBatchSorter() {
+    }
+
+    /**
+     * Sorts the draw batches by program, render state and vertex data layout. Order dependent draw batches are kept in place and act as barriers.<br>
+     * Draw batches which enable blending or disable depth testing are order dependent as well, since their result depends on what was drawn before.
+     *
+     * @param drawBatches The draw batches to sort in place
+     * @return The number of saved state transitions
+     */
+    public static int sort(final List<DrawBatch> drawBatches) {
+        if (drawBatches.size() < 2) {
+            return 0;
+        }
+
+        final Reference2LongMap<DrawBatch> sortKeys = new Reference2LongOpenHashMap<>(drawBatches.size());
+        for (DrawBatch drawBatch : drawBatches) {
+            sortKeys.put(drawBatch, getSortKey(drawBatch));
+        }
+        final List<DrawBatch> sortedDrawBatches = new ArrayList<>(drawBatches);
+        int segmentStart = 0;
+        for (int i = 0; i <= sortedDrawBatches.size(); i++) {
+            if (i == sortedDrawBatches.size() || isOrderDependent(sortedDrawBatches.get(i))) {
+                if (i - segmentStart > 1) {
+                    sortedDrawBatches.subList(segmentStart, i).sort((a, b) -> Long.compareUnsigned(sortKeys.getLong(a), sortKeys.getLong(b)));
+                }
+                segmentStart = i + 1;
+            }
+        }
+
+        final int savedStateTransitions = countStateTransitions(drawBatches, sortKeys) - countStateTransitions(sortedDrawBatches, sortKeys);
+        if (savedStateTransitions <= 0) { // Keep the insertion order if sorting doesn't help
+            return 0;
+        }
+        for (int i = 0; i < sortedDrawBatches.size(); i++) {
+            drawBatches.set(i, sortedDrawBatches.get(i));
+        }
+        return savedStateTransitions;
+    }
+
+    public static long getSortKey(final DrawBatch drawBatch) {
+        final Program program = drawBatch.program().get();
+        long sortKey = 0;
+        if (program != null) {
+            sortKey |= (program.getGlId() & 0xFFFFFL) << PROGRAM_SHIFT;
+        }
+        if (drawBatch.renderState() != null) {
+            sortKey |= (drawBatch.renderState().hashCode() & 0xFFFFFL) << RENDER_STATE_SHIFT;
+        }
+        sortKey |= (System.identityHashCode(drawBatch.vertexDataLayout()) & 0xFFFL) << VERTEX_DATA_LAYOUT_SHIFT;
+        if (drawBatch.instanceVertexDataLayout() != null) {
+            sortKey |= System.identityHashCode(drawBatch.instanceVertexDataLayout()) & 0xFFFL;
+        }
+        return sortKey;
+    }
+
+    private static boolean isOrderDependent(final DrawBatch drawBatch) {
+        if (drawBatch.orderDependent()) {
+            return true;
+        }
+        final RenderState renderState = drawBatch.renderState();
+        if (renderState == null) {
+            return false;
+        }
+        return renderState.capabilities().getOrDefault(GL11C.GL_BLEND, false) || !renderState.capabilities().getOrDefault(GL11C.GL_DEPTH_TEST, true);
+    }
+
+    private static int countStateTransitions(final List<DrawBatch> drawBatches, final Reference2LongMap<DrawBatch> sortKeys) {
+        int stateTransitions = 0;
+        long previousSortKey = sortKeys.getLong(drawBatches.getFirst());
+        for (int i = 1; i < drawBatches.size(); i++) {
+            final long sortKey = sortKeys.getLong(drawBatches.get(i));
+            if ((sortKey & PROGRAM_MASK) != (previousSortKey & PROGRAM_MASK)) {
+                stateTransitions++;
+            }
+            if ((sortKey & RENDER_STATE_MASK) != (previousSortKey & RENDER_STATE_MASK)) {
+                stateTransitions++;
+            }
+            if ((sortKey & VERTEX_DATA_LAYOUT_MASK) != (previousSortKey & VERTEX_DATA_LAYOUT_MASK)) {
+                stateTransitions++;
+            }
+            previousSortKey = sortKey;
+        }
+        return stateTransitions;
+    }
+
+}
@@ -19,6 +19,8 @@ package net.raphimc.thingl.rendering.dataholder;
 
 import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import net.lenni0451.commons.arrays.ArrayUtils;
+import net.raphimc.thingl.ThinGL;
 import net.raphimc.thingl.memory.MemoryBuffer;
 import net.raphimc.thingl.rendering.DrawBatch;
 import net.raphimc.thingl.rendering.bufferbuilder.ShaderBufferBuilder;
@@ -27,7 +29,10 @@ import net.raphimc.thingl.rendering.bufferbuilder.impl.VertexBufferBuilder;
 import net.raphimc.thingl.util.RenderMathUtil;
 import org.joml.Matrix4f;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 public abstract class MultiDrawBatchDataHolder {
@@ -37,6 +42,7 @@ public abstract class MultiDrawBatchDataHolder {
     protected final Reference2ObjectMap<DrawBatch, DrawBatchDataHolder> drawBatches = new Reference2ObjectLinkedOpenHashMap<>();
     protected DrawBatch lastDrawBatch;
     protected DrawBatchDataHolder lastDrawBatchDataHolder;
+    protected long savedStateTransitions;
 
     public MultiDrawBatchDataHolder() {
         this(DrawBatch.EMPTY_ARRAY, DrawBatch.EMPTY_ARRAY);
@@ -89,6 +95,19 @@ public abstract class MultiDrawBatchDataHolder {
         this.invalidateCache();
     }
 
+    public void merge(final MultiDrawBatchDataHolder other) {
+        for (Reference2ObjectMap.Entry<DrawBatch, DrawBatchDataHolder> entry : other.drawBatches.reference2ObjectEntrySet()) {
+            this.getDrawBatchDataHolder(entry.getKey()).append(entry.getKey(), entry.getValue());
+        }
+        other.free();
+    }
+
+    public void merge(final List<? extends MultiDrawBatchDataHolder> others) {
+        for (MultiDrawBatchDataHolder other : others) {
+            this.merge(other);
+        }
+    }
+
     public void replaceDrawBatch(final DrawBatch oldDrawBatch, final DrawBatch newDrawBatch) {
         if (oldDrawBatch == newDrawBatch) {
             return;
@@ -115,8 +134,40 @@ public abstract class MultiDrawBatchDataHolder {
         return !this.drawBatches.isEmpty();
     }
 
+    public long getSavedStateTransitions() {
+        return this.savedStateTransitions;
+    }
+
+    public void resetSavedStateTransitions() {
+        this.savedStateTransitions = 0;
+    }
+
     protected abstract DrawBatchDataHolder createDrawBatchDataHolder(final DrawBatch drawBatch);
 
+    protected List<DrawBatch> getOrderedDrawBatches(final Set<DrawBatch> drawBatches) {
+        final List<DrawBatch> orderedDrawBatches = new ArrayList<>(drawBatches.size());
+        for (DrawBatch drawBatch : this.firstOrderedDrawBatches) {
+            if (drawBatches.contains(drawBatch)) {
+                orderedDrawBatches.add(drawBatch);
+            }
+        }
+        final int unorderedStart = orderedDrawBatches.size();
+        for (DrawBatch drawBatch : drawBatches) {
+            if (!ArrayUtils.contains(this.firstOrderedDrawBatches, drawBatch) && !ArrayUtils.contains(this.lastOrderedDrawBatches, drawBatch)) {
+                orderedDrawBatches.add(drawBatch);
+            }
+        }
+        if (ThinGL.config().sortDrawBatches()) {
+            this.savedStateTransitions += DrawBatchSorter.sort(orderedDrawBatches.subList(unorderedStart, orderedDrawBatches.size()));
+        }
+        for (DrawBatch drawBatch : this.lastOrderedDrawBatches) {
+            if (drawBatches.contains(drawBatch)) {
+                orderedDrawBatches.add(drawBatch);
+            }
+        }
+        return orderedDrawBatches;
+    }
+
     protected void invalidateCache() {
         this.lastDrawBatch = null;
         this.lastDrawBatchDataHolder = null;
@@ -0,0 +1,54 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.rendering.dataholder;
+
+import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.util.pool.ConcurrentMemoryBufferPool;
+import net.raphimc.thingl.rendering.DrawBatch;
+import org.joml.Matrix4f;
+
+/**
+ * Records draw batch data on any thread. The recorded data has to be merged into another holder on the render thread using {@link MultiDrawBatchDataHolder#merge(MultiDrawBatchDataHolder)} before it can be drawn.
+ */
+public class RecordingMultiDrawBatchDataHolder extends MultiDrawBatchDataHolder {
+
+    private final ConcurrentMemoryBufferPool memoryBufferPool = ThinGL.concurrentMemoryBufferPool(); // Resolved on the creating thread, as worker threads might not have access to the ThinGL instance
+
+    public RecordingMultiDrawBatchDataHolder() {
+    }
+
+    public RecordingMultiDrawBatchDataHolder(final DrawBatch[] firstOrderedDrawBatches, final DrawBatch[] lastOrderedDrawBatches) {
+        super(firstOrderedDrawBatches, lastOrderedDrawBatches);
+    }
+
+    @Override
+    public void draw(final Matrix4f modelMatrix) {
+        throw new UnsupportedOperationException("Recorded draw batches have to be merged into another holder before drawing");
+    }
+
+    @Override
+    public void draw(final DrawBatch drawBatch, final Matrix4f modelMatrix) {
+        throw new UnsupportedOperationException("Recorded draw batches have to be merged into another holder before drawing");
+    }
+
+    @Override
+    protected DrawBatchDataHolder createDrawBatchDataHolder(final DrawBatch drawBatch) {
+        return new DrawBatchDataHolder(this.memoryBufferPool::borrowMemoryBuffer, this.memoryBufferPool::returnMemoryBuffer);
+    }
+
+}
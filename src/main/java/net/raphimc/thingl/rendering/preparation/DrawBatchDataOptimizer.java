@@ -41,6 +41,18 @@ public final class DrawBatchDataOptimizer {
     }
 
     public static PreparedDrawBatchData optimize(final PreparedDrawBatchData preparedDrawBatchData) {
+        if (ThinGL.isInitialized()) {
+            return optimize(preparedDrawBatchData, ThinGL.get().isOnRenderThread() ? ThinGL.frameArena() : MemoryAllocator.INSTANCE, ThinGL.quadIndexBuffer().getSharedData());
+        } else {
+            return optimize(preparedDrawBatchData, MemoryAllocator.INSTANCE, null);
+        }
+    }
+
+    /**
+     * @param memoryAllocator The allocator for the temporary buffers. Worker threads have to pass {@link MemoryAllocator#INSTANCE}.
+     * @param sharedQuadIndexData The shared quad index data, which must not be overwritten. Has to be resolved on a thread with access to the ThinGL instance.
+     */
+    public static PreparedDrawBatchData optimize(final PreparedDrawBatchData preparedDrawBatchData, final MemoryAllocator memoryAllocator, final Memory sharedQuadIndexData) {
         final DrawBatch drawBatch = preparedDrawBatchData.drawBatch();
         final List<DrawCommand> drawCommands = preparedDrawBatchData.drawCommands();
         if (drawBatch.drawMode().getGlMode() != GL11C.GL_TRIANGLES) {
@@ -73,11 +85,11 @@ public final class DrawBatchDataOptimizer {
             indexCount = drawCommand.vertexCount();
         }
 
-        final Memory remapTable = MemoryAllocator.allocateMemory(originalVertexCount * Integer.BYTES);
+        final Memory remapTable = memoryAllocator.allocate(originalVertexCount * Integer.BYTES);
         final long uniqueVertexCount = MeshOptimizer.nmeshopt_generateVertexRemap(remapTable.getAddress(), indexBuffer != null ? indexBuffer.getAddress() : 0L, indexCount, vertexBuffer.getAddress(), originalVertexCount, vertexSize);
-        final Memory newVertexBuffer = MemoryAllocator.allocateMemory(uniqueVertexCount * vertexSize);
+        final Memory newVertexBuffer = memoryAllocator.allocate(uniqueVertexCount * vertexSize);
         MeshOptimizer.nmeshopt_remapVertexBuffer(newVertexBuffer.getAddress(), vertexBuffer.getAddress(), originalVertexCount, vertexSize, remapTable.getAddress());
-        final Memory newIndexBuffer = MemoryAllocator.allocateMemory(indexCount * Integer.BYTES);
+        final Memory newIndexBuffer = memoryAllocator.allocate(indexCount * Integer.BYTES);
         MeshOptimizer.nmeshopt_remapIndexBuffer(newIndexBuffer.getAddress(), indexBuffer != null ? indexBuffer.getAddress() : 0L, indexCount, remapTable.getAddress());
         remapTable.free();
 
@@ -91,7 +103,7 @@ public final class DrawBatchDataOptimizer {
         vertexBuffer = vertexBuffer.slice(0L, newVertexBuffer.getSize());
         newVertexBuffer.free();
 
-        if (indexBuffer != null && indexBuffer != ThinGL.quadIndexBuffer().getSharedData()) {
+        if (indexBuffer != null && indexBuffer != sharedQuadIndexData) {
             newIndexBuffer.copyTo(indexBuffer);
             indexBuffer = indexBuffer.slice(0L, newIndexBuffer.getSize());
         } else {
@@ -21,6 +21,7 @@ import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.raphimc.thingl.ThinGL;
+import net.raphimc.thingl.gl.rendering.dataholder.MappedDrawBatchDataHolder;
 import net.raphimc.thingl.gl.util.QuadIndexBuffer;
 import net.raphimc.thingl.memory.MemoryBuffer;
 import net.raphimc.thingl.rendering.DrawBatch;
@@ -41,16 +42,49 @@ import java.util.Map;
 
 public final class DrawBatchDataPreparer {
 
+    private static final int MAX_SHORT_INDEXED_VERTEX_COUNT = 1 << Short.SIZE;
+
     private DrawBatchDataPreparer() {
     }
 
     public static PreparedDrawBatchData prepareDrawBatchData(final DrawBatch drawBatch, final DrawBatchDataHolder drawBatchDataHolder) {
+        return prepareDrawBatchData(drawBatch, drawBatchDataHolder, false, false);
+    }
+
+    public static PreparedDrawBatchData prepareDrawBatchData(final DrawBatch drawBatch, final DrawBatchDataHolder drawBatchDataHolder, final boolean triangulateConnectedPrimitives, final boolean narrowIndices) {
+        return prepareDrawBatchData(drawBatch, drawBatchDataHolder, triangulateConnectedPrimitives, narrowIndices, ThinGL.isInitialized() && ThinGL.get().isOnRenderThread());
+    }
+
+    /**
+     * @param onRenderThread Whether the shared quad index buffer may be used. Worker threads have to pass false, as they might not have access to the ThinGL instance.
+     */
+    public static PreparedDrawBatchData prepareDrawBatchData(final DrawBatch drawBatch, final DrawBatchDataHolder drawBatchDataHolder, final boolean triangulateConnectedPrimitives, final boolean narrowIndices, final boolean onRenderThread) {
         final VertexBufferBuilder vertexBufferBuilder = drawBatchDataHolder.getVertexBufferBuilder();
         final MemoryBuffer vertexMemoryBuffer = vertexBufferBuilder.getMemoryBuffer();
         if (vertexBufferBuilder.getVertexCount() == 0 && vertexMemoryBuffer.getWritePosition() != 0) {
             throw new IllegalStateException("Trying to build a buffer with no vertices but the buffer builder is not empty. Did you forget to call endVertex()?");
         }
 
+        if (triangulateConnectedPrimitives && drawBatch.drawMode().usesConnectedPrimitives() && !drawBatchDataHolder.hasIndexData()) {
+            final IntList connectedPrimitiveIndices = vertexBufferBuilder.getConnectedPrimitiveIndices();
+            if (connectedPrimitiveIndices != null && getTriangulatedIndexCount(drawBatch.drawMode(), connectedPrimitiveIndices) > 0) {
+                final DrawMode indexedDrawMode = triangulate(drawBatch.drawMode(), connectedPrimitiveIndices, drawBatchDataHolder.getIndexBufferBuilder());
+                return prepareDrawBatchData(new DrawBatch.Builder(drawBatch).drawMode(indexedDrawMode).build(), drawBatchDataHolder, null, narrowIndices, onRenderThread);
+            }
+        }
+        return prepareDrawBatchData(drawBatch, drawBatchDataHolder, vertexBufferBuilder.getConnectedPrimitiveIndices(), narrowIndices, onRenderThread);
+    }
+
+    public static void freePreparedDrawBatchData(final PreparedDrawBatchData preparedDrawBatchData) {
+        preparedDrawBatchData.drawBatchDataHolder().free();
+    }
+
+    private static PreparedDrawBatchData prepareDrawBatchData(final DrawBatch drawBatch, final DrawBatchDataHolder drawBatchDataHolder, final IntList connectedPrimitiveIndices, final boolean narrowIndices, final boolean onRenderThread) {
+        final VertexBufferBuilder vertexBufferBuilder = drawBatchDataHolder.getVertexBufferBuilder();
+        final MemoryBuffer vertexMemoryBuffer = vertexBufferBuilder.getMemoryBuffer();
+        final boolean shortIndices = narrowIndices && vertexBufferBuilder.getVertexCount() <= MAX_SHORT_INDEXED_VERTEX_COUNT;
+        final boolean narrowInPlace = shortIndices && !(drawBatchDataHolder instanceof MappedDrawBatchDataHolder); // Mapped memory is write only
+
         int totalVertexCount = vertexBufferBuilder.getVertexCount();
         IndexBuffer indexBuffer = null;
         if (drawBatch.drawMode().isIndexed()) {
@@ -62,11 +96,25 @@ public final class DrawBatchDataPreparer {
                 }
 
                 indexBuffer = new IndexBuffer(GL11C.GL_UNSIGNED_INT, indexMemoryBuffer.finish());
+                if (narrowInPlace) {
+                    indexBuffer = narrow(indexBuffer);
+                }
                 totalVertexCount = indexBufferBuilder.getIndexCount();
             } else if (drawBatch.drawMode() == DrawMode.QUADS) {
                 final int quadCount = vertexBufferBuilder.getVertexCount() / QuadIndexBuffer.QUAD_VERTEX_COUNT;
-                ThinGL.quadIndexBuffer().ensureSize(quadCount);
-                indexBuffer = new IndexBuffer(GL11C.GL_UNSIGNED_INT, ThinGL.quadIndexBuffer().getSharedData());
+                if (shortIndices && onRenderThread) {
+                    indexBuffer = new IndexBuffer(GL11C.GL_UNSIGNED_SHORT, ThinGL.quadIndexBuffer().getSharedShortData());
+                } else if (onRenderThread) {
+                    ThinGL.quadIndexBuffer().ensureSize(quadCount);
+                    indexBuffer = new IndexBuffer(GL11C.GL_UNSIGNED_INT, ThinGL.quadIndexBuffer().getSharedData());
+                } else { // The shared quad index buffer can only be resized on the render thread
+                    final IndexBufferBuilder indexBufferBuilder = drawBatchDataHolder.getIndexBufferBuilder();
+                    indexBufferBuilder.writeQuads(0, quadCount);
+                    indexBuffer = new IndexBuffer(GL11C.GL_UNSIGNED_INT, indexBufferBuilder.getMemoryBuffer().finish());
+                    if (narrowInPlace) {
+                        indexBuffer = narrow(indexBuffer);
+                    }
+                }
                 totalVertexCount = quadCount * QuadIndexBuffer.QUAD_INDEX_COUNT;
             } else {
                 throw new IllegalStateException("Draw mode uses indexed drawing but no index data was provided");
@@ -104,7 +152,6 @@ public final class DrawBatchDataPreparer {
             shaderStorageBuffers.put(entry.getKey(), entry.getValue().getMemoryBuffer().finish());
         }
 
-        final IntList connectedPrimitiveIndices = vertexBufferBuilder.getConnectedPrimitiveIndices();
         final List<DrawCommand> drawCommands = new ArrayList<>(1);
         if (indexBuffer == null) {
             if (drawBatch.drawMode().usesConnectedPrimitives()) {
@@ -141,8 +188,61 @@ public final class DrawBatchDataPreparer {
         return new PreparedDrawBatchData(drawBatchDataHolder, drawBatch, vertexMemoryBuffer.finish(), instanceVertexBuffer, indexBuffer, uniformBuffers, shaderStorageBuffers, drawCommands);
     }
 
-    public static void freePreparedDrawBatchData(final PreparedDrawBatchData preparedDrawBatchData) {
-        preparedDrawBatchData.drawBatchDataHolder().free();
+    private static int getTriangulatedIndexCount(final DrawMode drawMode, final IntList connectedPrimitiveIndices) {
+        int indexCount = 0;
+        for (int i = 0; i < connectedPrimitiveIndices.size() - 1; i++) {
+            final int vertexCount = connectedPrimitiveIndices.getInt(i + 1) - connectedPrimitiveIndices.getInt(i);
+            indexCount += switch (drawMode) {
+                case TRIANGLE_FAN, TRIANGLE_STRIP -> Math.max(vertexCount - 2, 0) * 3;
+                case LINE_STRIP -> Math.max(vertexCount - 1, 0) * 2;
+                case LINE_LOOP -> vertexCount >= 2 ? vertexCount * 2 : 0;
+                default -> throw new IllegalArgumentException("Unsupported draw mode: " + drawMode);
+            };
+        }
+        return indexCount;
+    }
+
+    private static DrawMode triangulate(final DrawMode drawMode, final IntList connectedPrimitiveIndices, final IndexBufferBuilder indexBufferBuilder) {
+        indexBufferBuilder.getMemoryBuffer().ensureCanWrite((long) getTriangulatedIndexCount(drawMode, connectedPrimitiveIndices) * Integer.BYTES);
+        for (int i = 0; i < connectedPrimitiveIndices.size() - 1; i++) {
+            final int start = connectedPrimitiveIndices.getInt(i);
+            final int end = connectedPrimitiveIndices.getInt(i + 1);
+            switch (drawMode) {
+                case TRIANGLE_FAN -> {
+                    for (int j = start + 1; j < end - 1; j++) {
+                        indexBufferBuilder.writeAbsoluteIndex(start).writeAbsoluteIndex(j).writeAbsoluteIndex(j + 1);
+                    }
+                }
+                case TRIANGLE_STRIP -> {
+                    for (int j = start; j < end - 2; j++) {
+                        if ((j - start) % 2 == 0) {
+                            indexBufferBuilder.writeAbsoluteIndex(j).writeAbsoluteIndex(j + 1).writeAbsoluteIndex(j + 2);
+                        } else { // Keep the winding order of odd strip triangles
+                            indexBufferBuilder.writeAbsoluteIndex(j + 1).writeAbsoluteIndex(j).writeAbsoluteIndex(j + 2);
+                        }
+                    }
+                }
+                case LINE_STRIP, LINE_LOOP -> {
+                    for (int j = start; j < end - 1; j++) {
+                        indexBufferBuilder.writeAbsoluteIndex(j).writeAbsoluteIndex(j + 1);
+                    }
+                    if (drawMode == DrawMode.LINE_LOOP && end - start >= 2) {
+                        indexBufferBuilder.writeAbsoluteIndex(end - 1).writeAbsoluteIndex(start);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported draw mode: " + drawMode);
+            }
+        }
+        return drawMode == DrawMode.LINE_STRIP || drawMode == DrawMode.LINE_LOOP ? DrawMode.INDEXED_LINES : DrawMode.INDEXED_TRIANGLES;
+    }
+
+    private static IndexBuffer narrow(final IndexBuffer indexBuffer) {
+        final Memory indexData = indexBuffer.buffer();
+        final long indexCount = indexData.getSize() / Integer.BYTES;
+        for (long i = 0; i < indexCount; i++) { // In place, the write position never overtakes the read position
+            indexData.putShort(i * Short.BYTES, (short) indexData.getInt(i * Integer.BYTES));
+        }
+        return new IndexBuffer(GL11C.GL_UNSIGNED_SHORT, indexData.slice(0L, indexCount * Short.BYTES));
     }
 
 }
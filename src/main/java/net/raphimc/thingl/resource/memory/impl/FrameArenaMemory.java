@@ -0,0 +1,36 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.resource.memory.impl;
+
+public class FrameArenaMemory extends UnsafeMemory {
+
+    public FrameArenaMemory(final long address, final long size) {
+        super(address, size);
+    }
+
+    @Override
+    public FrameArenaMemory slice(final long offset, final long size) {
+        return new FrameArenaMemory(this.address + offset, size);
+    }
+
+    @Override
+    protected void free0() {
+        // Released in bulk when the frame arena is reset
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of ThinGL - https://github.com/RaphiMC/ThinGL
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.thingl.resource.memory.impl;
+
+import net.raphimc.thingl.memory.allocator.impl.SlabMemoryAllocator;
+
+public class SlabMemory extends UnsafeMemory {
+
+    private final SlabMemoryAllocator allocator;
+    private final int sizeClass;
+
+    public SlabMemory(final SlabMemoryAllocator allocator, final long address, final long size, final int sizeClass) {
+        super(address, size);
+        this.allocator = allocator;
+        this.sizeClass = sizeClass;
+    }
+
+    public SlabMemoryAllocator getAllocator() {
+        return this.allocator;
+    }
+
+    public int getSizeClass() {
+        return this.sizeClass;
+    }
+
+    @Override
+    protected void free0() {
+        this.allocator.free(this);
+    }
+
+}
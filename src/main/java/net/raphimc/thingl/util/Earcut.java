@@ -19,81 +19,211 @@ package net.raphimc.thingl.util;
 
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
-import it.unimi.dsi.fastutil.ints.IntLists;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import org.joml.Vector2f;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Based on <a href="https://github.com/maplibre/earcut4j/blob/abc69f30e10134936a29cb7c4e1175636062d946/src/main/java/org/maplibre/earcut4j/Earcut.java">earcut4j</a>.<br>
- * Original licensed under the <a href="https://github.com/maplibre/earcut4j/blob/abc69f30e10134936a29cb7c4e1175636062d946/LICENSE">ISC</a> license.
+ * Original licensed under the <a href="https://github.com/maplibre/earcut4j/blob/abc69f30e10134936a29cb7c4e1175636062d946/LICENSE">ISC</a> license.<br>
+ * Nodes are stored as struct-of-arrays which are reused across calls, so an instance must not be shared between threads.
  */
 public final class Earcut {
 
-    private Earcut() {
-    }
+    private static final ThreadLocal<Earcut> SHARED = ThreadLocal.withInitial(Earcut::new);
+    private static final int NULL = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
 
     public static IntList earcut(final List<Vector2f> points) {
-        final Node startNode = buildLinkedRing(points, true);
-        if (startNode == null || startNode.next == startNode.prev) {
-            return IntLists.emptyList();
+        final float[] coordinates = new float[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            final Vector2f point = points.get(i);
+            coordinates[i * 2] = point.x;
+            coordinates[i * 2 + 1] = point.y;
         }
-        final PolygonBounds bounds = points.size() > 75 ? new PolygonBounds(points) : null; // if the shape is not too simple, we'll use z-order curve hash later
+        return earcut(coordinates, 0, points.size());
+    }
+
+    /**
+     * Triangulates {@code count} points stored as interleaved x/y coordinates starting at {@code offset}.<br>
+     * The returned indices are relative to the first point.
+     */
+    public static IntList earcut(final float[] coordinates, final int offset, final int count) {
         final IntList triangles = new IntArrayList();
-        triangulateLinked(startNode, triangles, bounds, 0);
+        SHARED.get().triangulate(coordinates, offset, count, triangles);
         return triangles;
     }
 
-    private static Node buildLinkedRing(final List<Vector2f> points, final boolean clockwise) {
+    private final Long2ObjectLinkedOpenHashMap<CacheEntry> cache = new Long2ObjectLinkedOpenHashMap<>();
+    private int cacheSize;
+
+    private float[] x = new float[64]; // node x coordinate
+    private float[] y = new float[64]; // node y coordinate
+    private int[] index = new int[64]; // index in the input point list
+    private int[] prev = new int[64]; // previous node in a polygon ring
+    private int[] next = new int[64]; // next node in a polygon ring
+    private int[] z = new int[64]; // z-order curve value
+    private int[] prevZ = new int[64]; // previous node in z-order
+    private int[] nextZ = new int[64]; // next node in z-order
+    private int nodeCount;
+
+    private boolean hashed;
+    private float minX;
+    private float minY;
+    private float invSize;
+
+    public Earcut() {
+        this(0);
+    }
+
+    public Earcut(final int cacheSize) {
+        this.setCacheSize(cacheSize);
+    }
+
+    /**
+     * Triangulates {@code count} points stored as interleaved x/y coordinates starting at {@code offset} and appends the indices (relative to the first point) to {@code triangles}.
+     */
+    public void triangulate(final float[] coordinates, final int offset, final int count, final IntList triangles) {
+        if (count < 3) {
+            return;
+        }
+        if (this.cacheSize <= 0) {
+            this.triangulateUncached(coordinates, offset, count, triangles);
+            return;
+        }
+
+        final long hash = hash(coordinates, offset, count);
+        final CacheEntry entry = this.cache.getAndMoveToLast(hash);
+        if (entry != null && Arrays.equals(entry.coordinates, 0, entry.coordinates.length, coordinates, offset, offset + count * 2)) {
+            triangles.addElements(triangles.size(), entry.triangles);
+            return;
+        }
+
+        final int start = triangles.size();
+        this.triangulateUncached(coordinates, offset, count, triangles);
+        final int[] result = new int[triangles.size() - start];
+        triangles.getElements(start, result, 0, result.length);
+        this.cache.putAndMoveToLast(hash, new CacheEntry(Arrays.copyOfRange(coordinates, offset, offset + count * 2), result));
+        this.trimCache();
+    }
+
+    public int getCacheSize() {
+        return this.cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        if (this.cacheSize != cacheSize) {
+            this.cacheSize = cacheSize;
+            this.trimCache();
+        }
+    }
+
+    public void clearCache() {
+        this.cache.clear();
+    }
+
+    private void trimCache() {
+        while (this.cache.size() > Math.max(this.cacheSize, 0)) {
+            this.cache.removeFirst();
+        }
+    }
+
+    private void triangulateUncached(final float[] coordinates, final int offset, final int count, final IntList triangles) {
+        this.nodeCount = 0;
+        this.ensureCapacity(count);
+        final int startNode = this.buildLinkedRing(coordinates, offset, count, true);
+        if (startNode == NULL || this.next[startNode] == this.prev[startNode]) {
+            return;
+        }
+        this.hashed = count > 75; // if the shape is not too simple, we'll use z-order curve hash later
+        if (this.hashed) {
+            this.computeBounds(coordinates, offset, count);
+        }
+        this.triangulateLinked(startNode, triangles, 0);
+    }
+
+    private int buildLinkedRing(final float[] coordinates, final int offset, final int count, final boolean clockwise) {
         float signedArea = 0F;
-        Vector2f previousPoint = points.getLast();
-        for (Vector2f point : points) {
-            signedArea += (previousPoint.x - point.x) * (point.y + previousPoint.y);
-            previousPoint = point;
+        float previousX = coordinates[offset + (count - 1) * 2];
+        float previousY = coordinates[offset + (count - 1) * 2 + 1];
+        for (int i = 0; i < count; i++) {
+            final float x = coordinates[offset + i * 2];
+            final float y = coordinates[offset + i * 2 + 1];
+            signedArea += (previousX - x) * (y + previousY);
+            previousX = x;
+            previousY = y;
         }
 
-        Node last = null;
+        int last = NULL;
         if (clockwise == signedArea > 0F) {
-            for (int i = 0; i < points.size(); i++) {
-                last = new Node(points.get(i), i, last);
+            for (int i = 0; i < count; i++) {
+                last = this.insertNode(i, coordinates[offset + i * 2], coordinates[offset + i * 2 + 1], last);
             }
         } else {
-            for (int i = points.size() - 1; i >= 0; i--) {
-                last = new Node(points.get(i), i, last);
+            for (int i = count - 1; i >= 0; i--) {
+                last = this.insertNode(i, coordinates[offset + i * 2], coordinates[offset + i * 2 + 1], last);
             }
         }
-        if (last != null && last.equals(last.next)) {
-            last.remove();
-            last = last.next;
+        if (last != NULL && this.equals(last, this.next[last])) {
+            this.remove(last);
+            last = this.next[last];
         }
         return last;
     }
 
-    private static void triangulateLinked(Node ear, final IntList triangles, final PolygonBounds bounds, final int pass) {
-        if (ear == null) {
+    private void computeBounds(final float[] coordinates, final int offset, final int count) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            final float x = coordinates[offset + i * 2];
+            final float y = coordinates[offset + i * 2 + 1];
+            if (x < minX) {
+                minX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            }
+            if (x > maxX) {
+                maxX = x;
+            }
+            if (y > maxY) {
+                maxY = y;
+            }
+        }
+        final float size = Math.max(maxX - minX, maxY - minY);
+        this.minX = minX;
+        this.minY = minY;
+        this.invSize = size != 0F ? Short.MAX_VALUE / size : 0F;
+    }
+
+    private void triangulateLinked(int ear, final IntList triangles, final int pass) {
+        if (ear == NULL) {
             return;
         }
 
-        if (bounds != null && pass == 0) { // interlink polygon nodes in z-order
-            indexByZOrder(ear, bounds);
+        if (this.hashed && pass == 0) { // interlink polygon nodes in z-order
+            this.indexByZOrder(ear);
         }
 
-        Node stop = ear;
-        while (ear.prev != ear.next) { // iterate through ears, slicing them one by one
-            final Node prev = ear.prev;
-            final Node next = ear.next;
+        int stop = ear;
+        while (this.prev[ear] != this.next[ear]) { // iterate through ears, slicing them one by one
+            final int prev = this.prev[ear];
+            final int next = this.next[ear];
 
-            if (bounds != null ? isEarHashed(ear, bounds) : isEar(ear)) {
+            if (this.hashed ? this.isEarHashed(ear) : this.isEar(ear)) {
                 // cut off the triangle
-                triangles.add(prev.i);
-                triangles.add(ear.i);
-                triangles.add(next.i);
-                ear.remove();
+                triangles.add(this.index[prev]);
+                triangles.add(this.index[ear]);
+                triangles.add(this.index[next]);
+                this.remove(ear);
 
                 // skipping the next vertex leads to less sliver triangles
-                ear = next.next;
-                stop = next.next;
+                ear = this.next[next];
+                stop = this.next[next];
                 continue;
             }
 
@@ -102,257 +232,263 @@ public final class Earcut {
             if (ear == stop) { // if we looped through the whole remaining polygon and can't find any more ears
                 if (pass == 0) {
                     // try filtering points and slicing again
-                    triangulateLinked(removeRedundantPoints(ear, null), triangles, bounds, 1);
+                    this.triangulateLinked(this.removeRedundantPoints(ear, NULL), triangles, 1);
                 } else if (pass == 1) {
                     // if this didn't work, try curing all small self-intersections locally
-                    triangulateLinked(resolveLocalIntersections(removeRedundantPoints(ear, null), triangles), triangles, bounds, 2);
+                    this.triangulateLinked(this.resolveLocalIntersections(this.removeRedundantPoints(ear, NULL), triangles), triangles, 2);
                 } else if (pass == 2) {
                     // as a last resort, try splitting the remaining polygon into two
-                    splitAndTriangulate(ear, triangles, bounds);
+                    this.splitAndTriangulate(ear, triangles);
                 }
                 break;
             }
         }
     }
 
-    private static boolean isEar(final Node ear) {
-        if (orientedTriangleArea(ear.prev, ear, ear.next) >= 0F) {
+    private boolean isEar(final int ear) {
+        final int a = this.prev[ear];
+        final int c = this.next[ear];
+        if (this.orientedTriangleArea(a, ear, c) >= 0F) {
             return false; // reflex, can't be an ear
         }
 
         // now make sure we don't have other points inside the potential ear
-        Node p = ear.next.next;
-        while (p != ear.prev) {
-            if (isPointInTriangleExcludingFirstVertex(ear.prev.x, ear.prev.y, ear.x, ear.y, ear.next.x, ear.next.y, p.x, p.y) && orientedTriangleArea(p.prev, p, p.next) >= 0F) {
+        int p = this.next[c];
+        while (p != a) {
+            if (this.isPointInEar(a, ear, c, p) && this.orientedTriangleArea(this.prev[p], p, this.next[p]) >= 0F) {
                 return false;
             }
-            p = p.next;
+            p = this.next[p];
         }
         return true;
     }
 
-    private static boolean isEarHashed(final Node ear, final PolygonBounds bounds) {
-        if (orientedTriangleArea(ear.prev, ear, ear.next) >= 0F) {
+    private boolean isEarHashed(final int ear) {
+        final int a = this.prev[ear];
+        final int c = this.next[ear];
+        if (this.orientedTriangleArea(a, ear, c) >= 0F) {
             return false; // reflex, can't be an ear
         }
 
         // triangle bbox; min & max are calculated like this for speed
-        final float minTX = Math.min(ear.prev.x, Math.min(ear.x, ear.next.x));
-        final float minTY = Math.min(ear.prev.y, Math.min(ear.y, ear.next.y));
-        final float maxTX = Math.max(ear.prev.x, Math.max(ear.x, ear.next.x));
-        final float maxTY = Math.max(ear.prev.y, Math.max(ear.y, ear.next.y));
+        final float minTX = Math.min(this.x[a], Math.min(this.x[ear], this.x[c]));
+        final float minTY = Math.min(this.y[a], Math.min(this.y[ear], this.y[c]));
+        final float maxTX = Math.max(this.x[a], Math.max(this.x[ear], this.x[c]));
+        final float maxTY = Math.max(this.y[a], Math.max(this.y[ear], this.y[c]));
 
         // z-order range for the current triangle bbox;
-        final int minZ = computeZOrder(minTX, minTY, bounds);
-        final int maxZ = computeZOrder(maxTX, maxTY, bounds);
+        final int minZ = this.computeZOrder(minTX, minTY);
+        final int maxZ = this.computeZOrder(maxTX, maxTY);
 
-        Node p = ear.prevZ;
-        Node n = ear.nextZ;
-        while (p != null && p.z >= minZ && n != null && n.z <= maxZ) { // first look for points inside the triangle in increasing z-order
-            if (p != ear.prev && p != ear.next && isPointInTriangleExcludingFirstVertex(ear.prev.x, ear.prev.y, ear.x, ear.y, ear.next.x, ear.next.y, p.x, p.y) && orientedTriangleArea(p.prev, p, p.next) >= 0F) {
+        int p = this.prevZ[ear];
+        int n = this.nextZ[ear];
+        while (p != NULL && this.z[p] >= minZ && n != NULL && this.z[n] <= maxZ) { // first look for points inside the triangle in increasing z-order
+            if (p != a && p != c && this.isPointInEar(a, ear, c, p) && this.orientedTriangleArea(this.prev[p], p, this.next[p]) >= 0F) {
                 return false;
             }
-            p = p.prevZ;
+            p = this.prevZ[p];
 
-            if (n != ear.prev && n != ear.next && isPointInTriangleExcludingFirstVertex(ear.prev.x, ear.prev.y, ear.x, ear.y, ear.next.x, ear.next.y, n.x, n.y) && orientedTriangleArea(n.prev, n, n.next) >= 0F) {
+            if (n != a && n != c && this.isPointInEar(a, ear, c, n) && this.orientedTriangleArea(this.prev[n], n, this.next[n]) >= 0F) {
                 return false;
             }
-            n = n.nextZ;
+            n = this.nextZ[n];
         }
 
-        while (p != null && p.z >= minZ) { // look for remaining points in decreasing z-order
-            if (p != ear.prev && p != ear.next && isPointInTriangleExcludingFirstVertex(ear.prev.x, ear.prev.y, ear.x, ear.y, ear.next.x, ear.next.y, p.x, p.y) && orientedTriangleArea(p.prev, p, p.next) >= 0F) {
+        while (p != NULL && this.z[p] >= minZ) { // look for remaining points in decreasing z-order
+            if (p != a && p != c && this.isPointInEar(a, ear, c, p) && this.orientedTriangleArea(this.prev[p], p, this.next[p]) >= 0F) {
                 return false;
             }
-            p = p.prevZ;
+            p = this.prevZ[p];
         }
 
-        while (n != null && n.z <= maxZ) { // look for remaining points in increasing z-order
-            if (n != ear.prev && n != ear.next && isPointInTriangleExcludingFirstVertex(ear.prev.x, ear.prev.y, ear.x, ear.y, ear.next.x, ear.next.y, n.x, n.y) && orientedTriangleArea(n.prev, n, n.next) >= 0F) {
+        while (n != NULL && this.z[n] <= maxZ) { // look for remaining points in increasing z-order
+            if (n != a && n != c && this.isPointInEar(a, ear, c, n) && this.orientedTriangleArea(this.prev[n], n, this.next[n]) >= 0F) {
                 return false;
             }
-            n = n.nextZ;
+            n = this.nextZ[n];
         }
 
         return true;
     }
 
-    private static Node resolveLocalIntersections(Node start, final IntList triangles) {
-        Node p = start;
+    private int resolveLocalIntersections(int start, final IntList triangles) {
+        int p = start;
         do {
-            final Node a = p.prev;
-            final Node b = p.next.next;
+            final int a = this.prev[p];
+            final int b = this.next[this.next[p]];
 
-            if (!a.equals(b) && segmentsIntersect(a, p, p.next, b) && isLocallyInside(a, b) && isLocallyInside(b, a)) {
-                triangles.add(a.i);
-                triangles.add(p.i);
-                triangles.add(b.i);
+            if (!this.equals(a, b) && this.segmentsIntersect(a, p, this.next[p], b) && this.isLocallyInside(a, b) && this.isLocallyInside(b, a)) {
+                triangles.add(this.index[a]);
+                triangles.add(this.index[p]);
+                triangles.add(this.index[b]);
 
                 // remove two nodes involved
-                p.remove();
-                p.next.remove();
+                this.remove(p);
+                this.remove(this.next[p]);
 
                 p = start = b;
             }
-            p = p.next;
+            p = this.next[p];
         } while (p != start);
 
-        return removeRedundantPoints(p, null);
+        return this.removeRedundantPoints(p, NULL);
     }
 
-    private static void splitAndTriangulate(final Node start, final IntList triangles, final PolygonBounds bounds) {
+    private void splitAndTriangulate(final int start, final IntList triangles) {
         // look for a valid diagonal that divides the polygon into two
-        Node a = start;
+        int a = start;
         do {
-            Node b = a.next.next;
-            while (b != a.prev) {
-                if (a.i != b.i && isValidDiagonal(a, b)) {
+            int b = this.next[this.next[a]];
+            while (b != this.prev[a]) {
+                if (this.index[a] != this.index[b] && this.isValidDiagonal(a, b)) {
                     // split the polygon in two by the diagonal
-                    Node c = splitPolygon(a, b);
+                    int c = this.splitPolygon(a, b);
 
                     // filter collinear points around the cuts
-                    a = removeRedundantPoints(a, a.next);
-                    c = removeRedundantPoints(c, c.next);
+                    a = this.removeRedundantPoints(a, this.next[a]);
+                    c = this.removeRedundantPoints(c, this.next[c]);
 
                     // run earcut on each half
-                    triangulateLinked(a, triangles, bounds, 0);
-                    triangulateLinked(c, triangles, bounds, 0);
+                    this.triangulateLinked(a, triangles, 0);
+                    this.triangulateLinked(c, triangles, 0);
                     return;
                 }
-                b = b.next;
+                b = this.next[b];
             }
-            a = a.next;
+            a = this.next[a];
         } while (a != start);
     }
 
-    private static boolean isValidDiagonal(final Node a, final Node b) {
-        return a.next.i != b.i && a.prev.i != b.i && !intersectsAnyPolygonEdge(a, b) // doesn't intersect other edges
-            && (isLocallyInside(a, b) && isLocallyInside(b, a) && isMidpointInsidePolygon(a, b) // locally visible
-            && (orientedTriangleArea(a.prev, a, b.prev) != 0F || orientedTriangleArea(a, b.prev, b) != 0F) // does not create opposite-facing sectors
-            || a.equals(b) && orientedTriangleArea(a.prev, a, a.next) > 0F && orientedTriangleArea(b.prev, b, b.next) > 0F); // special zero-length case
+    private boolean isValidDiagonal(final int a, final int b) {
+        return this.index[this.next[a]] != this.index[b] && this.index[this.prev[a]] != this.index[b] && !this.intersectsAnyPolygonEdge(a, b) // doesn't intersect other edges
+            && (this.isLocallyInside(a, b) && this.isLocallyInside(b, a) && this.isMidpointInsidePolygon(a, b) // locally visible
+            && (this.orientedTriangleArea(this.prev[a], a, this.prev[b]) != 0F || this.orientedTriangleArea(a, this.prev[b], b) != 0F) // does not create opposite-facing sectors
+            || this.equals(a, b) && this.orientedTriangleArea(this.prev[a], a, this.next[a]) > 0F && this.orientedTriangleArea(this.prev[b], b, this.next[b]) > 0F); // special zero-length case
     }
 
-    private static boolean isLocallyInside(final Node a, final Node b) {
-        return orientedTriangleArea(a.prev, a, a.next) < 0F ? orientedTriangleArea(a, b, a.next) >= 0F && orientedTriangleArea(a, a.prev, b) >= 0F : orientedTriangleArea(a, b, a.prev) < 0F || orientedTriangleArea(a, a.next, b) < 0F;
+    private boolean isLocallyInside(final int a, final int b) {
+        return this.orientedTriangleArea(this.prev[a], a, this.next[a]) < 0F ? this.orientedTriangleArea(a, b, this.next[a]) >= 0F && this.orientedTriangleArea(a, this.prev[a], b) >= 0F : this.orientedTriangleArea(a, b, this.prev[a]) < 0F || this.orientedTriangleArea(a, this.next[a], b) < 0F;
     }
 
-    private static boolean isMidpointInsidePolygon(final Node a, final Node b) {
-        Node p = a;
+    private boolean isMidpointInsidePolygon(final int a, final int b) {
+        int p = a;
         boolean inside = false;
-        final float px = (a.x + b.x) / 2F;
-        final float py = (a.y + b.y) / 2F;
+        final float px = (this.x[a] + this.x[b]) / 2F;
+        final float py = (this.y[a] + this.y[b]) / 2F;
         do {
-            if (((p.y > py) != (p.next.y > py)) && p.next.y != p.y && (px < (p.next.x - p.x) * (py - p.y) / (p.next.y - p.y) + p.x)) {
+            final int n = this.next[p];
+            if (((this.y[p] > py) != (this.y[n] > py)) && this.y[n] != this.y[p] && (px < (this.x[n] - this.x[p]) * (py - this.y[p]) / (this.y[n] - this.y[p]) + this.x[p])) {
                 inside = !inside;
             }
-            p = p.next;
+            p = n;
         } while (p != a);
         return inside;
     }
 
-    private static boolean intersectsAnyPolygonEdge(final Node a, final Node b) {
-        Node p = a;
+    private boolean intersectsAnyPolygonEdge(final int a, final int b) {
+        int p = a;
         do {
-            if (p.i != a.i && p.next.i != a.i && p.i != b.i && p.next.i != b.i && segmentsIntersect(p, p.next, a, b)) {
+            final int n = this.next[p];
+            if (this.index[p] != this.index[a] && this.index[n] != this.index[a] && this.index[p] != this.index[b] && this.index[n] != this.index[b] && this.segmentsIntersect(p, n, a, b)) {
                 return true;
             }
-            p = p.next;
+            p = n;
         } while (p != a);
         return false;
     }
 
-    private static boolean segmentsIntersect(final Node p1, final Node q1, final Node p2, final Node q2) {
-        final float o1 = Math.signum(orientedTriangleArea(p1, q1, p2));
-        final float o2 = Math.signum(orientedTriangleArea(p1, q1, q2));
-        final float o3 = Math.signum(orientedTriangleArea(p2, q2, p1));
-        final float o4 = Math.signum(orientedTriangleArea(p2, q2, q1));
+    private boolean segmentsIntersect(final int p1, final int q1, final int p2, final int q2) {
+        final float o1 = Math.signum(this.orientedTriangleArea(p1, q1, p2));
+        final float o2 = Math.signum(this.orientedTriangleArea(p1, q1, q2));
+        final float o3 = Math.signum(this.orientedTriangleArea(p2, q2, p1));
+        final float o4 = Math.signum(this.orientedTriangleArea(p2, q2, q1));
         if (o1 != o2 && o3 != o4) {
             return true; // general case
         }
-        if (o1 == 0F && isOnSegment(p1, p2, q1)) {
+        if (o1 == 0F && this.isOnSegment(p1, p2, q1)) {
             return true; // p1, q1 and p2 are collinear and p2 lies on p1q1
         }
-        if (o2 == 0F && isOnSegment(p1, q2, q1)) {
+        if (o2 == 0F && this.isOnSegment(p1, q2, q1)) {
             return true; // p1, q1 and q2 are collinear and q2 lies on p1q1
         }
-        if (o3 == 0F && isOnSegment(p2, p1, q2)) {
+        if (o3 == 0F && this.isOnSegment(p2, p1, q2)) {
             return true; // p2, q2 and p1 are collinear and p1 lies on p2q2
         }
-        if (o4 == 0F && isOnSegment(p2, q1, q2)) {
+        if (o4 == 0F && this.isOnSegment(p2, q1, q2)) {
             return true; // p2, q2 and q1 are collinear and q1 lies on p2q2
         }
         return false;
     }
 
     // for collinear points p, q, r, check if point q lies on segment pr
-    private static boolean isOnSegment(final Node p, final Node q, final Node r) {
-        return q.x <= Math.max(p.x, r.x) && q.x >= Math.min(p.x, r.x) && q.y <= Math.max(p.y, r.y) && q.y >= Math.min(p.y, r.y);
+    private boolean isOnSegment(final int p, final int q, final int r) {
+        return this.x[q] <= Math.max(this.x[p], this.x[r]) && this.x[q] >= Math.min(this.x[p], this.x[r]) && this.y[q] <= Math.max(this.y[p], this.y[r]) && this.y[q] >= Math.min(this.y[p], this.y[r]);
     }
 
-    private static Node removeRedundantPoints(final Node start, Node end) {
-        if (end == null) {
+    private int removeRedundantPoints(final int start, int end) {
+        if (end == NULL) {
             end = start;
         }
-        Node p = start;
+        int p = start;
         boolean again;
         do {
             again = false;
-            if (p.equals(p.next) || orientedTriangleArea(p.prev, p, p.next) == 0F) {
-                p.remove();
-                p = end = p.prev;
-                if (p == p.next) {
+            if (this.equals(p, this.next[p]) || this.orientedTriangleArea(this.prev[p], p, this.next[p]) == 0F) {
+                this.remove(p);
+                p = end = this.prev[p];
+                if (p == this.next[p]) {
                     break;
                 }
                 again = true;
             } else {
-                p = p.next;
+                p = this.next[p];
             }
         } while (again || p != end);
         return end;
     }
 
-    private static Node splitPolygon(final Node a, final Node b) {
-        final Node a2 = new Node(a, a.i);
-        final Node b2 = new Node(b, b.i);
-        final Node an = a.next;
-        final Node bp = b.prev;
+    private int splitPolygon(final int a, final int b) {
+        final int a2 = this.allocateNode(this.index[a], this.x[a], this.y[a]);
+        final int b2 = this.allocateNode(this.index[b], this.x[b], this.y[b]);
+        final int an = this.next[a];
+        final int bp = this.prev[b];
 
-        a.next = b;
-        b.prev = a;
+        this.next[a] = b;
+        this.prev[b] = a;
 
-        a2.next = an;
-        an.prev = a2;
+        this.next[a2] = an;
+        this.prev[an] = a2;
 
-        b2.next = a2;
-        a2.prev = b2;
+        this.next[b2] = a2;
+        this.prev[a2] = b2;
 
-        bp.next = b2;
-        b2.prev = bp;
+        this.next[bp] = b2;
+        this.prev[b2] = bp;
 
         return b2;
     }
 
-    private static void indexByZOrder(final Node start, final PolygonBounds bounds) {
-        Node p = start;
+    private void indexByZOrder(final int start) {
+        int p = start;
         do {
-            if (p.z == Integer.MIN_VALUE) {
-                p.z = computeZOrder(p.x, p.y, bounds);
+            if (this.z[p] == Integer.MIN_VALUE) {
+                this.z[p] = this.computeZOrder(this.x[p], this.y[p]);
             }
-            p.prevZ = p.prev;
-            p.nextZ = p.next;
-            p = p.next;
+            this.prevZ[p] = this.prev[p];
+            this.nextZ[p] = this.next[p];
+            p = this.next[p];
         } while (p != start);
-        p.prevZ.nextZ = null;
-        p.prevZ = null;
+        this.nextZ[this.prevZ[p]] = NULL;
+        this.prevZ[p] = NULL;
 
-        sortByZOrder(p);
+        this.sortByZOrder(p);
     }
 
     // z-order of a point given coords and inverse of the longer side of data bbox
-    private static int computeZOrder(final float x, final float y, final PolygonBounds bounds) {
+    private int computeZOrder(final float x, final float y) {
         // coords are transformed into non-negative 15-bit integer range
-        int lx = (int) ((x - bounds.minX) * bounds.invSize);
-        int ly = (int) ((y - bounds.minY) * bounds.invSize);
+        int lx = (int) ((x - this.minX) * this.invSize);
+        int ly = (int) ((y - this.minY) * this.invSize);
 
         lx = (lx | (lx << 8)) & 0x00FF00FF;
         lx = (lx | (lx << 4)) & 0x0F0F0F0F;
@@ -367,141 +503,151 @@ public final class Earcut {
         return lx | (ly << 1);
     }
 
-    private static void sortByZOrder(Node list) {
+    private void sortByZOrder(int list) {
         int inSize = 1;
         int numMerges;
         do {
-            Node p = list;
-            list = null;
-            Node tail = null;
+            int p = list;
+            list = NULL;
+            int tail = NULL;
             numMerges = 0;
 
-            while (p != null) {
+            while (p != NULL) {
                 numMerges++;
-                Node q = p;
+                int q = p;
                 int pSize = 0;
                 for (int i = 0; i < inSize; i++) {
                     pSize++;
-                    q = q.nextZ;
-                    if (q == null) {
+                    q = this.nextZ[q];
+                    if (q == NULL) {
                         break;
                     }
                 }
 
                 int qSize = inSize;
-                while (pSize > 0 || (qSize > 0 && q != null)) {
-                    final Node e;
+                while (pSize > 0 || (qSize > 0 && q != NULL)) {
+                    final int e;
                     if (pSize == 0) {
                         e = q;
-                        q = q.nextZ;
+                        q = this.nextZ[q];
                         qSize--;
-                    } else if (qSize == 0 || q == null) {
+                    } else if (qSize == 0 || q == NULL) {
                         e = p;
-                        p = p.nextZ;
+                        p = this.nextZ[p];
                         pSize--;
-                    } else if (p.z <= q.z) {
+                    } else if (this.z[p] <= this.z[q]) {
                         e = p;
-                        p = p.nextZ;
+                        p = this.nextZ[p];
                         pSize--;
                     } else {
                         e = q;
-                        q = q.nextZ;
+                        q = this.nextZ[q];
                         qSize--;
                     }
 
-                    if (tail != null) {
-                        tail.nextZ = e;
+                    if (tail != NULL) {
+                        this.nextZ[tail] = e;
                     } else {
                         list = e;
                     }
 
-                    e.prevZ = tail;
+                    this.prevZ[e] = tail;
                     tail = e;
                 }
 
                 p = q;
             }
 
-            tail.nextZ = null;
+            this.nextZ[tail] = NULL;
             inSize *= 2;
 
         } while (numMerges > 1);
     }
 
-    private static float orientedTriangleArea(final Node p, final Node q, final Node r) {
-        return (q.y - p.y) * (r.x - q.x) - (q.x - p.x) * (r.y - q.y);
+    private float orientedTriangleArea(final int p, final int q, final int r) {
+        return (this.y[q] - this.y[p]) * (this.x[r] - this.x[q]) - (this.x[q] - this.x[p]) * (this.y[r] - this.y[q]);
     }
 
-    private static boolean isPointInTriangle(final float ax, final float ay, final float bx, final float by, final float cx, final float cy, final float px, final float py) {
-        return (cx - px) * (ay - py) >= (ax - px) * (cy - py) && (ax - px) * (by - py) >= (bx - px) * (ay - py) && (bx - px) * (cy - py) >= (cx - px) * (by - py);
+    private boolean isPointInEar(final int a, final int b, final int c, final int p) {
+        return isPointInTriangleExcludingFirstVertex(this.x[a], this.y[a], this.x[b], this.y[b], this.x[c], this.y[c], this.x[p], this.y[p]);
     }
 
-    private static boolean isPointInTriangleExcludingFirstVertex(final float ax, final float ay, final float bx, final float by, final float cx, final float cy, final float px, final float py) {
-        return !(ax == px && ay == py) && isPointInTriangle(ax, ay, bx, by, cx, cy, px, py);
+    private boolean equals(final int a, final int b) {
+        return this.x[a] == this.x[b] && this.y[a] == this.y[b];
     }
 
-    private static final class Node extends Vector2f {
+    private int insertNode(final int index, final float x, final float y, final int last) {
+        final int node = this.allocateNode(index, x, y);
+        if (last != NULL) {
+            this.next[node] = this.next[last];
+            this.prev[node] = last;
+            this.prev[this.next[last]] = node;
+            this.next[last] = node;
+        }
+        return node;
+    }
 
-        private final int i; // index in the input point list
-        private Node prev = this; // previous node in a polygon ring
-        private Node next = this; // next node in a polygon ring
-        private int z = Integer.MIN_VALUE; // z-order curve value
-        private Node prevZ; // previous node in z-order
-        private Node nextZ; // next node in z-order
+    private int allocateNode(final int index, final float x, final float y) {
+        this.ensureCapacity(this.nodeCount + 1);
+        final int node = this.nodeCount++;
+        this.x[node] = x;
+        this.y[node] = y;
+        this.index[node] = index;
+        this.prev[node] = node;
+        this.next[node] = node;
+        this.z[node] = Integer.MIN_VALUE;
+        this.prevZ[node] = NULL;
+        this.nextZ[node] = NULL;
+        return node;
+    }
 
-        private Node(final Vector2f point, final int index) {
-            this(point, index, null);
+    private void remove(final int node) {
+        this.prev[this.next[node]] = this.prev[node];
+        this.next[this.prev[node]] = this.next[node];
+        if (this.prevZ[node] != NULL) {
+            this.nextZ[this.prevZ[node]] = this.nextZ[node];
+        }
+        if (this.nextZ[node] != NULL) {
+            this.prevZ[this.nextZ[node]] = this.prevZ[node];
         }
+    }
 
-        private Node(final Vector2f point, final int index, final Node last) {
-            super(point);
-            this.i = index;
-            if (last != null) {
-                this.next = last.next;
-                this.prev = last;
-                last.next.prev = this;
-                last.next = this;
-            }
+    private void ensureCapacity(final int capacity) {
+        if (this.x.length < capacity) {
+            final int newCapacity = Math.max(capacity, this.x.length * 2);
+            this.x = Arrays.copyOf(this.x, newCapacity);
+            this.y = Arrays.copyOf(this.y, newCapacity);
+            this.index = Arrays.copyOf(this.index, newCapacity);
+            this.prev = Arrays.copyOf(this.prev, newCapacity);
+            this.next = Arrays.copyOf(this.next, newCapacity);
+            this.z = Arrays.copyOf(this.z, newCapacity);
+            this.prevZ = Arrays.copyOf(this.prevZ, newCapacity);
+            this.nextZ = Arrays.copyOf(this.nextZ, newCapacity);
         }
+    }
 
-        public void remove() {
-            this.next.prev = this.prev;
-            this.prev.next = this.next;
-            if (this.prevZ != null) {
-                this.prevZ.nextZ = this.nextZ;
-            }
-            if (this.nextZ != null) {
-                this.nextZ.prevZ = this.prevZ;
-            }
+    private static long hash(final float[] coordinates, final int offset, final int count) {
+        long hash = mix(count);
+        for (int i = offset; i < offset + count * 2; i++) {
+            hash = mix(hash ^ Float.floatToIntBits(coordinates[i]));
         }
+        return hash;
+    }
 
+    private static long mix(long value) {
+        value *= HASH_MULTIPLIER;
+        return value ^ (value >>> 32);
     }
 
-    private record PolygonBounds(float minX, float minY, float maxX, float maxY, float invSize) {
+    private static boolean isPointInTriangle(final float ax, final float ay, final float bx, final float by, final float cx, final float cy, final float px, final float py) {
+        return (cx - px) * (ay - py) >= (ax - px) * (cy - py) && (ax - px) * (by - py) >= (bx - px) * (ay - py) && (bx - px) * (cy - py) >= (cx - px) * (by - py);
+    }
 
-        private PolygonBounds(final Collection<Vector2f> points) {
-            float minX = Float.MAX_VALUE;
-            float minY = Float.MAX_VALUE;
-            float maxX = -Float.MAX_VALUE;
-            float maxY = -Float.MAX_VALUE;
-            for (Vector2f point : points) {
-                if (point.x < minX) {
-                    minX = point.x;
-                }
-                if (point.y < minY) {
-                    minY = point.y;
-                }
-                if (point.x > maxX) {
-                    maxX = point.x;
-                }
-                if (point.y > maxY) {
-                    maxY = point.y;
-                }
-            }
-            final float size = Math.max(maxX - minX, maxY - minY);
-            this(minX, minY, maxX, maxY, size != 0F ? Short.MAX_VALUE / size : 0F);
-        }
+    private static boolean isPointInTriangleExcludingFirstVertex(final float ax, final float ay, final float bx, final float by, final float cx, final float cy, final float px, final float py) {
+        return !(ax == px && ay == py) && isPointInTriangle(ax, ay, bx, by, cx, cy, px, py);
+    }
 
+    private record CacheEntry(float[] coordinates, int[] triangles) {
     }
 
 }
@@ -1,6 +1,5 @@
 #version 330 core
-
-uniform vec4 u_ColorModifier;
+#include "../util/global_uniforms.glsl"
 
 in vec4 g_Color;
 out vec4 o_Color;
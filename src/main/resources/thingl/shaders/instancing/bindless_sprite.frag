@@ -0,0 +1,24 @@
+#version 430 core
+#extension GL_ARB_bindless_texture: require
+#include "../util/global_uniforms.glsl"
+
+#define NO_TEXTURE 0xFFFFFFFFu
+
+layout (std430) restrict readonly buffer ssbo_TextureHandles {
+    uvec2 textureHandles[];
+};
+
+in vec2 v_TexCoord;
+in vec4 v_Color;
+flat in uint v_TextureIndex;
+out vec4 o_Color;
+
+void main() {
+    o_Color = v_Color * u_ColorModifier;
+    if (v_TextureIndex != NO_TEXTURE) {
+        o_Color *= texture(sampler2D(textureHandles[v_TextureIndex]), v_TexCoord);
+    }
+    if (o_Color.a == 0.0) {
+        discard;
+    }
+}
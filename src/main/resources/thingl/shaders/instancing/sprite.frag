@@ -0,0 +1,21 @@
+#version 400 core
+#include "../util/global_uniforms.glsl"
+
+#define NO_TEXTURE 0xFFFFFFFFu
+
+uniform sampler2D u_Textures[MAX_TEXTURES];
+
+in vec2 v_TexCoord;
+in vec4 v_Color;
+flat in uint v_TextureIndex;
+out vec4 o_Color;
+
+void main() {
+    o_Color = v_Color * u_ColorModifier;
+    if (v_TextureIndex != NO_TEXTURE) {
+        o_Color *= texture(u_Textures[v_TextureIndex], v_TexCoord);
+    }
+    if (o_Color.a == 0.0) {
+        discard;
+    }
+}
@@ -0,0 +1,25 @@
+#version 330 core
+#include "../util/global_uniforms.glsl"
+
+uniform mat4 u_ModelMatrix;
+
+layout (location = 0) in vec2 a_Corner;
+layout (location = 1) in vec4 a_InstanceRect;
+layout (location = 2) in vec4 a_InstanceTexCoords;
+layout (location = 3) in vec4 a_InstanceColor;
+layout (location = 4) in float a_InstanceDepth;
+layout (location = 5) in vec2 a_InstanceRotation;
+layout (location = 6) in uint a_InstanceTextureIndex;
+out vec2 v_TexCoord;
+out vec4 v_Color;
+flat out uint v_TextureIndex;
+
+void main() {
+    vec2 offset = (a_Corner - 0.5) * a_InstanceRect.zw;
+    vec2 position = a_InstanceRect.xy + vec2(offset.x * a_InstanceRotation.x - offset.y * a_InstanceRotation.y, offset.x * a_InstanceRotation.y + offset.y * a_InstanceRotation.x);
+    gl_Position = u_ProjectionMatrix * u_ViewMatrix * u_ModelMatrix * vec4(position, a_InstanceDepth, 1.0);
+
+    v_TexCoord = a_InstanceTexCoords.xy + a_Corner * a_InstanceTexCoords.zw;
+    v_Color = a_InstanceColor;
+    v_TextureIndex = a_InstanceTextureIndex;
+}
@@ -1,8 +1,7 @@
 #version 430 core
 #extension GL_ARB_shader_draw_parameters: require
+#include "../util/global_uniforms.glsl"
 
-uniform mat4 u_ProjectionMatrix;
-uniform mat4 u_ViewMatrix;
 uniform mat4 u_ModelMatrix;
 
 layout (std430) restrict readonly buffer ssbo_DrawData {
@@ -17,7 +16,7 @@ void main() {
     if (positionOffsets.length() == 0) {
         gl_Position = u_ProjectionMatrix * u_ViewMatrix * u_ModelMatrix * vec4(a_Position, 1.0);
     } else {
-        gl_Position = u_ProjectionMatrix * u_ViewMatrix * u_ModelMatrix * vec4(a_Position + positionOffsets[gl_DrawIDARB], 1.0);
+        gl_Position = u_ProjectionMatrix * u_ViewMatrix * u_ModelMatrix * vec4(a_Position + positionOffsets[gl_BaseInstanceARB], 1.0);
     }
 
     v_Color = a_Color;
@@ -0,0 +1,18 @@
+#version 430 core
+#extension GL_ARB_bindless_texture: require
+#include "../util/global_uniforms.glsl"
+
+layout (std430) restrict readonly buffer ssbo_TextureHandles {
+    uvec2 textureHandles[];
+};
+
+in vec2 v_TexCoord;
+flat in uint v_TextureIndex;
+out vec4 o_Color;
+
+void main() {
+    o_Color = texture(sampler2D(textureHandles[v_TextureIndex]), v_TexCoord) * u_ColorModifier;
+    if (o_Color.a == 0.0) {
+        discard;
+    }
+}
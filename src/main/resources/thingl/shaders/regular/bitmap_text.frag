@@ -1,6 +1,6 @@
 #version 400 core
+#include "../util/global_uniforms.glsl"
 
-uniform vec4 u_ColorModifier;
 uniform sampler2D u_Textures[16];
 uniform bool u_EdgeSharpening;
 
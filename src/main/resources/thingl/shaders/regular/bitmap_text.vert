@@ -1,11 +1,10 @@
 #version 430 core
+#include "../util/global_uniforms.glsl"
 
 struct TextData {
     uint textColor;
 };
 
-uniform mat4 u_ProjectionMatrix;
-uniform mat4 u_ViewMatrix;
 uniform mat4 u_ModelMatrix;
 
 layout (std430) restrict readonly buffer ssbo_TextData {
@@ -1,7 +1,6 @@
 #version 330 core
+#include "../util/global_uniforms.glsl"
 
-uniform mat4 u_ProjectionMatrix;
-uniform mat4 u_ViewMatrix;
 uniform mat4 u_ModelMatrix;
 
 layout (location = 0) in vec3 a_Position;
@@ -1,6 +1,6 @@
 #version 330 core
+#include "../util/global_uniforms.glsl"
 
-uniform vec4 u_ColorModifier;
 uniform sampler2D u_Texture;
 
 in vec4 v_Color;
@@ -1,9 +1,9 @@
 #version 330 core
+#include "../util/global_uniforms.glsl"
 #define AVG_LUMINOSITY_WEIGHTS vec3(0.3333, 0.3333, 0.3333)
 #define REC601_LUMINOSITY_WEIGHTS vec3(0.299, 0.587, 0.114)
 #define REC709_LUMINOSITY_WEIGHTS vec3(0.2126, 0.7152, 0.0722)
 
-uniform vec4 u_ColorModifier;
 uniform sampler2D u_Texture;
 
 in vec4 v_Color;
@@ -0,0 +1,15 @@
+#version 400 core
+#include "../util/global_uniforms.glsl"
+
+uniform sampler2D u_Textures[MAX_TEXTURES];
+
+in vec2 v_TexCoord;
+flat in uint v_TextureIndex;
+out vec4 o_Color;
+
+void main() {
+    o_Color = texture(u_Textures[v_TextureIndex], v_TexCoord) * u_ColorModifier;
+    if (o_Color.a == 0.0) {
+        discard;
+    }
+}
@@ -0,0 +1,17 @@
+#version 330 core
+#include "../util/global_uniforms.glsl"
+
+uniform mat4 u_ModelMatrix;
+
+layout (location = 0) in vec3 a_Position;
+layout (location = 1) in vec2 a_TexCoord;
+layout (location = 2) in uint a_TextureIndex;
+out vec2 v_TexCoord;
+flat out uint v_TextureIndex;
+
+void main() {
+    gl_Position = u_ProjectionMatrix * u_ViewMatrix * u_ModelMatrix * vec4(a_Position, 1.0);
+
+    v_TexCoord = a_TexCoord;
+    v_TextureIndex = a_TextureIndex;
+}
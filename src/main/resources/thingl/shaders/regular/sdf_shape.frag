@@ -0,0 +1,37 @@
+#version 330 core
+#include "../util/global_uniforms.glsl"
+
+in vec4 v_Color;
+in vec2 v_LocalPosition;
+flat in vec2 v_HalfSize;
+flat in vec4 v_Radii; // bottom right, top right, bottom left, top left
+flat in vec4 v_Params; // band offset, band half width, arc half aperture sin/cos
+out vec4 o_Color;
+
+float roundedBoxDistance(vec2 p, vec2 halfSize, vec4 radii) {
+    radii.xy = (p.x > 0.0) ? radii.xy : radii.zw;
+    radii.x = (p.y > 0.0) ? radii.x : radii.y;
+    vec2 q = abs(p) - halfSize + radii.x;
+    return min(max(q.x, q.y), 0.0) + length(max(q, 0.0)) - radii.x;
+}
+
+float wedgeDistance(vec2 p, vec2 c) {
+    p.x = abs(p.x);
+    return length(p - c * max(dot(p, c), 0.0)) * sign(c.y * p.x - c.x * p.y);
+}
+
+void main() {
+    float distance = roundedBoxDistance(v_LocalPosition, v_HalfSize, v_Radii);
+    if (v_Params.y > 0.0) {
+        distance = abs(distance - v_Params.x) - v_Params.y;
+    }
+    if (v_Params.w > -1.0) {
+        distance = max(distance, wedgeDistance(v_LocalPosition, v_Params.zw));
+    }
+
+    o_Color = v_Color * u_ColorModifier;
+    o_Color.a *= clamp(0.5 - distance / max(fwidth(distance), 1e-4), 0.0, 1.0);
+    if (o_Color.a == 0.0) {
+        discard;
+    }
+}
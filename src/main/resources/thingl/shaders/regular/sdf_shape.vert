@@ -0,0 +1,26 @@
+#version 330 core
+#include "../util/global_uniforms.glsl"
+
+uniform mat4 u_ModelMatrix;
+
+layout (location = 0) in vec3 a_Position;
+layout (location = 1) in vec4 a_Color;
+layout (location = 2) in vec2 a_LocalPosition;
+layout (location = 3) in vec2 a_HalfSize;
+layout (location = 4) in vec4 a_Radii;
+layout (location = 5) in vec4 a_Params;
+out vec4 v_Color;
+out vec2 v_LocalPosition;
+flat out vec2 v_HalfSize;
+flat out vec4 v_Radii;
+flat out vec4 v_Params;
+
+void main() {
+    gl_Position = u_ProjectionMatrix * u_ViewMatrix * u_ModelMatrix * vec4(a_Position, 1.0);
+
+    v_Color = a_Color;
+    v_LocalPosition = a_LocalPosition;
+    v_HalfSize = a_HalfSize;
+    v_Radii = a_Radii;
+    v_Params = a_Params;
+}
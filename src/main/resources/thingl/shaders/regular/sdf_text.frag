@@ -1,7 +1,7 @@
 #version 400 core
 #include "../util/math.glsl"
+#include "../util/global_uniforms.glsl"
 
-uniform vec4 u_ColorModifier;
 uniform sampler2D u_Textures[16];
 
 in vec2 v_TexCoord;
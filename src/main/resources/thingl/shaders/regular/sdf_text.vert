@@ -1,4 +1,5 @@
 #version 430 core
+#include "../util/global_uniforms.glsl"
 
 struct TextData {
     uint textColor;
@@ -7,8 +8,6 @@ struct TextData {
     float boldnessExpansion;
 };
 
-uniform mat4 u_ProjectionMatrix;
-uniform mat4 u_ViewMatrix;
 uniform mat4 u_ModelMatrix;
 uniform sampler2D u_Textures[16];
 
@@ -1,6 +1,6 @@
 #version 330 core
+#include "../util/global_uniforms.glsl"
 
-uniform vec4 u_ColorModifier;
 uniform samplerCube u_Texture;
 
 in vec3 v_TexCoord;
@@ -0,0 +1,6 @@
+layout (std140) uniform ubo_GlobalUniforms {
+    mat4 u_ProjectionMatrix;
+    mat4 u_ViewMatrix;
+    vec4 u_ColorModifier;
+    vec2 u_Viewport;
+};